@@ -0,0 +1,351 @@
+package com.example.demo.application.log;
+
+import com.example.demo.domain.log.entity.OperationLog;
+import com.example.demo.domain.log.repository.OperationLogMapper;
+import com.example.demo.domain.log.repository.OperationLogPartitionMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 过期操作日志归档器
+ * 按 (create_date, id) 键集分块读取过期日志，每块写为段文件中的一个gzip成员（NDJSON格式），
+ * 段文件fsync并登记索引后才删除该块，数据库中不会出现未归档就被删除的日志。
+ * 多个gzip成员首尾相接仍是合法的gzip文件，可直接用 zcat 读取；索引记录每块在段文件中的偏移和长度，
+ * 也可以只解压其中一块。
+ * 崩溃恢复：启动归档时截断段文件中未登记到索引的尾部，并重放最后一块的删除。
+ * operation_log 为分区表时，由 {@link OperationLogPartitionManager} 对分离出的过期分区调用本类归档。
+ */
+@Slf4j
+@Component
+public class OperationLogArchiver {
+
+    /** 操作日志表名 */
+    public static final String TABLE = "operation_log";
+
+    /** 可归档的表：operation_log、日期分区、默认分区 */
+    private static final Pattern TABLE_PATTERN = Pattern.compile("operation_log(_p\\d{6}(\\d{2})?|_default)?");
+
+    private static final String SEGMENT_PREFIX = "operation_log_";
+
+    private static final String SEGMENT_SUFFIX = ".ndjson.gz";
+
+    private static final String INDEX_FILE = "operation_log_archive.idx";
+
+    /** 读取索引尾部的字节数（单条索引约300字节） */
+    private static final int INDEX_TAIL_BYTES = 8192;
+
+    private static final DateTimeFormatter SEGMENT_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+    /**
+     * 归档索引条目，每条对应段文件中的一个gzip成员
+     * @param table 日志来源表（旧索引中没有该字段，视为 operation_log）
+     * @param segment 段文件名
+     * @param offset 成员在段文件中的起始偏移
+     * @param length 成员字节数
+     * @param rows 日志条数
+     * @param fromTime 第一条日志的创建时间
+     * @param fromId 第一条日志的ID
+     * @param toTime 最后一条日志的创建时间
+     * @param toId 最后一条日志的ID
+     */
+    record IndexEntry(String table, String segment, long offset, long length, int rows,
+                      LocalDateTime fromTime, String fromId, LocalDateTime toTime, String toId) {
+    }
+
+    @Autowired
+    private OperationLogMapper operationLogMapper;
+
+    @Autowired
+    private OperationLogPartitionMapper operationLogPartitionMapper;
+
+    @Value("${operation-log.save-directory:}")
+    private String saveDirectory;
+
+    @Value("${operation-log.archive.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${operation-log.archive.segment-max-rows:100000}")
+    private long segmentMaxRows;
+
+    @Value("${operation-log.archive.pause-ms:100}")
+    private long pauseMs;
+
+    @Value("${operation-log.archive.max-run-minutes:120}")
+    private long maxRunMinutes;
+
+    private final ObjectMapper objectMapper;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile boolean stopping;
+
+    public OperationLogArchiver() {
+        this.objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+    }
+
+    /**
+     * 是否配置了归档目录（未配置时只删除不归档）
+     */
+    public boolean isFileArchiveEnabled() {
+        return saveDirectory != null && !saveDirectory.isEmpty();
+    }
+
+    /**
+     * 归档并删除 operation_log 中创建时间早于指定时间的日志
+     * @return 本次删除的日志条数
+     */
+    public long archive(LocalDateTime expireTime) throws IOException {
+        return archive(TABLE, expireTime);
+    }
+
+    /**
+     * 归档并删除指定表中创建时间早于指定时间的日志
+     * 未配置保存目录时只分块删除，不写文件。每块之间暂停 pause-ms，单次运行超过 max-run-minutes
+     * 后停止，剩余日志在下次运行时继续处理
+     * @param table operation_log 或其分区
+     * @return 本次删除的日志条数
+     */
+    public long archive(String table, LocalDateTime expireTime) throws IOException {
+        if (!TABLE_PATTERN.matcher(table).matches()) {
+            throw new IllegalArgumentException("不支持归档的表: " + table);
+        }
+        if (!running.compareAndSet(false, true)) {
+            log.warn("日志归档任务正在执行，跳过本次运行");
+            return 0;
+        }
+        try {
+            return doArchive(table, expireTime);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private long doArchive(String table, LocalDateTime expireTime) throws IOException {
+        Path directory = isFileArchiveEnabled() ? Paths.get(saveDirectory) : null;
+        if (directory != null) {
+            Files.createDirectories(directory);
+            recover(directory);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(maxRunMinutes);
+        String runTime = LocalDateTime.now().format(SEGMENT_TIME_FORMATTER);
+        int segmentSeq = 0;
+        String segment = null;
+        long segmentRows = 0;
+        long total = 0;
+        LocalDateTime afterTime = null;
+        String afterId = null;
+
+        while (!stopping) {
+            List<OperationLog> chunk = operationLogMapper.selectArchiveChunk(table, expireTime, afterTime, afterId, chunkSize);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            OperationLog first = chunk.get(0);
+            OperationLog last = chunk.get(chunk.size() - 1);
+
+            if (directory != null) {
+                if (segment == null || segmentRows >= segmentMaxRows) {
+                    segment = String.format("%s%s_%04d%s", SEGMENT_PREFIX, runTime, ++segmentSeq, SEGMENT_SUFFIX);
+                    segmentRows = 0;
+                }
+                IndexEntry entry = appendChunk(directory, table, segment, chunk);
+                appendIndex(directory, entry);
+                segmentRows += chunk.size();
+            }
+
+            // 段文件和索引均已落盘，删除本块
+            operationLogMapper.deleteByKeyRange(table, first.getCreateDate(), first.getId(), last.getCreateDate(), last.getId());
+            total += chunk.size();
+            afterTime = last.getCreateDate();
+            afterId = last.getId();
+
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+            if (System.nanoTime() > deadline) {
+                log.warn("日志归档已运行 {} 分钟，本次停止，剩余日志下次继续", maxRunMinutes);
+                break;
+            }
+            if (!pause()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 将一块日志追加为段文件中的一个gzip成员并fsync
+     */
+    private IndexEntry appendChunk(Path directory, String table, String segment, List<OperationLog> chunk) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory.resolve(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            long offset = channel.size();
+            GZIPOutputStream gzip = new GZIPOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+            Writer writer = new OutputStreamWriter(gzip, StandardCharsets.UTF_8);
+            for (OperationLog operationLog : chunk) {
+                writer.write(objectMapper.writeValueAsString(operationLog));
+                writer.write('\n');
+            }
+            writer.flush();
+            gzip.finish();
+            gzip.flush();
+            channel.force(true);
+
+            OperationLog first = chunk.get(0);
+            OperationLog last = chunk.get(chunk.size() - 1);
+            return new IndexEntry(table, segment, offset, channel.size() - offset, chunk.size(),
+                    first.getCreateDate(), first.getId(), last.getCreateDate(), last.getId());
+        }
+    }
+
+    /**
+     * 追加一条索引并fsync
+     */
+    private void appendIndex(Path directory, IndexEntry entry) throws IOException {
+        byte[] line = (objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(directory.resolve(INDEX_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+    }
+
+    /**
+     * 崩溃恢复
+     * 1. 截断索引中不完整的最后一行；
+     * 2. 删除或截断写入了但未登记到索引的段文件内容（对应日志仍在数据库中，会重新归档）；
+     * 3. 重放最后一块的删除（登记索引后、删除前崩溃时这些日志仍在数据库中）
+     */
+    private void recover(Path directory) throws IOException {
+        IndexEntry lastEntry = readLastIndexEntry(directory.resolve(INDEX_FILE));
+        if (lastEntry == null) {
+            return;
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+                    continue;
+                }
+                int compare = name.compareTo(lastEntry.segment());
+                if (compare > 0) {
+                    Files.delete(file);
+                    log.warn("删除未登记到索引的归档段文件: {}", file);
+                } else if (compare == 0) {
+                    long end = lastEntry.offset() + lastEntry.length();
+                    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                        if (channel.size() > end) {
+                            channel.truncate(end);
+                            channel.force(true);
+                            log.warn("截断归档段文件未登记的尾部: file={}, size={}", file, end);
+                        }
+                    }
+                }
+            }
+        }
+
+        String table = lastEntry.table() != null ? lastEntry.table() : TABLE;
+        // 分离出的分区归档完成后会被整体删除，此时无需重放
+        if (TABLE_PATTERN.matcher(table).matches() && operationLogPartitionMapper.tableExists(table)) {
+            int deleted = operationLogMapper.deleteByKeyRange(table, lastEntry.fromTime(), lastEntry.fromId(),
+                    lastEntry.toTime(), lastEntry.toId());
+            if (deleted > 0) {
+                log.warn("删除已归档但未删除的日志: table={}, {} 条", table, deleted);
+            }
+        }
+    }
+
+    /**
+     * 读取索引最后一条完整记录，不完整的尾部（写入时崩溃）会被截断
+     */
+    private IndexEntry readLastIndexEntry(Path indexFile) throws IOException {
+        if (!Files.exists(indexFile)) {
+            return null;
+        }
+        try (RandomAccessFile file = new RandomAccessFile(indexFile.toFile(), "rw")) {
+            long length = file.length();
+            int tailLength = (int) Math.min(length, INDEX_TAIL_BYTES);
+            byte[] tail = new byte[tailLength];
+            file.seek(length - tailLength);
+            file.readFully(tail);
+
+            int end = tailLength - 1;
+            while (end >= 0 && tail[end] != '\n') {
+                end--;
+            }
+            if (end < tailLength - 1) {
+                long validLength = length - tailLength + end + 1;
+                file.setLength(validLength);
+                file.getFD().sync();
+                log.warn("截断归档索引不完整的尾部: file={}, size={}", indexFile, validLength);
+            }
+            if (end < 0) {
+                return null;
+            }
+
+            int start = end - 1;
+            while (start >= 0 && tail[start] != '\n') {
+                start--;
+            }
+            String line = new String(tail, start + 1, end - start - 1, StandardCharsets.UTF_8);
+            return objectMapper.readValue(line, IndexEntry.class);
+        }
+    }
+
+    /**
+     * 块之间暂停，避免长时间占用数据库影响业务请求
+     * @return false表示线程被中断
+     */
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.demo.application.log;
+
+import com.example.demo.domain.log.entity.OperationLog;
+import com.example.demo.domain.log.repository.OperationLogMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 操作日志流式导出
+ * 数据库游标按fetchSize分批读取，逐行写入输出流并定期flush，内存占用与导出行数无关。
+ */
+@Component
+public class OperationLogExporter {
+
+    /**
+     * 导出格式
+     */
+    public enum Format {
+        CSV("csv", "text/csv;charset=UTF-8"),
+        NDJSON("ndjson", "application/x-ndjson;charset=UTF-8"),
+        TXT("txt", "text/plain;charset=UTF-8");
+
+        private final String extension;
+
+        private final String contentType;
+
+        Format(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * 按名称解析格式（不区分大小写），无法识别时返回null
+         */
+        public static Format of(String name) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            return null;
+        }
+    }
+
+    /** 每写入多少行flush一次（与查询fetchSize一致） */
+    private static final int FLUSH_ROWS = 500;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String[] CSV_HEADERS = {
+            "日志ID", "用户ID", "用户名", "操作类型", "模块", "操作描述", "请求方法", "请求URL",
+            "请求参数", "响应结果", "IP地址", "用户代理", "操作时间", "创建时间"
+    };
+
+    @Autowired
+    private OperationLogMapper operationLogMapper;
+
+    private final ObjectMapper objectMapper;
+
+    public OperationLogExporter() {
+        this.objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    /**
+     * 导出符合条件的日志到输出流（不关闭输出流）
+     * 需要在只读事务中执行，PostgreSQL驱动只有在非自动提交模式下才按fetchSize分批读取
+     * @param startTime 操作时间下限（含），为null不限制
+     * @param endTime 操作时间上限（不含），为null不限制
+     * @return 导出的行数
+     * @throws IOException 写出失败（通常是客户端断开连接）
+     */
+    @Transactional(readOnly = true)
+    public long export(OutputStream out, Format format, String module, String operationType, String username,
+                       LocalDateTime startTime, LocalDateTime endTime) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writeHeader(writer, format, module, operationType, username, startTime, endTime);
+        // 尽快发出首批字节，客户端可以立即开始下载
+        writer.flush();
+
+        long[] count = new long[1];
+        try {
+            operationLogMapper.streamForExport(module, operationType, username, startTime, endTime, context -> {
+                try {
+                    writeRow(writer, format, context.getResultObject());
+                    if (++count[0] % FLUSH_ROWS == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            // 写出异常会被MyBatis包装，还原为IOException以便调用方区分客户端断开
+            IOException ioException = findIOException(e);
+            if (ioException != null) {
+                throw ioException;
+            }
+            throw e;
+        }
+
+        writeFooter(writer, format, count[0]);
+        writer.flush();
+        return count[0];
+    }
+
+    private void writeHeader(Writer writer, Format format, String module, String operationType, String username,
+                             LocalDateTime startTime, LocalDateTime endTime) throws IOException {
+        switch (format) {
+            case CSV -> {
+                // UTF-8 BOM，便于Excel正确识别中文
+                writer.write('\uFEFF');
+                writer.write(String.join(",", CSV_HEADERS));
+                writer.write('\n');
+            }
+            case TXT -> {
+                writer.write("========== 操作日志导出 ==========\n");
+                writer.write("导出时间: " + LocalDateTime.now().format(TIME_FORMATTER) + "\n");
+                if (module != null && !module.isEmpty()) {
+                    writer.write("模块筛选: " + module + "\n");
+                }
+                if (operationType != null && !operationType.isEmpty()) {
+                    writer.write("操作类型筛选: " + operationType + "\n");
+                }
+                if (username != null && !username.isEmpty()) {
+                    writer.write("用户名筛选: " + username + "\n");
+                }
+                if (startTime != null) {
+                    writer.write("开始时间: " + startTime.format(TIME_FORMATTER) + "\n");
+                }
+                if (endTime != null) {
+                    writer.write("结束时间: " + endTime.format(TIME_FORMATTER) + "\n");
+                }
+                writer.write("=====================================\n\n");
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void writeRow(Writer writer, Format format, OperationLog log) throws IOException {
+        switch (format) {
+            case CSV -> {
+                String[] values = {
+                        log.getId(), log.getUserId(), log.getUsername(), log.getOperationType(), log.getModule(),
+                        log.getOperationDesc(), log.getRequestMethod(), log.getRequestUrl(), log.getRequestParams(),
+                        log.getResponseResult(), log.getIpAddress(), log.getUserAgent(),
+                        formatTime(log.getOperationTime()), formatTime(log.getCreateDate())
+                };
+                for (int i = 0; i < values.length; i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    writeCsvValue(writer, values[i]);
+                }
+                writer.write('\n');
+            }
+            case NDJSON -> {
+                writer.write(objectMapper.writeValueAsString(log));
+                writer.write('\n');
+            }
+            case TXT -> {
+                writer.write("日志ID: " + log.getId() + "\n");
+                writer.write("用户ID: " + log.getUserId() + "\n");
+                writer.write("用户名: " + log.getUsername() + "\n");
+                writer.write("操作类型: " + log.getOperationType() + "\n");
+                writer.write("模块: " + log.getModule() + "\n");
+                writer.write("操作描述: " + log.getOperationDesc() + "\n");
+                writer.write("请求方法: " + log.getRequestMethod() + "\n");
+                writer.write("请求URL: " + log.getRequestUrl() + "\n");
+                writer.write("请求参数: " + log.getRequestParams() + "\n");
+                writer.write("响应结果: " + log.getResponseResult() + "\n");
+                writer.write("IP地址: " + log.getIpAddress() + "\n");
+                writer.write("用户代理: " + log.getUserAgent() + "\n");
+                writer.write("操作时间: " + formatTime(log.getOperationTime()) + "\n");
+                writer.write("创建时间: " + formatTime(log.getCreateDate()) + "\n");
+                writer.write("-------------------------------------\n");
+            }
+        }
+    }
+
+    private void writeFooter(Writer writer, Format format, long count) throws IOException {
+        if (format == Format.TXT) {
+            // 流式导出时事先不知道总数，写在文件末尾
+            writer.write("\n日志数量: " + count + "\n");
+        }
+    }
+
+    /**
+     * 写出CSV字段，包含逗号、引号或换行时加引号并转义
+     */
+    private void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private String formatTime(LocalDateTime time) {
+        return time != null ? time.format(TIME_FORMATTER) : "";
+    }
+
+    private IOException findIOException(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException ioException) {
+                return ioException;
+            }
+        }
+        return null;
+    }
+}
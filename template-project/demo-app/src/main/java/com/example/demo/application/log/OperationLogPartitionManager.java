@@ -0,0 +1,178 @@
+package com.example.demo.application.log;
+
+import com.example.demo.domain.log.repository.OperationLogPartitionMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 操作日志分区管理
+ * operation_log 为按 create_date 范围分区的分区表时（见 db/migrate_operation_log_partition.sql），
+ * 负责提前创建日/月分区，并在清理时将整个分区都已过期的分区分离、归档后删除，
+ * 保留期清理不再逐行DELETE，表和索引不会因删除而膨胀。
+ * 分区命名：按天 operation_log_pYYYYMMDD，按月 operation_log_pYYYYMM。
+ */
+@Slf4j
+@Component
+public class OperationLogPartitionManager {
+
+    /**
+     * 分区粒度
+     */
+    public enum Interval {
+        /** 按天分区 */
+        DAY,
+        /** 按月分区 */
+        MONTH
+    }
+
+    private static final String PARTITION_PREFIX = "operation_log_p";
+
+    private static final String DEFAULT_PARTITION = "operation_log_default";
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("operation_log_p(\\d{6}|\\d{8})");
+
+    private static final DateTimeFormatter DAY_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final DateTimeFormatter MONTH_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final DateTimeFormatter BOUND_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Autowired
+    private OperationLogPartitionMapper operationLogPartitionMapper;
+
+    @Autowired
+    private OperationLogArchiver operationLogArchiver;
+
+    @Value("${operation-log.partition.interval:DAY}")
+    private Interval interval;
+
+    @Value("${operation-log.partition.premake:3}")
+    private int premake;
+
+    private volatile boolean partitioned;
+
+    @PostConstruct
+    public void init() {
+        try {
+            ensurePartitions();
+        } catch (Exception e) {
+            // 不抛出异常，避免影响系统启动；写入时落到默认分区
+            log.error("初始化操作日志分区失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * operation_log 是否为分区表（最近一次检查的结果）
+     */
+    public boolean isPartitioned() {
+        return partitioned;
+    }
+
+    /**
+     * 定时任务：提前创建当前及之后 premake 个周期的分区
+     * 每天凌晨1点执行，早于凌晨2点的清理任务
+     */
+    @Scheduled(cron = "0 0 1 * * ?")
+    public void ensurePartitions() {
+        partitioned = operationLogPartitionMapper.isPartitioned();
+        if (!partitioned) {
+            log.info("operation_log 不是分区表，跳过分区维护");
+            return;
+        }
+
+        LocalDate start = interval == Interval.MONTH ? LocalDate.now().withDayOfMonth(1) : LocalDate.now();
+        for (int i = 0; i <= premake; i++) {
+            LocalDate from = interval == Interval.MONTH ? start.plusMonths(i) : start.plusDays(i);
+            LocalDate to = interval == Interval.MONTH ? from.plusMonths(1) : from.plusDays(1);
+            String name = PARTITION_PREFIX + from.format(interval == Interval.MONTH ? MONTH_SUFFIX : DAY_SUFFIX);
+            try {
+                operationLogPartitionMapper.createPartition(name,
+                        from.atStartOfDay().format(BOUND_FORMATTER), to.atStartOfDay().format(BOUND_FORMATTER));
+            } catch (Exception e) {
+                // 通常是默认分区中已有该范围的数据，或与其他粒度的分区范围重叠
+                log.error(String.format("创建操作日志分区失败: %s, %s", name, e.getMessage()), e);
+            }
+        }
+    }
+
+    /**
+     * 过期分区清理结果
+     * @param deletedCount      删除的日志条数
+     * @param droppedPartitions 整体删除的分区数
+     */
+    public record DropResult(long deletedCount, int droppedPartitions) {
+    }
+
+    /**
+     * 清理过期分区
+     * 1. 继续处理上次分离后未完成归档的分区；
+     * 2. 分离上界不晚于过期时间的分区（只在分区表上加很短的锁）；
+     * 3. 分离出的分区归档完成后整体删除，未配置归档目录时直接删除；
+     * 4. 默认分区中的过期日志按块归档删除（正常情况下为空）
+     * @return 删除的日志条数（含直接删除的分区中的条数）和删除的分区数
+     */
+    public DropResult dropExpiredPartitions(LocalDateTime expireTime) throws IOException {
+        List<String> detached = new ArrayList<>(operationLogPartitionMapper.selectDetachedPartitionNames());
+        for (String name : operationLogPartitionMapper.selectPartitionNames()) {
+            LocalDateTime upperBound = getUpperBound(name);
+            if (upperBound != null && !upperBound.isAfter(expireTime)) {
+                operationLogPartitionMapper.detachPartition(name);
+                detached.add(name);
+                log.info("分离过期日志分区: {}", name);
+            }
+        }
+
+        long deletedCount = 0;
+        int droppedPartitions = 0;
+        for (String name : detached) {
+            LocalDateTime upperBound = getUpperBound(name);
+            if (upperBound == null) {
+                continue;
+            }
+            if (operationLogArchiver.isFileArchiveEnabled()) {
+                deletedCount += operationLogArchiver.archive(name, upperBound);
+                if (operationLogPartitionMapper.hasRows(name)) {
+                    log.warn("日志分区 {} 本次未归档完成，下次继续", name);
+                    continue;
+                }
+            } else {
+                // 未归档直接删除：分区已分离，计数期间不会再有写入
+                deletedCount += operationLogPartitionMapper.countRows(name);
+            }
+            operationLogPartitionMapper.dropTable(name);
+            droppedPartitions++;
+            log.info("删除过期日志分区: {}", name);
+        }
+
+        deletedCount += operationLogArchiver.archive(DEFAULT_PARTITION, expireTime);
+        return new DropResult(deletedCount, droppedPartitions);
+    }
+
+    /**
+     * 根据分区名计算分区上界（不含），不是日期分区时返回null
+     */
+    private LocalDateTime getUpperBound(String name) {
+        Matcher matcher = PARTITION_NAME.matcher(name);
+        if (!matcher.matches()) {
+            return null;
+        }
+        String suffix = matcher.group(1);
+        if (suffix.length() == 8) {
+            return LocalDate.parse(suffix, DAY_SUFFIX).plusDays(1).atStartOfDay();
+        }
+        return LocalDate.parse(suffix + "01", DAY_SUFFIX).plusMonths(1).atStartOfDay();
+    }
+}
@@ -4,6 +4,9 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.example.demo.common.constants.RedisKeyConstants;
+import com.example.demo.common.result.CursorPage;
+import com.example.demo.common.util.CursorCodec;
+import com.example.demo.common.util.IdGenerator;
 import com.example.demo.domain.log.entity.OperationLog;
 import com.example.demo.domain.log.repository.OperationLogMapper;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -16,15 +19,11 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 操作日志服务
@@ -39,17 +38,25 @@ public class OperationLogService {
     @Autowired
     private RedisTemplate<String, String> redisTemplate;
 
+    @Autowired
+    private OperationLogArchiver operationLogArchiver;
+
+    @Autowired
+    private OperationLogPartitionManager operationLogPartitionManager;
+
     @Value("${operation-log.retention-days:30}")
     private int retentionDays;
 
-    @Value("${operation-log.save-directory:}")
-    private String saveDirectory;
-
     @Value("${operation-log.cache.expire-time:3600}")
     private long cacheExpireTime;
 
     private final ObjectMapper objectMapper;
 
+    /**
+     * 是否有新日志写入但尚未递增列表缓存代数
+     */
+    private final AtomicBoolean listCacheDirty = new AtomicBoolean();
+
     public OperationLogService() {
         this.objectMapper = new ObjectMapper();
         objectMapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
@@ -77,8 +84,8 @@ public class OperationLogService {
             if (saved) {
                 // 同步到Redis（缓存日志详情）
                 cacheLogDetail(operationLog);
-                // 清除列表缓存（因为新增了日志）
-                clearListCache();
+                // 标记列表缓存需要失效（因为新增了日志）
+                markListCacheDirty();
                 log.debug("保存操作日志成功: logId={}, module={}, operationType={}", 
                     operationLog.getId(), operationLog.getModule(), operationLog.getOperationType());
             }
@@ -90,13 +97,51 @@ public class OperationLogService {
         }
     }
 
+    /**
+     * 批量保存操作日志（由异步日志队列调用）
+     * 使用多行INSERT一次写入，基础字段在此填充（批量SQL不经过MetaObjectHandler）；
+     * 不再逐条缓存日志详情，详情在首次查询时加载到缓存
+     * @return 写入的行数
+     */
+    @Transactional
+    public int saveLogs(List<OperationLog> logs) {
+        if (logs == null || logs.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (OperationLog operationLog : logs) {
+            if (operationLog.getId() == null) {
+                operationLog.setId(IdGenerator.generateId());
+            }
+            if (operationLog.getOperationTime() == null) {
+                operationLog.setOperationTime(now);
+            }
+            if (operationLog.getCreateDate() == null) {
+                operationLog.setCreateDate(now);
+            }
+            if (operationLog.getCreateUser() == null) {
+                operationLog.setCreateUser(operationLog.getUsername() != null ? operationLog.getUsername() : "system");
+            }
+            operationLog.setUpdateDate(operationLog.getCreateDate());
+            operationLog.setUpdateUser(operationLog.getCreateUser());
+            operationLog.setDeleted(0);
+            operationLog.setDbVersion(1);
+        }
+
+        int inserted = operationLogMapper.insertBatch(logs);
+        // 标记列表缓存需要失效，由定时任务合并递增代数
+        markListCacheDirty();
+        log.debug("批量保存操作日志成功: count={}", inserted);
+        return inserted;
+    }
+
     /**
      * 分页查询日志（优先从Redis获取）
      */
     public IPage<OperationLog> getLogs(int page, int size, String module, String operationType, String username) {
         try {
             // 构建缓存key时包含筛选条件，确保不同筛选条件的缓存不冲突
-            String cacheKey = RedisKeyConstants.getLogListKey(page, size) + 
+            String cacheKey = RedisKeyConstants.getLogListKey(getListCacheGeneration(), page, size) + 
                 ":" + (module != null ? module : "") + 
                 ":" + (operationType != null ? operationType : "") + 
                 ":" + (username != null ? username : "");
@@ -119,18 +164,7 @@ public class OperationLogService {
             // 确保执行COUNT查询
             pageParam.setSearchCount(true);
             
-            LambdaQueryWrapper<OperationLog> queryWrapper = new LambdaQueryWrapper<>();
-            
-            if (module != null && !module.isEmpty()) {
-                queryWrapper.eq(OperationLog::getModule, module);
-            }
-            if (operationType != null && !operationType.isEmpty()) {
-                queryWrapper.eq(OperationLog::getOperationType, operationType);
-            }
-            if (username != null && !username.isEmpty()) {
-                queryWrapper.like(OperationLog::getUsername, username);
-            }
-            
+            LambdaQueryWrapper<OperationLog> queryWrapper = buildFilterWrapper(module, operationType, username);
             queryWrapper.orderByDesc(OperationLog::getOperationTime);
             
             IPage<OperationLog> result = operationLogMapper.selectPage(pageParam, queryWrapper);
@@ -155,6 +189,96 @@ public class OperationLogService {
         }
     }
 
+    /**
+     * 游标分页查询日志
+     * 按 (operation_time, id) 倒序定位，每页只读取 size+1 行判断是否有下一页，
+     * 翻页开销与页码无关，不执行COUNT查询。
+     * @param cursor 上一页返回的游标，为空表示第一页
+     * @param withTotal 是否返回近似总数：无筛选条件时取PostgreSQL统计信息，有筛选条件时取按代数缓存的计数
+     * @throws IllegalArgumentException 游标格式不正确
+     */
+    public CursorPage<OperationLog> getLogsByCursor(String cursor, int size, String module, String operationType,
+                                                    String username, boolean withTotal) {
+        CursorCodec.Position position = CursorCodec.decode(cursor);
+
+        LambdaQueryWrapper<OperationLog> queryWrapper = buildFilterWrapper(module, operationType, username);
+        if (position != null) {
+            queryWrapper.apply("(operation_time, id) < ({0}, {1})", position.time(), position.id());
+        }
+        queryWrapper.orderByDesc(OperationLog::getOperationTime)
+                .orderByDesc(OperationLog::getId)
+                .last("LIMIT " + (size + 1));
+
+        List<OperationLog> records = operationLogMapper.selectList(queryWrapper);
+        String nextCursor = null;
+        if (records.size() > size) {
+            records = records.subList(0, size);
+            OperationLog last = records.get(size - 1);
+            nextCursor = CursorCodec.encode(last.getOperationTime(), last.getId());
+        }
+
+        Long total = withTotal ? estimateTotal(module, operationType, username) : null;
+        return new CursorPage<>(records, size, nextCursor, total);
+    }
+
+    /**
+     * 估算日志总数
+     * 无筛选条件时直接读取 pg_class.reltuples；有筛选条件时执行一次COUNT并按当前缓存代数缓存，
+     * 同一代数内翻页不再重复计数
+     */
+    private Long estimateTotal(String module, String operationType, String username) {
+        boolean filtered = (module != null && !module.isEmpty())
+                || (operationType != null && !operationType.isEmpty())
+                || (username != null && !username.isEmpty());
+        if (!filtered) {
+            Long estimate = operationLogMapper.estimateRowCount();
+            return estimate != null && estimate >= 0 ? estimate : null;
+        }
+
+        String countKey = RedisKeyConstants.getLogCountKey(getListCacheGeneration(),
+                (module != null ? module : "") + ":" + (operationType != null ? operationType : "") + ":" +
+                        (username != null ? username : ""));
+        try {
+            String cached = redisTemplate.opsForValue().get(countKey);
+            if (cached != null) {
+                return Long.parseLong(cached);
+            }
+        } catch (Exception e) {
+            log.warn("读取日志计数缓存失败: " + e.getMessage());
+        }
+
+        Long count = operationLogMapper.selectCount(buildFilterWrapper(module, operationType, username));
+        try {
+            redisTemplate.opsForValue().set(countKey, String.valueOf(count), cacheExpireTime, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("缓存日志计数失败: " + e.getMessage());
+        }
+        return count;
+    }
+
+    /**
+     * 构建列表筛选条件
+     * operation_log 为分区表时附加 create_date 不早于保留期起点的条件，查询只扫描保留期内的分区，
+     * 已过期但所在分区尚未整体过期的日志不再返回；非分区表该条件不能裁剪扫描范围，不附加
+     */
+    private LambdaQueryWrapper<OperationLog> buildFilterWrapper(String module, String operationType, String username) {
+        LambdaQueryWrapper<OperationLog> queryWrapper = new LambdaQueryWrapper<>();
+        if (operationLogPartitionManager.isPartitioned()) {
+            // 取整到天，同一天内条件不变，便于复用执行计划
+            queryWrapper.ge(OperationLog::getCreateDate, LocalDate.now().minusDays(retentionDays).atStartOfDay());
+        }
+        if (module != null && !module.isEmpty()) {
+            queryWrapper.eq(OperationLog::getModule, module);
+        }
+        if (operationType != null && !operationType.isEmpty()) {
+            queryWrapper.eq(OperationLog::getOperationType, operationType);
+        }
+        if (username != null && !username.isEmpty()) {
+            queryWrapper.like(OperationLog::getUsername, username);
+        }
+        return queryWrapper;
+    }
+
     /**
      * 根据ID查询日志详情（优先从Redis获取）
      */
@@ -203,24 +327,49 @@ public class OperationLogService {
     }
 
     /**
-     * 清除列表缓存
+     * 获取当前列表缓存代数
      */
-    private void clearListCache() {
+    private long getListCacheGeneration() {
+        String generation = redisTemplate.opsForValue().get(RedisKeyConstants.Log.LOG_LIST_GENERATION);
+        return generation != null ? Long.parseLong(generation) : 0L;
+    }
+
+    /**
+     * 使所有列表缓存失效
+     * 只递增代数计数器，旧代数的缓存不再被读取，并按TTL自然过期（不使用KEYS扫描删除）
+     */
+    public void invalidateListCache() {
         try {
-            // 清除所有列表缓存（包括所有筛选条件的缓存）
-            Set<String> keys = redisTemplate.keys(RedisKeyConstants.Log.LOG_LIST + "*");
-            if (keys != null && !keys.isEmpty()) {
-                redisTemplate.delete(keys);
-                log.debug("清除日志列表缓存，共清除 {} 个key", keys.size());
-            }
+            listCacheDirty.set(false);
+            Long generation = redisTemplate.opsForValue().increment(RedisKeyConstants.Log.LOG_LIST_GENERATION);
+            log.debug("日志列表缓存代数递增为 {}", generation);
         } catch (Exception e) {
             log.warn("清除列表缓存失败: " + e.getMessage());
         }
     }
 
     /**
-     * 定时任务：删除过期日志并持久化到文件
-     * 每天凌晨2点执行
+     * 标记列表缓存需要失效
+     */
+    private void markListCacheDirty() {
+        listCacheDirty.set(true);
+    }
+
+    /**
+     * 定时任务：有新日志写入时递增列表缓存代数
+     * 持续写入时每个间隔最多失效一次，列表缓存在间隔内保持可用
+     */
+    @Scheduled(fixedDelayString = "${operation-log.cache.generation-interval-ms:2000}")
+    public void flushListCacheGeneration() {
+        if (listCacheDirty.get()) {
+            invalidateListCache();
+        }
+    }
+
+    /**
+     * 定时任务：删除过期日志并归档到文件
+     * 每天凌晨2点执行。分区表按分区整体归档删除（见 {@link OperationLogPartitionManager}），
+     * 普通表分块归档、分块删除（见 {@link OperationLogArchiver}）
      */
     @Scheduled(cron = "0 0 2 * * ?")
     public void cleanExpiredLogs() {
@@ -228,23 +377,19 @@ public class OperationLogService {
             LocalDateTime expireTime = LocalDateTime.now().minusDays(retentionDays);
             log.info("开始清理过期日志，过期时间: {}", expireTime);
 
-            // 查询过期日志
-            List<OperationLog> expiredLogs = operationLogMapper.selectByCreateTimeBefore(expireTime);
-
-            if (expiredLogs != null && !expiredLogs.isEmpty()) {
-                log.info("找到 {} 条过期日志", expiredLogs.size());
-
-                // 如果配置了保存目录，则持久化到文件
-                if (saveDirectory != null && !saveDirectory.isEmpty()) {
-                    saveLogsToFile(expiredLogs, expireTime);
-                }
-
-                // 删除过期日志
-                int deletedCount = operationLogMapper.deleteByCreateTimeBefore(expireTime);
-                log.info("删除过期日志完成，删除数量: {}", deletedCount);
-
+            long deletedCount;
+            int droppedPartitions = 0;
+            if (operationLogPartitionManager.isPartitioned()) {
+                OperationLogPartitionManager.DropResult result = operationLogPartitionManager.dropExpiredPartitions(expireTime);
+                deletedCount = result.deletedCount();
+                droppedPartitions = result.droppedPartitions();
+            } else {
+                deletedCount = operationLogArchiver.archive(expireTime);
+            }
+            if (deletedCount > 0 || droppedPartitions > 0) {
+                log.info("删除过期日志完成，删除数量: {}，删除分区: {}", deletedCount, droppedPartitions);
                 // 清除相关缓存
-                clearListCache();
+                invalidateListCache();
             } else {
                 log.info("没有找到过期日志");
             }
@@ -252,59 +397,5 @@ public class OperationLogService {
             log.error("清理过期日志失败: " + e.getMessage(), e);
         }
     }
-
-    /**
-     * 将日志保存到文件
-     */
-    private void saveLogsToFile(List<OperationLog> logs, LocalDateTime expireTime) {
-        if (saveDirectory == null || saveDirectory.isEmpty()) {
-            return;
-        }
-
-        try {
-            File directory = new File(saveDirectory);
-            if (!directory.exists()) {
-                directory.mkdirs();
-            }
-
-            // 文件名格式：operation_log_2024-11-08.txt
-            String fileName = "operation_log_" + expireTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")) + ".txt";
-            File file = new File(directory, fileName);
-
-            try (FileWriter writer = new FileWriter(file, StandardCharsets.UTF_8, true)) {
-                writer.write("========== 操作日志备份 ==========\n");
-                writer.write("备份时间: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) + "\n");
-                writer.write("日志数量: " + logs.size() + "\n");
-                writer.write("过期时间: " + expireTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) + "\n");
-                writer.write("=====================================\n\n");
-
-                for (OperationLog log : logs) {
-                    writer.write("日志ID: " + log.getId() + "\n");
-                    writer.write("用户ID: " + log.getUserId() + "\n");
-                    writer.write("用户名: " + log.getUsername() + "\n");
-                    writer.write("操作类型: " + log.getOperationType() + "\n");
-                    writer.write("模块: " + log.getModule() + "\n");
-                    writer.write("操作描述: " + log.getOperationDesc() + "\n");
-                    writer.write("请求方法: " + log.getRequestMethod() + "\n");
-                    writer.write("请求URL: " + log.getRequestUrl() + "\n");
-                    writer.write("请求参数: " + log.getRequestParams() + "\n");
-                    writer.write("响应结果: " + log.getResponseResult() + "\n");
-                    writer.write("IP地址: " + log.getIpAddress() + "\n");
-                    writer.write("用户代理: " + log.getUserAgent() + "\n");
-                    writer.write("操作时间: " + (log.getOperationTime() != null ? 
-                        log.getOperationTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) : "") + "\n");
-                    writer.write("创建时间: " + (log.getCreateDate() != null ? 
-                        log.getCreateDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) : "") + "\n");
-                    writer.write("-------------------------------------\n");
-                }
-
-                writer.flush();
-            }
-
-            log.info("日志持久化到文件成功: file={}, count={}", file.getAbsolutePath(), logs.size());
-        } catch (IOException e) {
-            log.error("保存日志到文件失败: " + e.getMessage(), e);
-        }
-    }
 }
 
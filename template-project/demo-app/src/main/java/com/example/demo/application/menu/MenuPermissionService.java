@@ -1,5 +1,6 @@
 package com.example.demo.application.menu;
 
+import com.example.demo.application.role.RbacSnapshotService;
 import com.example.demo.domain.menu.entity.MenuPermission;
 import com.example.demo.domain.menu.repository.MenuPermissionMapper;
 import lombok.extern.slf4j.Slf4j;
@@ -20,6 +21,9 @@ public class MenuPermissionService {
     @Autowired
     private MenuPermissionMapper menuPermissionMapper;
 
+    @Autowired
+    private RbacSnapshotService rbacSnapshotService;
+
     /**
      * 根据菜单ID查询功能权限列表
      */
@@ -71,6 +75,7 @@ public class MenuPermissionService {
             }
         }
 
+        rbacSnapshotService.onRbacChanged();
         return true;
     }
 }
@@ -3,13 +3,12 @@ package com.example.demo.application.menu;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.demo.application.role.RbacSnapshotService;
 import com.example.demo.domain.menu.entity.Menu;
 import com.example.demo.domain.menu.entity.RoleMenu;
 import com.example.demo.domain.menu.repository.MenuMapper;
 import com.example.demo.domain.menu.repository.MenuPermissionMapper;
 import com.example.demo.domain.menu.repository.RoleMenuMapper;
-import com.example.demo.domain.role.entity.Role;
-import com.example.demo.domain.role.repository.RoleMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -37,7 +36,7 @@ public class MenuService {
     private MenuPermissionMapper menuPermissionMapper;
 
     @Autowired
-    private RoleMapper roleMapper;
+    private RbacSnapshotService rbacSnapshotService;
 
     /**
      * 查询所有菜单
@@ -86,38 +85,14 @@ public class MenuService {
     }
 
     /**
-     * 根据用户角色代码列表查询菜单列表（合并多个角色的菜单）
+     * 根据用户角色代码列表查询菜单列表（合并多个角色的菜单，去重并按菜单排序）
+     * 从内存中的角色菜单快照解析，不访问数据库；超级管理员返回所有启用的菜单
      */
     public List<Menu> getMenusByRoleCodes(List<String> roleCodes) {
         if (roleCodes == null || roleCodes.isEmpty()) {
             return List.of();
         }
-        
-        // 检查是否有超级管理员角色
-        boolean hasSuperAdmin = roleCodes.contains("SUPER_ADMIN");
-        
-        // 如果是超级管理员，返回所有菜单
-        if (hasSuperAdmin) {
-            return getAllEnabledMenus();
-        }
-        
-        // 根据角色代码查询角色ID列表
-        List<String> roleIds = roleCodes.stream()
-                .map(roleCode -> {
-                    Role role = roleMapper.selectOne(
-                            new com.baomidou.mybatisplus.core.conditions.query.QueryWrapper<Role>()
-                                    .eq("role_code", roleCode));
-                    return role != null ? role.getId() : null;
-                })
-                .filter(roleId -> roleId != null)
-                .collect(Collectors.toList());
-        
-        if (roleIds.isEmpty()) {
-            return List.of();
-        }
-        
-        // 根据角色ID列表查询菜单（合并去重）
-        return getMenusByRoleIds(roleIds);
+        return rbacSnapshotService.getSnapshot().getMenus(roleCodes);
     }
     
     /**
@@ -148,7 +123,11 @@ public class MenuService {
     @Transactional
     public boolean saveMenu(Menu menu) {
         // createDate和updateDate由MetaObjectHandler自动填充
-        return menuMapper.insert(menu) > 0;
+        boolean saved = menuMapper.insert(menu) > 0;
+        if (saved) {
+            rbacSnapshotService.onRbacChanged();
+        }
+        return saved;
     }
 
     /**
@@ -157,7 +136,11 @@ public class MenuService {
     @Transactional
     public boolean updateMenu(Menu menu) {
         // updateDate由MetaObjectHandler自动填充
-        return menuMapper.updateById(menu) > 0;
+        boolean updated = menuMapper.updateById(menu) > 0;
+        if (updated) {
+            rbacSnapshotService.onRbacChanged();
+        }
+        return updated;
     }
 
     /**
@@ -173,7 +156,9 @@ public class MenuService {
         // 删除菜单功能权限关联
         menuPermissionMapper.deleteByMenuId(menuId);
         // 删除菜单
-        return menuMapper.deleteById(menuId) > 0;
+        boolean deleted = menuMapper.deleteById(menuId) > 0;
+        rbacSnapshotService.onRbacChanged();
+        return deleted;
     }
 
     /**
@@ -196,7 +181,8 @@ public class MenuService {
                     .collect(Collectors.toList());
             roleMenuMapper.insertBatch(roleMenus);
         }
-        
+
+        rbacSnapshotService.onRbacChanged();
         return true;
     }
 
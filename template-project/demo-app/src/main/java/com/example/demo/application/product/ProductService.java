@@ -1,11 +1,35 @@
 package com.example.demo.application.product;
 
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.example.demo.common.result.CursorPage;
 import com.example.demo.domain.product.entity.Product;
 
 /**
  * 商品服务接口
  */
 public interface ProductService extends IService<Product> {
-}
 
+    /**
+     * 构建商品列表筛选条件
+     */
+    QueryWrapper<Product> buildFilterWrapper(String typeId, Boolean enabled, String keyword);
+
+    /**
+     * 游标分页查询商品，按 (create_date, id) 倒序
+     * @param cursor 上一页返回的游标，为空表示第一页
+     * @param withTotal 是否返回近似总数（仅无筛选条件时可用）
+     * @throws IllegalArgumentException 游标格式不正确
+     */
+    CursorPage<Product> pageByCursor(String cursor, int size, String typeId, Boolean enabled, String keyword,
+                                     boolean withTotal);
+
+    /**
+     * 按关键词搜索商品，结果按相关度排序并分页
+     * 匹配商品名称、代码、描述（不区分大小写）；最多只能翻到前 search.product.max-results 条，
+     * 返回的总数也不超过该上限
+     * @throws IllegalArgumentException 关键词为空、过长或分页参数超出范围
+     */
+    Page<Product> search(String keyword, String typeId, Boolean enabled, long current, long size);
+}
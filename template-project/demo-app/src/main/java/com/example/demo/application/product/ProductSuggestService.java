@@ -0,0 +1,337 @@
+package com.example.demo.application.product;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.demo.common.constants.RedisKeyConstants;
+import com.example.demo.domain.product.entity.Product;
+import com.example.demo.domain.product.entity.ProductType;
+import com.example.demo.domain.product.repository.ProductMapper;
+import com.example.demo.domain.product.repository.ProductTypeMapper;
+import com.example.demo.infrastructure.search.SuggestIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 商品联想服务
+ * 商品和商品类型的名称、代码保存在本地的 {@link SuggestIndex} 中，每次输入的联想查询不访问数据库和Redis。
+ * 写操作在事务提交后记入增量变更表（并通过Redis通知其他实例），查询时与索引合并；
+ * 增量变更超过阈值时在后台由当前索引和增量变更重建索引（不查数据库），
+ * 启动时和每隔 suggest.product.rebuild-interval-ms 在后台从数据库全量重建。
+ */
+@Slf4j
+@Service
+public class ProductSuggestService implements MessageListener {
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Autowired
+    private ProductTypeMapper productTypeMapper;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    /**
+     * 单次查询最多返回的条数
+     */
+    @Value("${suggest.product.max-limit:20}")
+    private int maxLimit;
+
+    /**
+     * 单次查询最多读取的索引后缀数，限制一两个字符的关键词的查询耗时
+     */
+    @Value("${suggest.product.max-scan:2000}")
+    private int maxScan;
+
+    /**
+     * 增量变更数超过该值时合并进索引
+     */
+    @Value("${suggest.product.compact-threshold:500}")
+    private int compactThreshold;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private volatile SuggestIndex index = SuggestIndex.empty();
+
+    /**
+     * 尚未合并进索引的变更，键为 类型:ID，条目为null表示已删除
+     */
+    private final Map<String, Change> changes = new ConcurrentHashMap<>();
+
+    /**
+     * 变更序号，重建完成后只移除重建开始前的变更
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * 记录变更与重建时获取变更快照互斥，保证序号不大于快照序号的变更都在快照中
+     */
+    private final Object lock = new Object();
+
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    private final AtomicBoolean compactPending = new AtomicBoolean();
+
+    /**
+     * 所有索引替换都在这个单线程中执行
+     */
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+        Thread thread = new Thread(runnable, "product-suggest-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private record Change(SuggestIndex.Kind kind, String id, SuggestIndex.Item item, long seq) {
+    }
+
+    /**
+     * 实例间传递的变更通知
+     * @param origin  发出通知的实例，收到自己发出的通知时忽略
+     * @param deleted 是否已删除
+     */
+    public record ChangeMessage(String origin, SuggestIndex.Kind kind, String id, String name, String code,
+                                boolean deleted) {
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisKeyConstants.Channel.PRODUCT_SUGGEST));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 查询联想条目（只读内存）
+     * @param query 关键词，匹配名称或代码中以关键词开头的词
+     * @param limit 最多返回条数，不超过 suggest.product.max-limit
+     */
+    public List<SuggestIndex.Item> suggest(String query, int limit) {
+        int size = Math.max(1, Math.min(limit, maxLimit));
+        if (changes.isEmpty()) {
+            return index.suggest(query, size, maxScan, null, null);
+        }
+        // 先取变更快照再读索引：索引在两步之间被替换时，新索引中的条目也会被快照中的变更覆盖，不会重复
+        Map<String, Change> pending = new HashMap<>(changes);
+        SuggestIndex current = index;
+        List<SuggestIndex.Item> extra = new ArrayList<>(pending.size());
+        for (Change change : pending.values()) {
+            if (change.item() != null) {
+                extra.add(change.item());
+            }
+        }
+        return current.suggest(query, size, maxScan, item -> pending.containsKey(key(item.kind(), item.id())), extra);
+    }
+
+    /**
+     * 商品新增或名称、代码变更，事务提交后生效
+     */
+    public void productChanged(Product product) {
+        if (product != null) {
+            afterCommit(SuggestIndex.Kind.PRODUCT, product.getId(), product.getProductName(), product.getProductCode(), false);
+        }
+    }
+
+    /**
+     * 商品删除，事务提交后生效
+     */
+    public void productRemoved(String id) {
+        afterCommit(SuggestIndex.Kind.PRODUCT, id, null, null, true);
+    }
+
+    /**
+     * 商品类型新增或名称、代码变更，事务提交后生效
+     */
+    public void productTypeChanged(ProductType productType) {
+        if (productType != null) {
+            afterCommit(SuggestIndex.Kind.PRODUCT_TYPE, productType.getId(), productType.getTypeName(),
+                    productType.getTypeCode(), false);
+        }
+    }
+
+    /**
+     * 商品类型删除，事务提交后生效
+     */
+    public void productTypeRemoved(String id) {
+        afterCommit(SuggestIndex.Kind.PRODUCT_TYPE, id, null, null, true);
+    }
+
+    /**
+     * 在当前事务提交后记录变更并通知其他实例（事务回滚时不记录），不在事务中调用时立即记录
+     */
+    private void afterCommit(SuggestIndex.Kind kind, String id, String name, String code, boolean deleted) {
+        if (id == null) {
+            return;
+        }
+        ChangeMessage message = new ChangeMessage(instanceId, kind, id, name, code, deleted);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyAndPublish(message);
+                }
+            });
+        } else {
+            applyAndPublish(message);
+        }
+    }
+
+    private void applyAndPublish(ChangeMessage message) {
+        apply(message);
+        try {
+            redisTemplate.convertAndSend(RedisKeyConstants.Channel.PRODUCT_SUGGEST, objectMapper.writeValueAsString(message));
+        } catch (Exception e) {
+            // 其他实例在下次全量重建时修正
+            log.warn(String.format("发布商品联想索引变更通知失败: %s", e.getMessage()));
+        }
+    }
+
+    private void apply(ChangeMessage message) {
+        SuggestIndex.Item item = message.deleted() ? null
+                : new SuggestIndex.Item(message.kind(), message.id(), message.name(), message.code());
+        int pending;
+        synchronized (lock) {
+            changes.put(key(message.kind(), message.id()),
+                    new Change(message.kind(), message.id(), item, sequence.incrementAndGet()));
+            pending = changes.size();
+        }
+        if (pending > compactThreshold && compactPending.compareAndSet(false, true)) {
+            executor.execute(this::compact);
+        }
+    }
+
+    /**
+     * 接收其他实例发布的变更通知
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            ChangeMessage change = objectMapper.readValue(message.getBody(), ChangeMessage.class);
+            if (!instanceId.equals(change.origin()) && change.id() != null) {
+                apply(change);
+            }
+        } catch (Exception e) {
+            log.warn(String.format("处理商品联想索引变更通知失败: %s", e.getMessage()));
+        }
+    }
+
+    /**
+     * 在后台从数据库全量重建索引（已有重建任务在排队时忽略）
+     */
+    public void rebuildAsync() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            executor.execute(this::rebuild);
+        }
+    }
+
+    /**
+     * 定期全量重建，修正丢失的变更通知和绕过服务层的数据修改
+     */
+    @Scheduled(fixedDelayString = "${suggest.product.rebuild-interval-ms:3600000}",
+            initialDelayString = "${suggest.product.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        rebuildAsync();
+    }
+
+    private void rebuild() {
+        rebuildPending.set(false);
+        long start = System.currentTimeMillis();
+        try {
+            long seq;
+            synchronized (lock) {
+                seq = sequence.get();
+            }
+            // 序号不大于 seq 的变更都已提交，下面的查询能读到
+            SuggestIndex.Builder builder = SuggestIndex.builder();
+            for (Product product : productMapper.selectList(new QueryWrapper<Product>()
+                    .select("id", "product_name", "product_code"))) {
+                builder.add(new SuggestIndex.Item(SuggestIndex.Kind.PRODUCT, product.getId(),
+                        product.getProductName(), product.getProductCode()));
+            }
+            for (ProductType productType : productTypeMapper.selectList(new QueryWrapper<ProductType>()
+                    .select("id", "type_name", "type_code"))) {
+                builder.add(new SuggestIndex.Item(SuggestIndex.Kind.PRODUCT_TYPE, productType.getId(),
+                        productType.getTypeName(), productType.getTypeCode()));
+            }
+            SuggestIndex built = builder.build();
+            replace(built, seq);
+            log.info(String.format("商品联想索引已重建: %d 个条目, %d 个后缀, 耗时 %d ms",
+                    built.size(), built.suffixCount(), System.currentTimeMillis() - start));
+        } catch (Exception e) {
+            log.error(String.format("重建商品联想索引失败: %s", e.getMessage()), e);
+        }
+    }
+
+    /**
+     * 将增量变更合并进索引（不查数据库）
+     */
+    private void compact() {
+        compactPending.set(false);
+        long seq;
+        List<Change> snapshot;
+        synchronized (lock) {
+            seq = sequence.get();
+            snapshot = new ArrayList<>(changes.values());
+        }
+        Map<String, Change> changed = new HashMap<>();
+        for (Change change : snapshot) {
+            changed.put(key(change.kind(), change.id()), change);
+        }
+        SuggestIndex.Builder builder = SuggestIndex.builder();
+        index.forEach(item -> {
+            if (!changed.containsKey(key(item.kind(), item.id()))) {
+                builder.add(item);
+            }
+        });
+        for (Change change : snapshot) {
+            builder.add(change.item());
+        }
+        replace(builder.build(), seq);
+    }
+
+    /**
+     * 替换索引并移除已包含在新索引中的变更
+     */
+    private void replace(SuggestIndex built, long seq) {
+        synchronized (lock) {
+            index = built;
+            changes.values().removeIf(change -> change.seq() <= seq);
+        }
+    }
+
+    private static String key(SuggestIndex.Kind kind, String id) {
+        return kind.name() + ":" + id;
+    }
+}
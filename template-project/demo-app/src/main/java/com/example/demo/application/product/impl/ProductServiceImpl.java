@@ -1,15 +1,209 @@
 package com.example.demo.application.product.impl;
 
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.example.demo.application.product.ProductSuggestService;
+import com.example.demo.application.statistics.DashboardStatisticsService;
+import com.example.demo.common.result.CursorPage;
+import com.example.demo.common.util.CursorCodec;
 import com.example.demo.domain.product.entity.Product;
 import com.example.demo.domain.product.repository.ProductMapper;
 import com.example.demo.application.product.ProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * 商品服务实现类
  */
 @Service
 public class ProductServiceImpl extends ServiceImpl<ProductMapper, Product> implements ProductService {
-}
 
+    @Autowired
+    private DashboardStatisticsService dashboardStatisticsService;
+
+    @Autowired
+    private ProductSuggestService productSuggestService;
+
+    /**
+     * 搜索结果上限，超过的匹配项不可翻页访问
+     */
+    @Value("${search.product.max-results:1000}")
+    private int searchMaxResults;
+
+    /**
+     * 搜索每页最大条数
+     */
+    @Value("${search.product.max-page-size:100}")
+    private int searchMaxPageSize;
+
+    /**
+     * 搜索关键词最大长度
+     */
+    @Value("${search.product.max-keyword-length:100}")
+    private int searchMaxKeywordLength;
+
+    /**
+     * 保存商品，并在事务提交后更新控制台商品数（未指定启用状态时按数据库默认值启用计算）和联想索引
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean save(Product entity) {
+        boolean saved = super.save(entity);
+        if (saved) {
+            dashboardStatisticsService.productCountChanged(1, entity.getEnabled() != null ? entity.getEnabled() : Boolean.TRUE);
+            productSuggestService.productChanged(entity);
+        }
+        return saved;
+    }
+
+    /**
+     * 更新商品；修改了启用状态时先锁定并读取原状态，事务提交后更新控制台启用/禁用商品数；
+     * 修改了名称或代码时（只修改了其中一项需读取更新后的商品）在事务提交后更新联想索引
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean updateById(Product entity) {
+        Product existing = entity.getEnabled() != null ? selectEnabledForUpdate(entity.getId()) : null;
+        boolean updated = super.updateById(entity);
+        if (updated && existing != null) {
+            dashboardStatisticsService.productEnabledChanged(existing.getEnabled(), entity.getEnabled());
+        }
+        if (updated && (entity.getProductName() != null || entity.getProductCode() != null)) {
+            boolean complete = entity.getProductName() != null && entity.getProductCode() != null;
+            productSuggestService.productChanged(complete ? entity : getById(entity.getId()));
+        }
+        return updated;
+    }
+
+    /**
+     * 删除商品，并在事务提交后更新控制台商品数和联想索引
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean removeById(Serializable id) {
+        Product existing = selectEnabledForUpdate(id);
+        boolean removed = super.removeById(id);
+        if (removed && existing != null) {
+            dashboardStatisticsService.productCountChanged(-1, existing.getEnabled());
+        }
+        if (removed) {
+            productSuggestService.productRemoved(String.valueOf(id));
+        }
+        return removed;
+    }
+
+    /**
+     * 锁定商品行并只读取ID和启用状态，保证并发修改时计数增量基于真实的原状态
+     */
+    private Product selectEnabledForUpdate(Serializable id) {
+        return baseMapper.selectOne(new QueryWrapper<Product>()
+                .select("id", "enabled")
+                .eq("id", id)
+                .last("FOR UPDATE"));
+    }
+
+    @Override
+    public QueryWrapper<Product> buildFilterWrapper(String typeId, Boolean enabled, String keyword) {
+        QueryWrapper<Product> queryWrapper = new QueryWrapper<>();
+        if (typeId != null && !typeId.trim().isEmpty()) {
+            queryWrapper.eq("type_id", typeId);
+        }
+        if (enabled != null) {
+            queryWrapper.eq("enabled", enabled);
+        }
+        // 如果有关键词，添加查询条件（LIKE '%关键词%' 由 pg_trgm 三元组GIN索引支持）
+        if (keyword != null && !keyword.trim().isEmpty()) {
+            queryWrapper.and(wrapper -> wrapper
+                .like("product_name", keyword.trim())
+                .or()
+                .like("product_code", keyword.trim())
+                .or()
+                .like("description", keyword.trim())
+            );
+        }
+        return queryWrapper;
+    }
+
+    @Override
+    public CursorPage<Product> pageByCursor(String cursor, int size, String typeId, Boolean enabled, String keyword,
+                                            boolean withTotal) {
+        CursorCodec.Position position = CursorCodec.decode(cursor);
+
+        QueryWrapper<Product> queryWrapper = buildFilterWrapper(typeId, enabled, keyword);
+        // 表级统计信息只能估算无筛选条件的总数
+        boolean filtered = !queryWrapper.isEmptyOfWhere();
+        if (position != null) {
+            queryWrapper.apply("(create_date, id) < ({0}, {1})", position.time(), position.id());
+        }
+        queryWrapper.orderByDesc("create_date", "id").last("LIMIT " + (size + 1));
+
+        List<Product> records = list(queryWrapper);
+        String nextCursor = null;
+        if (records.size() > size) {
+            records = records.subList(0, size);
+            Product last = records.get(size - 1);
+            nextCursor = CursorCodec.encode(last.getCreateDate(), last.getId());
+        }
+
+        Long total = null;
+        if (withTotal && !filtered) {
+            Long estimate = baseMapper.estimateRowCount();
+            total = estimate != null && estimate >= 0 ? estimate : null;
+        }
+        return new CursorPage<>(records, size, nextCursor, total);
+    }
+
+    @Override
+    public Page<Product> search(String keyword, String typeId, Boolean enabled, long current, long size) {
+        String trimmed = keyword == null ? "" : keyword.trim();
+        if (trimmed.isEmpty()) {
+            throw new IllegalArgumentException("搜索关键词不能为空");
+        }
+        if (trimmed.length() > searchMaxKeywordLength) {
+            throw new IllegalArgumentException(String.format("搜索关键词不能超过%d个字符", searchMaxKeywordLength));
+        }
+        if (size < 1 || size > searchMaxPageSize) {
+            throw new IllegalArgumentException(String.format("每页条数必须在1到%d之间", searchMaxPageSize));
+        }
+        if (current < 1) {
+            throw new IllegalArgumentException("页码必须大于0");
+        }
+
+        String type = typeId != null && !typeId.trim().isEmpty() ? typeId.trim() : null;
+        String escaped = escapeLike(trimmed);
+        String pattern = "%" + escaped + "%";
+        Page<Product> page = new Page<>(current, size, false);
+        page.setTotal(baseMapper.countSearchMatches(pattern, type, enabled, searchMaxResults));
+
+        long offset = (current - 1) * size;
+        int limit = (int) Math.min(size, searchMaxResults - offset);
+        if (limit <= 0 || offset >= page.getTotal()) {
+            page.setRecords(Collections.emptyList());
+            return page;
+        }
+        page.setRecords(baseMapper.searchRanked(trimmed, pattern, escaped + "%", type, enabled, offset, limit));
+        return page;
+    }
+
+    /**
+     * 转义LIKE模式中的特殊字符（PostgreSQL默认转义符为反斜杠），使关键词按字面匹配
+     */
+    private static String escapeLike(String keyword) {
+        StringBuilder sb = new StringBuilder(keyword.length() + 8);
+        for (int i = 0; i < keyword.length(); i++) {
+            char c = keyword.charAt(i);
+            if (c == '\\' || c == '%' || c == '_') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+}
@@ -1,15 +1,67 @@
 package com.example.demo.application.product.impl;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.example.demo.application.product.ProductSuggestService;
+import com.example.demo.application.statistics.DashboardStatisticsService;
 import com.example.demo.domain.product.entity.ProductType;
 import com.example.demo.domain.product.repository.ProductTypeMapper;
 import com.example.demo.application.product.ProductTypeService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.Serializable;
 
 /**
  * 商品类型服务实现类
  */
 @Service
 public class ProductTypeServiceImpl extends ServiceImpl<ProductTypeMapper, ProductType> implements ProductTypeService {
-}
 
+    @Autowired
+    private DashboardStatisticsService dashboardStatisticsService;
+
+    @Autowired
+    private ProductSuggestService productSuggestService;
+
+    /**
+     * 保存商品类型，并在事务提交后更新控制台商品类型数和联想索引
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean save(ProductType entity) {
+        boolean saved = super.save(entity);
+        if (saved) {
+            dashboardStatisticsService.productTypeCountChanged(1);
+            productSuggestService.productTypeChanged(entity);
+        }
+        return saved;
+    }
+
+    /**
+     * 更新商品类型；修改了名称或代码时读取更新后的类型，事务提交后更新联想索引
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean updateById(ProductType entity) {
+        boolean updated = super.updateById(entity);
+        if (updated && (entity.getTypeName() != null || entity.getTypeCode() != null)) {
+            productSuggestService.productTypeChanged(getById(entity.getId()));
+        }
+        return updated;
+    }
+
+    /**
+     * 删除商品类型，并在事务提交后更新控制台商品类型数和联想索引
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean removeById(Serializable id) {
+        boolean removed = super.removeById(id);
+        if (removed) {
+            dashboardStatisticsService.productTypeCountChanged(-1);
+            productSuggestService.productTypeRemoved(String.valueOf(id));
+        }
+        return removed;
+    }
+}
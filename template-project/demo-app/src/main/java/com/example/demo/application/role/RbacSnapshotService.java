@@ -0,0 +1,172 @@
+package com.example.demo.application.role;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.demo.common.constants.RedisKeyConstants;
+import com.example.demo.domain.menu.entity.Menu;
+import com.example.demo.domain.menu.entity.MenuPermission;
+import com.example.demo.domain.menu.entity.RoleMenu;
+import com.example.demo.domain.menu.repository.MenuMapper;
+import com.example.demo.domain.menu.repository.MenuPermissionMapper;
+import com.example.demo.domain.menu.repository.RoleMenuMapper;
+import com.example.demo.domain.role.entity.Role;
+import com.example.demo.domain.role.repository.RoleMapper;
+import com.example.demo.infrastructure.security.RbacSnapshot;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 角色-菜单-权限快照服务
+ * 用4条批量查询（角色、启用的菜单、角色菜单关联、启用的菜单功能权限）构建 {@link RbacSnapshot}，
+ * 登录和获取当前用户时的菜单解析直接读取内存快照，不访问数据库。
+ * 角色、菜单或菜单权限变更时在事务提交后重建快照，并通知其他实例重建；
+ * 另外定期全量重建，修正丢失的通知和绕过服务层的数据修改；启动时加载失败则按较短间隔重试直到成功。
+ */
+@Slf4j
+@Service
+public class RbacSnapshotService implements MessageListener {
+
+    @Autowired
+    private RoleMapper roleMapper;
+
+    @Autowired
+    private MenuMapper menuMapper;
+
+    @Autowired
+    private RoleMenuMapper roleMenuMapper;
+
+    @Autowired
+    private MenuPermissionMapper menuPermissionMapper;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    private final AtomicReference<RbacSnapshot> snapshot = new AtomicReference<>(RbacSnapshot.empty());
+
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * 是否已成功加载过快照
+     */
+    private volatile boolean loaded;
+
+    @PostConstruct
+    public void init() {
+        reload();
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisKeyConstants.Channel.RBAC));
+    }
+
+    /**
+     * 获取当前快照（不访问数据库）
+     */
+    public RbacSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * 从数据库重新加载并原子替换快照
+     * 加载失败时保留当前快照
+     */
+    public synchronized void reload() {
+        try {
+            long start = System.currentTimeMillis();
+            RbacSnapshot.Builder builder = RbacSnapshot.builder(version.incrementAndGet());
+            for (Role role : roleMapper.selectList(null)) {
+                builder.role(role.getId(), role.getRoleCode());
+            }
+            for (Menu menu : menuMapper.selectAllEnabledMenus()) {
+                builder.menu(menu);
+            }
+            for (RoleMenu roleMenu : roleMenuMapper.selectList(null)) {
+                builder.roleMenu(roleMenu.getRoleId(), roleMenu.getMenuId());
+            }
+            List<MenuPermission> menuPermissions = menuPermissionMapper.selectList(
+                    new LambdaQueryWrapper<MenuPermission>()
+                            .eq(MenuPermission::getEnabled, true)
+                            .orderByAsc(MenuPermission::getSortOrder)
+                            .orderByAsc(MenuPermission::getCreateDate));
+            for (MenuPermission menuPermission : menuPermissions) {
+                builder.menuPermission(menuPermission.getMenuId(), menuPermission.getSecurityPermissionId());
+            }
+
+            RbacSnapshot rebuilt = builder.build();
+            snapshot.set(rebuilt);
+            loaded = true;
+            log.info(String.format("角色菜单权限快照已重建，版本 %d，角色 %d 个，菜单 %d 个，耗时 %d ms",
+                    rebuilt.getVersion(), rebuilt.roleCount(), rebuilt.menuCount(), System.currentTimeMillis() - start));
+        } catch (Exception e) {
+            log.error(String.format("重建角色菜单权限快照失败，继续使用版本 %d: %s",
+                    snapshot.get().getVersion(), e.getMessage()), e);
+        }
+    }
+
+    /**
+     * 定期全量重建快照
+     */
+    @Scheduled(fixedDelayString = "${role.rbac-snapshot.reload-interval-ms:600000}",
+            initialDelayString = "${role.rbac-snapshot.reload-interval-ms:600000}")
+    public void scheduledReload() {
+        reload();
+    }
+
+    /**
+     * 快照从未加载成功（如启动时数据库不可用）时按较短间隔重试，避免登录用户一直没有菜单
+     */
+    @Scheduled(fixedDelayString = "${role.rbac-snapshot.retry-interval-ms:10000}",
+            initialDelayString = "${role.rbac-snapshot.retry-interval-ms:10000}")
+    public void retryUntilLoaded() {
+        if (!loaded) {
+            reload();
+        }
+    }
+
+    /**
+     * 角色、菜单或菜单权限已变更：在当前事务提交后重建本实例的快照并通知其他实例
+     * 不在事务中调用时立即执行
+     */
+    public void onRbacChanged() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reloadAndPublish();
+                }
+            });
+        } else {
+            reloadAndPublish();
+        }
+    }
+
+    private void reloadAndPublish() {
+        reload();
+        try {
+            redisTemplate.convertAndSend(RedisKeyConstants.Channel.RBAC, String.valueOf(snapshot.get().getVersion()));
+        } catch (Exception e) {
+            log.warn(String.format("发布角色菜单权限变更通知失败: %s", e.getMessage()));
+        }
+    }
+
+    /**
+     * 接收角色菜单权限变更通知（本实例发出的通知也会收到，重建一次无副作用）
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        reload();
+    }
+}
@@ -24,6 +24,9 @@ public class RoleService {
     @Autowired
     private RoleCacheService roleCacheService;
 
+    @Autowired
+    private RbacSnapshotService rbacSnapshotService;
+
     /**
      * 保存角色
      * 先保存到数据库，然后同步更新Redis缓存
@@ -34,6 +37,7 @@ public class RoleService {
         if (saved) {
             // 更新Redis缓存
             roleCacheService.cacheAllRoles();
+            rbacSnapshotService.onRbacChanged();
             log.info(String.format("保存角色并更新缓存: roleCode=%s", role.getRoleCode()));
         }
         return saved;
@@ -53,6 +57,7 @@ public class RoleService {
             
             // 清除所有用户角色缓存，因为角色信息可能已变更
             roleCacheService.evictAllUserRolesCache();
+            rbacSnapshotService.onRbacChanged();
             log.info(String.format("更新角色并同步缓存: roleCode=%s", role.getRoleCode()));
         }
         return updated;
@@ -73,6 +78,7 @@ public class RoleService {
             
             // 清除所有用户角色缓存，因为角色已删除
             roleCacheService.evictAllUserRolesCache();
+            rbacSnapshotService.onRbacChanged();
             
             if (role != null) {
                 log.info(String.format("删除角色并清除缓存: roleCode=%s", role.getRoleCode()));
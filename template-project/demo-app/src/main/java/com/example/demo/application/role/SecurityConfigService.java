@@ -1,22 +1,64 @@
 package com.example.demo.application.role;
 
+import com.example.demo.common.constants.RedisKeyConstants;
 import com.example.demo.domain.security.entity.SecurityPermission;
 import com.example.demo.domain.security.entity.SecurityWhitelist;
 import com.example.demo.domain.security.repository.SecurityPermissionMapper;
 import com.example.demo.domain.security.repository.SecurityWhitelistMapper;
+import com.example.demo.infrastructure.security.AuthorizationRuleIndex;
+import com.example.demo.infrastructure.security.WhitelistMatcher;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 安全配置服务
  * 负责从数据库加载白名单和权限配置
+ * 白名单匹配器和授权规则索引编译后缓存在内存中，仅在配置变更或收到变更通知时重建
  */
 @Slf4j
 @Service
-public class SecurityConfigService {
+public class SecurityConfigService implements MessageListener {
+
+    /** 白名单变更通知消息 */
+    public static final String WHITELIST_CHANGED = "whitelist";
+
+    /** 权限配置变更通知消息 */
+    public static final String PERMISSION_CHANGED = "permission";
+
+    /**
+     * 默认白名单（数据库中没有启用的白名单时兜底）
+     */
+    private static final List<String> DEFAULT_WHITELIST = List.of(
+            "/api/auth/login",
+            "/api/auth/register",
+            "/api/public",
+            "/swagger-ui",
+            "/v2/api-docs",
+            "/v3/api-docs",
+            "/actuator"
+    );
+
+    /**
+     * 默认授权白名单（数据库中没有启用的白名单时兜底）
+     */
+    private static final List<String> DEFAULT_PERMIT_ALL = List.of(
+            "/api/auth/login",
+            "/api/auth/register",
+            "/error",
+            "/favicon.ico"
+    );
 
     @Autowired
     private SecurityWhitelistMapper whitelistMapper;
@@ -24,6 +66,145 @@ public class SecurityConfigService {
     @Autowired
     private SecurityPermissionMapper permissionMapper;
 
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    private final AtomicReference<WhitelistMatcher> whitelistMatcher = new AtomicReference<>(WhitelistMatcher.empty());
+
+    private final AtomicReference<AuthorizationRuleIndex> authorizationRuleIndex =
+            new AtomicReference<>(AuthorizationRuleIndex.empty());
+
+    private final AtomicLong ruleVersion = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        reloadWhitelist();
+        reloadAuthorizationRules();
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisKeyConstants.Channel.SECURITY_CONFIG));
+    }
+
+    /**
+     * 获取当前白名单匹配器（不访问数据库）
+     */
+    public WhitelistMatcher getWhitelistMatcher() {
+        return whitelistMatcher.get();
+    }
+
+    /**
+     * 从数据库重新加载白名单并替换匹配器
+     * 加载失败时保留当前匹配器
+     */
+    public void reloadWhitelist() {
+        try {
+            List<String> patterns = whitelistMapper.findAllEnabled().stream()
+                    .map(SecurityWhitelist::getPathPattern)
+                    .filter(path -> path != null && !path.trim().isEmpty())
+                    .toList();
+            WhitelistMatcher matcher = WhitelistMatcher.compile(patterns.isEmpty() ? DEFAULT_WHITELIST : patterns);
+            whitelistMatcher.set(matcher);
+            log.info(String.format("白名单匹配器已重建，共 %d 条", matcher.getPatterns().size()));
+        } catch (Exception e) {
+            log.error(String.format("重建白名单匹配器失败，继续使用当前配置: %s", e.getMessage()), e);
+            whitelistMatcher.compareAndSet(WhitelistMatcher.empty(), WhitelistMatcher.compile(DEFAULT_WHITELIST));
+        }
+    }
+
+    /**
+     * 获取当前授权规则索引（不访问数据库）
+     */
+    public AuthorizationRuleIndex getAuthorizationRuleIndex() {
+        return authorizationRuleIndex.get();
+    }
+
+    /**
+     * 从数据库重新加载白名单和权限配置，构建新版本的授权规则索引并原子替换
+     * 规则顺序：白名单（允许访问）在前，权限配置在后，均按sort_order排序
+     * 加载失败时保留当前索引
+     */
+    public void reloadAuthorizationRules() {
+        try {
+            List<SecurityWhitelist> whitelists = whitelistMapper.findAllEnabled();
+            List<SecurityPermission> permissions = permissionMapper.findAllEnabled();
+            AuthorizationRuleIndex.Builder builder = AuthorizationRuleIndex.builder(ruleVersion.incrementAndGet());
+
+            if (!whitelists.isEmpty()) {
+                for (SecurityWhitelist whitelist : whitelists) {
+                    builder.permitAll(whitelist.getPathPattern(), whitelist.getHttpMethod());
+                }
+            } else {
+                log.warn("未找到白名单配置，使用默认白名单");
+                DEFAULT_PERMIT_ALL.forEach(path -> builder.permitAll(path, null));
+            }
+
+            if (!permissions.isEmpty()) {
+                for (SecurityPermission permission : permissions) {
+                    String requiredRoles = permission.getRequiredRoles();
+                    if (requiredRoles != null && !requiredRoles.trim().isEmpty()) {
+                        builder.hasAnyRole(permission.getPathPattern(), permission.getHttpMethod(), requiredRoles.split(","));
+                    } else {
+                        builder.authenticated(permission.getPathPattern(), permission.getHttpMethod());
+                    }
+                }
+            } else {
+                log.warn("未找到权限配置，使用默认权限规则");
+                builder.hasAnyRole("/api/admin/**", null, "ADMIN", "SUPER_ADMIN");
+                builder.hasAnyRole("/api/users/**", null, "USER", "ADMIN", "SUPER_ADMIN");
+            }
+
+            AuthorizationRuleIndex index = builder.build();
+            authorizationRuleIndex.set(index);
+            log.info(String.format("授权规则索引已重建，版本 %d，共 %d 条规则", index.getVersion(), index.size()));
+        } catch (Exception e) {
+            log.error(String.format("重建授权规则索引失败，继续使用版本 %d: %s",
+                    authorizationRuleIndex.get().getVersion(), e.getMessage()), e);
+        }
+    }
+
+    /**
+     * 白名单已变更：重建本实例的白名单匹配器和授权规则索引，并通知其他实例
+     */
+    public void onWhitelistChanged() {
+        reloadWhitelist();
+        reloadAuthorizationRules();
+        publish(WHITELIST_CHANGED);
+    }
+
+    /**
+     * 权限配置已变更：重建本实例的授权规则索引，并通知其他实例
+     */
+    public void onPermissionChanged() {
+        reloadAuthorizationRules();
+        publish(PERMISSION_CHANGED);
+    }
+
+    /**
+     * 发布安全配置变更通知
+     */
+    private void publish(String message) {
+        try {
+            redisTemplate.convertAndSend(RedisKeyConstants.Channel.SECURITY_CONFIG, message);
+        } catch (Exception e) {
+            log.warn(String.format("发布安全配置变更通知失败: %s", e.getMessage()));
+        }
+    }
+
+    /**
+     * 接收安全配置变更通知
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (WHITELIST_CHANGED.equals(body)) {
+            reloadWhitelist();
+            reloadAuthorizationRules();
+        } else if (PERMISSION_CHANGED.equals(body)) {
+            reloadAuthorizationRules();
+        }
+    }
+
     /**
      * 获取所有启用的白名单配置
      */
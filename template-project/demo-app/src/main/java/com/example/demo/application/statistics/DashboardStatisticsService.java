@@ -0,0 +1,250 @@
+package com.example.demo.application.statistics;
+
+import com.example.demo.application.statistics.dto.DashboardStatistics;
+import com.example.demo.common.constants.RedisKeyConstants;
+import com.example.demo.domain.statistics.repository.StatisticsMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 控制台统计服务
+ * 计数保存在Redis Hash中，由用户、商品类型、商品的写操作在事务提交后增量更新；
+ * 定期用一条SQL从数据库重新统计校准（多实例时只有取得锁的实例执行）。
+ * 控制台读取本地缓存的快照，快照过期后一次 HGETALL 重新加载，不再每次执行多条 COUNT(*)。
+ */
+@Slf4j
+@Service
+public class DashboardStatisticsService {
+
+    /**
+     * 计数Hash字段名
+     */
+    private static final String FIELD_USER_COUNT = "userCount";
+    private static final String FIELD_PRODUCT_TYPE_COUNT = "productTypeCount";
+    private static final String FIELD_PRODUCT_COUNT = "productCount";
+    private static final String FIELD_ACTIVE_PRODUCT_COUNT = "activeProductCount";
+    private static final String FIELD_DISABLED_PRODUCT_COUNT = "disabledProductCount";
+    private static final String FIELD_RECONCILE_TIME = "reconcileTime";
+
+    /**
+     * 增量更新计数的Lua脚本（计数Hash不存在时不更新）
+     */
+    private static final DefaultRedisScript<Long> INCR_SCRIPT =
+            new DefaultRedisScript<>(loadScript("redis/stats_incr.lua"), Long.class);
+
+    @Autowired
+    private StatisticsMapper statisticsMapper;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    /**
+     * 本地快照有效期（毫秒）
+     */
+    @Value("${statistics.dashboard.cache-ttl-ms:5000}")
+    private long cacheTtlMillis;
+
+    /**
+     * 从数据库校准计数的间隔（毫秒）
+     */
+    @Value("${statistics.dashboard.reconcile-interval-ms:600000}")
+    private long reconcileIntervalMillis;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private volatile Snapshot snapshot;
+
+    private record Snapshot(DashboardStatistics statistics, long expireAtNanos) {
+    }
+
+    /**
+     * 获取控制台统计数据（优先读取本地快照）
+     */
+    public DashboardStatistics getStatistics() {
+        Snapshot current = snapshot;
+        if (current != null && System.nanoTime() - current.expireAtNanos() < 0) {
+            return current.statistics();
+        }
+        return reload();
+    }
+
+    /**
+     * 从Redis重新加载快照，计数Hash不存在时先从数据库重建
+     */
+    private synchronized DashboardStatistics reload() {
+        Snapshot current = snapshot;
+        if (current != null && System.nanoTime() - current.expireAtNanos() < 0) {
+            return current.statistics();
+        }
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(RedisKeyConstants.Stats.DASHBOARD);
+        DashboardStatistics statistics = fields.isEmpty() ? reconcile() : toStatistics(fields);
+        snapshot = new Snapshot(statistics, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(cacheTtlMillis));
+        return statistics;
+    }
+
+    /**
+     * 新增或删除用户
+     */
+    public void userCountChanged(long delta) {
+        increment(Map.of(FIELD_USER_COUNT, delta));
+    }
+
+    /**
+     * 新增或删除商品类型
+     */
+    public void productTypeCountChanged(long delta) {
+        increment(Map.of(FIELD_PRODUCT_TYPE_COUNT, delta));
+    }
+
+    /**
+     * 新增或删除商品
+     * @param enabled 商品的启用状态（null不计入启用/禁用数量）
+     */
+    public void productCountChanged(long delta, Boolean enabled) {
+        Map<String, Long> deltas = new LinkedHashMap<>();
+        deltas.put(FIELD_PRODUCT_COUNT, delta);
+        if (enabled != null) {
+            deltas.put(enabled ? FIELD_ACTIVE_PRODUCT_COUNT : FIELD_DISABLED_PRODUCT_COUNT, delta);
+        }
+        increment(deltas);
+    }
+
+    /**
+     * 商品启用状态变更
+     * @param oldEnabled 变更前的状态（null不计入启用/禁用数量）
+     * @param newEnabled 变更后的状态
+     */
+    public void productEnabledChanged(Boolean oldEnabled, boolean newEnabled) {
+        if (Boolean.valueOf(newEnabled).equals(oldEnabled)) {
+            return;
+        }
+        Map<String, Long> deltas = new LinkedHashMap<>();
+        deltas.put(newEnabled ? FIELD_ACTIVE_PRODUCT_COUNT : FIELD_DISABLED_PRODUCT_COUNT, 1L);
+        if (oldEnabled != null) {
+            deltas.put(oldEnabled ? FIELD_ACTIVE_PRODUCT_COUNT : FIELD_DISABLED_PRODUCT_COUNT, -1L);
+        }
+        increment(deltas);
+    }
+
+    /**
+     * 在当前事务提交后增量更新计数（事务回滚时不更新），不在事务中调用时立即更新
+     */
+    private void increment(Map<String, Long> deltas) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyIncrement(deltas);
+                }
+            });
+        } else {
+            applyIncrement(deltas);
+        }
+    }
+
+    private void applyIncrement(Map<String, Long> deltas) {
+        try {
+            List<String> args = new ArrayList<>(deltas.size() * 2);
+            deltas.forEach((field, delta) -> {
+                args.add(field);
+                args.add(String.valueOf(delta));
+            });
+            redisTemplate.execute(INCR_SCRIPT, List.of(RedisKeyConstants.Stats.DASHBOARD), args.toArray());
+            snapshot = null;
+        } catch (Exception e) {
+            // 计数暂时偏差，由定期校准修正
+            log.warn(String.format("更新控制台统计计数失败: %s", e.getMessage()));
+        }
+    }
+
+    /**
+     * 定期从数据库校准计数，多实例时通过锁保证每个周期只有一个实例执行
+     */
+    @Scheduled(fixedDelayString = "${statistics.dashboard.reconcile-interval-ms:600000}",
+            initialDelayString = "${statistics.dashboard.reconcile-interval-ms:600000}")
+    public void scheduledReconcile() {
+        try {
+            Boolean locked = redisTemplate.opsForValue().setIfAbsent(RedisKeyConstants.Stats.DASHBOARD_RECONCILE_LOCK,
+                    instanceId, Duration.ofMillis(Math.max(1000, reconcileIntervalMillis - 1000)));
+            if (Boolean.TRUE.equals(locked)) {
+                reconcile();
+            }
+        } catch (Exception e) {
+            log.warn(String.format("校准控制台统计计数失败: %s", e.getMessage()));
+        }
+    }
+
+    /**
+     * 用一条SQL从数据库重新统计所有计数并写入Redis
+     */
+    public DashboardStatistics reconcile() {
+        long start = System.currentTimeMillis();
+        Map<String, Object> counts = statisticsMapper.selectDashboardCounts();
+        Map<String, String> fields = new HashMap<>();
+        fields.put(FIELD_USER_COUNT, String.valueOf(toLong(counts.get("user_count"))));
+        fields.put(FIELD_PRODUCT_TYPE_COUNT, String.valueOf(toLong(counts.get("product_type_count"))));
+        fields.put(FIELD_PRODUCT_COUNT, String.valueOf(toLong(counts.get("product_count"))));
+        fields.put(FIELD_ACTIVE_PRODUCT_COUNT, String.valueOf(toLong(counts.get("active_product_count"))));
+        fields.put(FIELD_DISABLED_PRODUCT_COUNT, String.valueOf(toLong(counts.get("disabled_product_count"))));
+        fields.put(FIELD_RECONCILE_TIME, String.valueOf(start));
+        redisTemplate.opsForHash().putAll(RedisKeyConstants.Stats.DASHBOARD, fields);
+        snapshot = null;
+        log.info(String.format("控制台统计计数已校准: %s, 耗时 %d ms", fields, System.currentTimeMillis() - start));
+        return toStatistics(new HashMap<>(fields));
+    }
+
+    private static DashboardStatistics toStatistics(Map<Object, Object> fields) {
+        DashboardStatistics statistics = new DashboardStatistics();
+        statistics.setUserCount(toLong(fields.get(FIELD_USER_COUNT)));
+        statistics.setProductTypeCount(toLong(fields.get(FIELD_PRODUCT_TYPE_COUNT)));
+        statistics.setProductCount(toLong(fields.get(FIELD_PRODUCT_COUNT)));
+        statistics.setActiveProductCount(toLong(fields.get(FIELD_ACTIVE_PRODUCT_COUNT)));
+        statistics.setDisabledProductCount(toLong(fields.get(FIELD_DISABLED_PRODUCT_COUNT)));
+        Object reconcileTime = fields.get(FIELD_RECONCILE_TIME);
+        if (reconcileTime != null) {
+            statistics.setReconcileTime(LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(toLong(reconcileTime)), ZoneId.systemDefault()));
+        }
+        return statistics;
+    }
+
+    private static long toLong(Object value) {
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        return value == null ? 0 : Long.parseLong(value.toString());
+    }
+
+    /**
+     * 读取classpath下的Lua脚本
+     */
+    private static String loadScript(String path) {
+        try {
+            return new String(new ClassPathResource(path).getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("加载Redis脚本失败: " + path, e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo.application.statistics.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 控制台统计数据
+ */
+@Data
+public class DashboardStatistics {
+    private long userCount;
+    private long productTypeCount;
+    private long productCount;
+    private long activeProductCount;
+    private long disabledProductCount;
+
+    /**
+     * 最近一次从数据库校准计数的时间
+     */
+    private LocalDateTime reconcileTime;
+}
@@ -1,12 +1,45 @@
 package com.example.demo.application.user.impl;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.example.demo.application.statistics.DashboardStatisticsService;
 import com.example.demo.domain.user.entity.User;
 import com.example.demo.domain.user.repository.UserMapper;
 import com.example.demo.application.user.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.Serializable;
 
 @Service
 public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements UserService {
-}
 
+    @Autowired
+    private DashboardStatisticsService dashboardStatisticsService;
+
+    /**
+     * 保存用户，并在事务提交后更新控制台用户数
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean save(User entity) {
+        boolean saved = super.save(entity);
+        if (saved) {
+            dashboardStatisticsService.userCountChanged(1);
+        }
+        return saved;
+    }
+
+    /**
+     * 删除用户，并在事务提交后更新控制台用户数
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean removeById(Serializable id) {
+        boolean removed = super.removeById(id);
+        if (removed) {
+            dashboardStatisticsService.userCountChanged(-1);
+        }
+        return removed;
+    }
+}
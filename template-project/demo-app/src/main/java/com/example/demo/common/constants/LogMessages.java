@@ -40,20 +40,8 @@ public class LogMessages {
         /** 删除Token失败: %s */
         public static final String DELETE_FAILED = "删除Token失败: %s";
         
-        /** 删除浏览器Token映射: browserKey=%s */
-        public static final String DELETE_BROWSER_MAPPING = "删除浏览器Token映射: browserKey=%s";
-        
-        /** 删除用户浏览器Token映射: userBrowserKey=%s */
-        public static final String DELETE_USER_BROWSER_MAPPING = "删除用户浏览器Token映射: userBrowserKey=%s";
-        
-        /** 删除IP用户Token映射: ipUserKey=%s */
-        public static final String DELETE_IP_USER_MAPPING = "删除IP用户Token映射: ipUserKey=%s";
-        
-        /** 从IP用户列表中移除用户: ip=%s, userId=%s */
-        public static final String REMOVE_USER_FROM_IP = "从IP用户列表中移除用户: ip=%s, userId=%s";
-        
-        /** 删除浏览器/IP Token映射时出错: %s */
-        public static final String DELETE_MAPPING_ERROR = "删除浏览器/IP Token映射时出错: %s";
+        /** 删除Token映射: token=%s, 映射数=%d */
+        public static final String DELETE_MAPPINGS = "删除Token映射: token=%s, 映射数=%d";
         
         /** 根据用户名删除Token失败: %s */
         public static final String DELETE_BY_USERNAME_FAILED = "根据用户名删除Token失败: %s";
@@ -61,8 +49,8 @@ public class LogMessages {
         /** 开始删除用户的所有登录信息: userId=%s, username=%s */
         public static final String DELETE_ALL_START = "开始删除用户的所有登录信息: userId=%s, username=%s";
         
-        /** 删除用户浏览器token映射，共 %d 条 */
-        public static final String DELETE_USER_BROWSER_COUNT = "删除用户浏览器token映射，共 %d 条";
+        /** 删除用户在线Token，共 %d 个 */
+        public static final String DELETE_USER_TOKENS_COUNT = "删除用户在线Token，共 %d 个";
         
         /** 用户的所有登录信息已删除: userId=%s, username=%s */
         public static final String DELETE_ALL_SUCCESS = "用户的所有登录信息已删除: userId=%s, username=%s";
@@ -90,6 +78,18 @@ public class LogMessages {
         
         /** Token验证失败: %s */
         public static final String VERIFY_FAILED = "Token验证失败: %s";
+        
+        /** 发布Token缓存失效通知失败: %s */
+        public static final String INVALIDATE_PUBLISH_FAILED = "发布Token缓存失效通知失败: %s";
+        
+        /** 查询在线Token失败: %s */
+        public static final String ONLINE_LIST_FAILED = "查询在线Token失败: %s";
+        
+        /** 清理在线Token索引: 过期Token %d 个, 失效的用户名索引 %d 个 */
+        public static final String ONLINE_INDEX_PURGED = "清理在线Token索引: 过期Token %d 个, 失效的用户名索引 %d 个";
+        
+        /** 清理在线Token索引失败: %s */
+        public static final String ONLINE_INDEX_PURGE_FAILED = "清理在线Token索引失败: %s";
     }
 
     /**
@@ -102,38 +102,17 @@ public class LogMessages {
         /** 登录失败，用户不存在: %s */
         public static final String LOGIN_USER_NOT_FOUND = "登录失败，用户不存在: %s";
         
-        /** 密码验证详情 - 用户名: %s, 输入密码长度: %d, 数据库密码长度: %d */
-        public static final String PASSWORD_VERIFY_DETAIL = "密码验证详情 - 用户名: %s, 输入密码长度: %d, 数据库密码长度: %d";
-        
-        /** 数据库密码前10个字符: %s */
-        public static final String PASSWORD_PREFIX = "数据库密码前10个字符: %s";
-        
-        /** 数据库密码完整: %s */
-        public static final String PASSWORD_FULL = "数据库密码完整: %s";
-        
-        /** 密码验证结果: %s */
-        public static final String PASSWORD_VERIFY_RESULT = "密码验证结果: %s";
-        
-        /** 检测到密码有空格，尝试去除空格后验证 */
-        public static final String PASSWORD_TRIM_DETECTED = "检测到密码有空格，尝试去除空格后验证";
-        
         /** 已更新数据库密码（去除空格） */
         public static final String PASSWORD_TRIM_UPDATED = "已更新数据库密码（去除空格）";
         
         /** 密码验证失败: %s */
         public static final String PASSWORD_VERIFY_FAILED = "密码验证失败: %s";
         
-        /** 输入密码: [%s], 数据库密码: [%s] */
-        public static final String PASSWORD_COMPARISON = "输入密码: [%s], 数据库密码: [%s]";
-        
         /** 用户登录成功: username=%s, token=%s */
         public static final String LOGIN_SUCCESS = "用户登录成功: username=%s, token=%s";
         
-        /** 登录失败，密码错误: %s */
-        public static final String LOGIN_PASSWORD_ERROR = "登录失败，密码错误: %s";
-        
-        /** 登录失败，认证异常: %s, 错误: %s */
-        public static final String LOGIN_AUTH_ERROR = "登录失败，认证异常: %s, 错误: %s";
+        /** 登录请求过多，拒绝登录: %s, 原因: %s */
+        public static final String LOGIN_BUSY = "登录请求过多，拒绝登录: %s, 原因: %s";
         
         /** 登录异常: %s */
         public static final String LOGIN_EXCEPTION = "登录异常: %s";
@@ -188,14 +167,26 @@ public class LogMessages {
         /** 开始初始化用户角色缓存... */
         public static final String INIT_START = "开始初始化用户角色缓存...";
         
-        /** 用户角色缓存初始化完成，共缓存 %d 个用户的角色信息 */
-        public static final String INIT_SUCCESS = "用户角色缓存初始化完成，共缓存 %d 个用户的角色信息";
+        /** 用户角色缓存初始化完成，共缓存 %d 个用户的角色信息，耗时 %d ms */
+        public static final String INIT_SUCCESS = "用户角色缓存初始化完成，共缓存 %d 个用户的角色信息，耗时 %d ms";
+        
+        /** 用户角色缓存预热进度: 已缓存 %d 个用户，耗时 %d ms */
+        public static final String INIT_PROGRESS = "用户角色缓存预热进度: 已缓存 %d 个用户，耗时 %d ms";
+        
+        /** 用户角色缓存预热跳过 %d 个预热开始后角色已变更的用户 */
+        public static final String INIT_SKIPPED = "用户角色缓存预热跳过 %d 个预热开始后角色已变更的用户";
+        
+        /** 用户角色缓存预热部分失败，%d 个用户未缓存（访问时按需加载） */
+        public static final String INIT_PARTIAL_FAILED = "用户角色缓存预热部分失败，%d 个用户未缓存（访问时按需加载）";
         
         /** 初始化用户角色缓存失败: %s */
         public static final String INIT_FAILED = "初始化用户角色缓存失败: %s";
         
         /** 刷新用户角色缓存: userId=%s, roles=%s */
         public static final String REFRESH_USER_ROLES = "刷新用户角色缓存: userId=%s, roles=%s";
+        
+        /** 发布用户角色缓存失效通知失败: %s */
+        public static final String INVALIDATE_PUBLISH_FAILED = "发布用户角色缓存失效通知失败: %s";
     }
 
     /**
@@ -25,8 +25,20 @@ public class RedisKeyConstants {
         /** IP用户Token映射前缀: ip_user_token:{ip}:{userId} */
         public static final String IP_USER_TOKEN = "ip_user_token:";
         
-        /** IP用户列表前缀: ip_users:{ip} */
-        public static final String IP_USERS = "ip_users:";
+        /** IP用户有序集合前缀: ip_login_users:{ip}，score为登录时间（毫秒） */
+        public static final String IP_USERS = "ip_login_users:";
+        
+        /** Token反向索引前缀: token_index:{token}，记录该Token写入的所有映射Key */
+        public static final String TOKEN_INDEX = "token_index:";
+        
+        /** 用户Token集合前缀: user_tokens:{userId}，记录该用户所有在线Token */
+        public static final String USER_TOKENS = "user_tokens:";
+        
+        /** 在线Token有序集合: online_tokens，member为token，score为最后刷新时间（毫秒） */
+        public static final String ONLINE_TOKENS = "online_tokens";
+        
+        /** 在线用户名前缀索引: online_usernames，score均为0，member为 {小写用户名}:{token}，按字典序范围查询 */
+        public static final String ONLINE_USERNAMES = "online_usernames";
     }
 
     /**
@@ -44,13 +56,50 @@ public class RedisKeyConstants {
      * 操作日志相关Key前缀
      */
     public static class Log {
-        /** 日志列表缓存前缀: log:list:{page}:{size} */
+        /** 日志列表缓存前缀: log:list:{generation}:{page}:{size} */
         public static final String LOG_LIST = "log:list:";
         
+        /** 日志列表缓存代数计数器: log:generation，新增日志时递增，旧代数的缓存按TTL自然过期 */
+        public static final String LOG_LIST_GENERATION = "log:generation";
+        
+        /** 日志筛选计数缓存前缀: log:count:{generation}:{filters} */
+        public static final String LOG_COUNT = "log:count:";
+        
         /** 日志详情缓存前缀: log:detail:{logId} */
         public static final String LOG_DETAIL = "log:detail:";
     }
 
+    /**
+     * 统计相关Key
+     */
+    public static class Stats {
+        /** 控制台统计计数Hash: stats:dashboard */
+        public static final String DASHBOARD = "stats:dashboard";
+        
+        /** 控制台统计计数校准锁: stats:dashboard:reconcile_lock */
+        public static final String DASHBOARD_RECONCILE_LOCK = "stats:dashboard:reconcile_lock";
+    }
+
+    /**
+     * 发布/订阅频道
+     */
+    public static class Channel {
+        /** Token本地缓存失效通知频道，消息内容为逗号分隔的token列表 */
+        public static final String TOKEN_INVALIDATE = "channel:token_invalidate";
+
+        /** 安全配置变更通知频道，消息内容为变更类型 */
+        public static final String SECURITY_CONFIG = "channel:security_config";
+
+        /** 角色菜单权限变更通知频道，收到后重建角色-菜单-权限快照 */
+        public static final String RBAC = "channel:rbac";
+
+        /** 用户角色本地缓存失效通知频道，消息内容为逗号分隔的用户ID列表，* 表示全部 */
+        public static final String ROLE_INVALIDATE = "channel:role_invalidate";
+
+        /** 商品联想索引变更通知频道，消息内容为JSON格式的变更条目 */
+        public static final String PRODUCT_SUGGEST = "channel:product_suggest";
+    }
+
     /**
      * 生成Token Key
      */
@@ -87,12 +136,26 @@ public class RedisKeyConstants {
     }
 
     /**
-     * 生成IP用户列表Key
+     * 生成IP用户有序集合Key
      */
     public static String getIpUsersKey(String ip) {
         return Token.IP_USERS + ip;
     }
 
+    /**
+     * 生成Token反向索引Key
+     */
+    public static String getTokenIndexKey(String token) {
+        return Token.TOKEN_INDEX + token;
+    }
+
+    /**
+     * 生成用户Token集合Key
+     */
+    public static String getUserTokensKey(String userId) {
+        return Token.USER_TOKENS + userId;
+    }
+
     /**
      * 生成用户角色缓存Key
      */
@@ -110,8 +173,15 @@ public class RedisKeyConstants {
     /**
      * 生成日志列表缓存Key
      */
-    public static String getLogListKey(int page, int size) {
-        return Log.LOG_LIST + page + ":" + size;
+    public static String getLogListKey(long generation, int page, int size) {
+        return Log.LOG_LIST + generation + ":" + page + ":" + size;
+    }
+
+    /**
+     * 生成日志筛选计数缓存Key
+     */
+    public static String getLogCountKey(long generation, String filters) {
+        return Log.LOG_COUNT + generation + ":" + filters;
     }
 
     /**
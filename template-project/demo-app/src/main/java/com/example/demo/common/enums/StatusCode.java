@@ -54,6 +54,8 @@ public enum StatusCode {
     DELETE_FAILED(500, "删除失败"),
     /** 登录失败 */
     LOGIN_ERROR(500, "登录失败"),
+    /** 登录请求过多 */
+    LOGIN_BUSY(503, "登录请求过多，请稍后重试"),
     /** 注册失败 */
     REGISTER_FAILED(500, "注册失败"),
     /** 退出登录成功 */
@@ -0,0 +1,52 @@
+package com.example.demo.common.result;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 游标分页结果
+ * 按排序键定位下一页，不使用OFFSET，也不执行COUNT查询。
+ */
+@Data
+public class CursorPage<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 当前页数据
+     */
+    private List<T> records;
+
+    /**
+     * 每页条数
+     */
+    private Integer size;
+
+    /**
+     * 下一页游标，没有下一页时为null
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有下一页
+     */
+    private Boolean hasMore;
+
+    /**
+     * 近似总数（来自PostgreSQL统计信息，未请求或无法估算时为null）
+     */
+    private Long approximateTotal;
+
+    public CursorPage() {
+    }
+
+    public CursorPage(List<T> records, int size, String nextCursor, Long approximateTotal) {
+        this.records = records;
+        this.size = size;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+        this.approximateTotal = approximateTotal;
+    }
+}
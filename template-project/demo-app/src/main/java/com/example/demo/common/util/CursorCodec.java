@@ -0,0 +1,54 @@
+package com.example.demo.common.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 游标编解码工具类
+ * 将排序键（时间, ID）编码为不透明的URL安全字符串，客户端只需原样回传。
+ */
+public class CursorCodec {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * 游标位置
+     * @param time 上一页最后一条记录的时间
+     * @param id 上一页最后一条记录的ID
+     */
+    public record Position(LocalDateTime time, String id) {
+    }
+
+    /**
+     * 编码游标
+     */
+    public static String encode(LocalDateTime time, String id) {
+        String raw = time.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标
+     * @param cursor 游标字符串，为空时返回null（表示第一页）
+     * @throws IllegalArgumentException 游标格式不正确
+     */
+    public static Position decode(String cursor) {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            if (index <= 0 || index == raw.length() - 1) {
+                throw new IllegalArgumentException("游标格式不正确");
+            }
+            LocalDateTime time = LocalDateTime.parse(raw.substring(0, index), DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            return new Position(time, raw.substring(index + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("游标格式不正确", e);
+        }
+    }
+}
@@ -4,6 +4,8 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.demo.domain.log.entity.OperationLog;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.session.ResultHandler;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -15,13 +17,50 @@ import java.util.List;
 public interface OperationLogMapper extends BaseMapper<OperationLog> {
 
     /**
-     * 删除指定时间之前的日志
+     * 批量插入日志（单条多行INSERT）
      */
-    int deleteByCreateTimeBefore(@Param("createTime") LocalDateTime createTime);
+    int insertBatch(@Param("logs") List<OperationLog> logs);
 
     /**
-     * 查询指定时间之前的日志（用于文件持久化）
+     * 流式查询符合条件的日志（用于导出），按 (operation_time, id) 倒序逐行回调，不在内存中聚合结果
+     * @param startTime 操作时间下限（含），为null不限制
+     * @param endTime 操作时间上限（不含），为null不限制
      */
-    List<OperationLog> selectByCreateTimeBefore(@Param("createTime") LocalDateTime createTime);
+    void streamForExport(@Param("module") String module,
+                         @Param("operationType") String operationType,
+                         @Param("username") String username,
+                         @Param("startTime") LocalDateTime startTime,
+                         @Param("endTime") LocalDateTime endTime,
+                         ResultHandler<OperationLog> handler);
+
+    /**
+     * 按 (create_date, id) 顺序读取一块创建时间早于指定时间的日志（用于归档）
+     * @param table 表名（operation_log 或其分区，由调用方校验）
+     * @param afterTime 上一块最后一条的创建时间，为null表示从头开始
+     * @param afterId 上一块最后一条的ID
+     */
+    List<OperationLog> selectArchiveChunk(@Param("table") String table,
+                                          @Param("expireTime") LocalDateTime expireTime,
+                                          @Param("afterTime") LocalDateTime afterTime,
+                                          @Param("afterId") String afterId,
+                                          @Param("limit") int limit);
+
+    /**
+     * 删除 (create_date, id) 闭区间内的日志
+     * @param table 表名（operation_log 或其分区，由调用方校验）
+     */
+    int deleteByKeyRange(@Param("table") String table,
+                         @Param("fromTime") LocalDateTime fromTime,
+                         @Param("fromId") String fromId,
+                         @Param("toTime") LocalDateTime toTime,
+                         @Param("toId") String toId);
+
+    /**
+     * 根据PostgreSQL统计信息估算表行数（不扫描表），分区表取各分区之和，从未ANALYZE时返回负数或null
+     */
+    @Select("SELECT CASE WHEN bool_and(reltuples < 0) THEN -1 ELSE sum(GREATEST(reltuples, 0)) END::bigint " +
+            "FROM pg_class WHERE oid = to_regclass('operation_log') " +
+            "OR oid IN (SELECT inhrelid FROM pg_inherits WHERE inhparent = to_regclass('operation_log'))")
+    Long estimateRowCount();
 }
 
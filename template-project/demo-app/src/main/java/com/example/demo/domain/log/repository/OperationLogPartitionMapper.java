@@ -0,0 +1,61 @@
+package com.example.demo.domain.log.repository;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 操作日志分区维护Mapper
+ * DDL语句不支持绑定参数，表名和分区边界由调用方生成并校验后直接拼接
+ */
+@Mapper
+public interface OperationLogPartitionMapper {
+
+    /**
+     * 查询 operation_log 是否为分区表
+     */
+    boolean isPartitioned();
+
+    /**
+     * 查询 operation_log 当前挂载的分区表名
+     */
+    List<String> selectPartitionNames();
+
+    /**
+     * 查询已从 operation_log 分离但尚未删除的日期分区表名（上次清理未完成）
+     */
+    List<String> selectDetachedPartitionNames();
+
+    /**
+     * 创建分区，已存在时忽略
+     * @param from 分区下界（含），格式 yyyy-MM-dd HH:mm:ss
+     * @param to 分区上界（不含），格式 yyyy-MM-dd HH:mm:ss
+     */
+    void createPartition(@Param("name") String name, @Param("from") String from, @Param("to") String to);
+
+    /**
+     * 从 operation_log 分离分区
+     */
+    void detachPartition(@Param("name") String name);
+
+    /**
+     * 删除表
+     */
+    void dropTable(@Param("name") String name);
+
+    /**
+     * 表是否存在
+     */
+    boolean tableExists(@Param("name") String name);
+
+    /**
+     * 表中是否还有数据
+     */
+    boolean hasRows(@Param("name") String name);
+
+    /**
+     * 表中的数据条数
+     */
+    long countRows(@Param("name") String name);
+}
@@ -3,11 +3,42 @@ package com.example.demo.domain.product.repository;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.demo.domain.product.entity.Product;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
 
 /**
  * 商品Mapper接口
  */
 @Mapper
 public interface ProductMapper extends BaseMapper<Product> {
-}
 
+    /**
+     * 根据PostgreSQL统计信息估算表行数（不扫描表），从未ANALYZE时返回负数或null
+     */
+    @Select("SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass('product')")
+    Long estimateRowCount();
+
+    /**
+     * 按相关度排序搜索商品（SQL见 mapper/ProductMapper.xml）
+     * @param keyword 原始关键词，用于完全匹配和相似度排序
+     * @param pattern 已转义的包含匹配模式（%关键词%）
+     * @param prefix  已转义的前缀匹配模式（关键词%）
+     */
+    List<Product> searchRanked(@Param("keyword") String keyword,
+                               @Param("pattern") String pattern,
+                               @Param("prefix") String prefix,
+                               @Param("typeId") String typeId,
+                               @Param("enabled") Boolean enabled,
+                               @Param("offset") long offset,
+                               @Param("limit") int limit);
+
+    /**
+     * 统计搜索匹配的商品数量，超过 cap 时返回 cap
+     */
+    long countSearchMatches(@Param("pattern") String pattern,
+                            @Param("typeId") String typeId,
+                            @Param("enabled") Boolean enabled,
+                            @Param("cap") int cap);
+}
@@ -0,0 +1,25 @@
+package com.example.demo.domain.statistics.repository;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Map;
+
+/**
+ * 统计Mapper
+ */
+@Mapper
+public interface StatisticsMapper {
+
+    /**
+     * 一次查询统计控制台的所有计数（与逐项 COUNT(*) 的口径一致，包含逻辑删除的记录）
+     * 返回的列名：user_count、product_type_count、product_count、active_product_count、disabled_product_count
+     */
+    @Select("SELECT (SELECT COUNT(*) FROM \"user\") AS user_count, " +
+            "(SELECT COUNT(*) FROM \"product_type\") AS product_type_count, " +
+            "COUNT(*) AS product_count, " +
+            "COUNT(*) FILTER (WHERE enabled = TRUE) AS active_product_count, " +
+            "COUNT(*) FILTER (WHERE enabled = FALSE) AS disabled_product_count " +
+            "FROM \"product\"")
+    Map<String, Object> selectDashboardCounts();
+}
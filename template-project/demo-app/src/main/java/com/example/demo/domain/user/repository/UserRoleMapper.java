@@ -3,8 +3,20 @@ package com.example.demo.domain.user.repository;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.demo.domain.user.entity.UserRole;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
 @Mapper
 public interface UserRoleMapper extends BaseMapper<UserRole> {
-}
 
+    /**
+     * 按 user_id 顺序流式读取所有用户角色关联（用于角色缓存预热），逐行回调，不在内存中聚合结果
+     */
+    @Select("SELECT user_id, role_id FROM \"user_role\" ORDER BY user_id")
+    @Options(fetchSize = 1000, resultSetType = ResultSetType.FORWARD_ONLY)
+    @ResultType(UserRole.class)
+    void streamAllOrderByUserId(ResultHandler<UserRole> handler);
+}
@@ -0,0 +1,153 @@
+package com.example.demo.infrastructure.cache;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 有容量上限和有效期的本地缓存，供各本地缓存组件共用
+ * 写入带失效版本：调用方在加载前获取 {@link #version()}，加载期间该键被失效过时放弃写入，
+ * 避免把失效前读到的旧数据写回缓存；其他键的失效不影响写入。
+ * 失效时为键留下带失效序号的墓碑（有效期与条目相同），写入时按键比较；
+ * 带失效序号的条目被移除（过期、淘汰）后无法再按键比较，此时提高全局下限，拒绝更早开始的加载。
+ */
+public class BoundedTtlMap<K, V> {
+
+    private final int maxSize;
+
+    private final long ttlNanos;
+
+    private final Map<K, Entry<V>> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 失效序号，每次失效递增
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * 加载版本下限，早于下限开始的加载一律不写入（全部失效、墓碑被移除时提高）
+     */
+    private final AtomicLong floor = new AtomicLong();
+
+    /**
+     * @param value         缓存值，为null表示墓碑（已失效）
+     * @param invalidatedAt 该键最近一次失效的序号，从未失效为0
+     */
+    private record Entry<V>(V value, long expireAtNanos, long invalidatedAt) {
+    }
+
+    /**
+     * @param maxSize    最大条目数，小于等于0时不缓存
+     * @param ttlSeconds 有效期（秒）
+     */
+    public BoundedTtlMap(int maxSize, long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    /**
+     * 获取缓存值，不存在、已失效或已过期返回null
+     */
+    public V get(K key) {
+        Entry<V> entry = cache.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expireAtNanos() >= 0) {
+            if (cache.remove(key, entry)) {
+                removed(entry);
+            }
+            return null;
+        }
+        return entry.value();
+    }
+
+    /**
+     * 当前失效版本，加载前获取，写入时传给 {@link #put}
+     */
+    public long version() {
+        return invalidations.get();
+    }
+
+    /**
+     * 写入缓存，加载期间该键被失效过时忽略
+     * @param version 开始加载前获取的 {@link #version()}
+     */
+    public void put(K key, V value, long version) {
+        if (maxSize <= 0 || value == null || version < floor.get()) {
+            return;
+        }
+        if (cache.size() >= maxSize) {
+            evict();
+        }
+        long expireAtNanos = System.nanoTime() + ttlNanos;
+        Entry<V> written = cache.compute(key, (k, old) -> {
+            if (version < floor.get() || (old != null && old.invalidatedAt() > version)) {
+                return old;
+            }
+            // 保留失效序号，更早开始的加载随后写入时仍会被拒绝
+            return new Entry<>(value, expireAtNanos, old == null ? 0 : old.invalidatedAt());
+        });
+        // 写入与全部失效并发时，清空可能先于写入完成，再检查一次
+        if (written != null && written.value() == value && version < floor.get()) {
+            cache.remove(key, written);
+        }
+    }
+
+    /**
+     * 失效指定条目
+     */
+    public void invalidate(Collection<K> keys) {
+        if (maxSize <= 0) {
+            return;
+        }
+        if (cache.size() >= maxSize) {
+            evict();
+        }
+        for (K key : keys) {
+            cache.put(key, new Entry<>(null, System.nanoTime() + ttlNanos, invalidations.incrementAndGet()));
+        }
+    }
+
+    /**
+     * 失效所有条目
+     */
+    public void invalidateAll() {
+        floor.accumulateAndGet(invalidations.incrementAndGet(), Math::max);
+        cache.clear();
+    }
+
+    /**
+     * 条目被移除后无法再按键拒绝失效前开始的加载，提高下限
+     */
+    private void removed(Entry<V> entry) {
+        if (entry.invalidatedAt() > 0) {
+            floor.accumulateAndGet(entry.invalidatedAt(), Math::max);
+        }
+    }
+
+    /**
+     * 容量达到上限时先清理过期条目，仍不足则淘汰约十分之一的条目
+     */
+    private void evict() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<K, Entry<V>>> it = cache.entrySet().iterator();
+        while (it.hasNext()) {
+            Entry<V> entry = it.next().getValue();
+            if (now - entry.expireAtNanos() >= 0) {
+                it.remove();
+                removed(entry);
+            }
+        }
+        int excess = cache.size() - maxSize + Math.max(1, maxSize / 10);
+        it = cache.entrySet().iterator();
+        while (excess-- > 0 && it.hasNext()) {
+            Entry<V> entry = it.next().getValue();
+            it.remove();
+            removed(entry);
+        }
+    }
+}
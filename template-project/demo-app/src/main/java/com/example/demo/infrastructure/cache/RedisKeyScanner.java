@@ -0,0 +1,175 @@
+package com.example.demo.infrastructure.cache;
+
+import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.ScanArgs;
+import io.lettuce.core.ScanCursor;
+import io.lettuce.core.api.async.RedisKeyAsyncCommands;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Redis键空间扫描工具
+ * 用基于游标的 SCAN 代替 KEYS：每次只遍历约 COUNT 个Key，不会长时间阻塞处理业务请求的Redis；
+ * 删除使用 UNLINK（内存由Redis后台线程释放），按批通过管道发送。
+ * 按模式遍历、统计、删除Key的管理和维护操作都应通过本组件完成，不要使用 KEYS。
+ */
+@Slf4j
+@Component
+public class RedisKeyScanner {
+
+    private static final StringRedisSerializer SERIALIZER = StringRedisSerializer.UTF_8;
+
+    /**
+     * 每条 UNLINK 命令包含的最大Key数
+     */
+    private static final int UNLINK_CHUNK = 100;
+
+    /**
+     * 分页扫描时单次 SCAN 的等待时间（秒）
+     */
+    private static final long SCAN_TIMEOUT_SECONDS = 10;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    /**
+     * 每次 SCAN 的 COUNT 提示值
+     */
+    @Value("${redis-scan.count:1000}")
+    private int scanCount;
+
+    /**
+     * 按模式删除时每个管道批次的Key数
+     */
+    @Value("${redis-scan.unlink-batch-size:1000}")
+    private int unlinkBatchSize;
+
+    /**
+     * 分页查询的最大每页数量
+     */
+    @Value("${redis-scan.max-page-size:1000}")
+    private int maxPageSize;
+
+    /**
+     * 分页扫描结果
+     * @param keys     本页的Key（SCAN 可能返回重复的Key）
+     * @param cursor   下一页的游标，遍历结束时为 "0"
+     * @param finished 是否已遍历结束
+     */
+    public record KeyPage(List<String> keys, String cursor, boolean finished) {
+    }
+
+    /**
+     * 逐批遍历匹配模式的Key，每批最多 batchSize 个
+     */
+    public void scan(String pattern, int batchSize, Consumer<List<String>> consumer) {
+        int size = Math.max(1, batchSize);
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(scanCount).build();
+        List<String> batch = new ArrayList<>(size);
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() >= size) {
+                    consumer.accept(batch);
+                    batch = new ArrayList<>(size);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            consumer.accept(batch);
+        }
+    }
+
+    /**
+     * 统计匹配模式的Key数量（近似值：遍历期间发生rehash时 SCAN 可能返回重复的Key）
+     */
+    public long count(String pattern) {
+        AtomicLong total = new AtomicLong();
+        scan(pattern, scanCount, batch -> total.addAndGet(batch.size()));
+        return total.get();
+    }
+
+    /**
+     * 删除匹配模式的所有Key，边扫描边删除
+     * @return 删除的Key数量
+     */
+    public long unlink(String pattern) {
+        long start = System.currentTimeMillis();
+        AtomicLong deleted = new AtomicLong();
+        scan(pattern, unlinkBatchSize, batch -> deleted.addAndGet(unlink(batch)));
+        log.info(String.format("按模式删除Key: pattern=%s, 删除 %d 个, 耗时 %d ms",
+                pattern, deleted.get(), System.currentTimeMillis() - start));
+        return deleted.get();
+    }
+
+    /**
+     * 在一次管道往返中删除一批Key，每条 UNLINK 命令最多 {@value #UNLINK_CHUNK} 个Key
+     * @return 删除的Key数量
+     */
+    public long unlink(Collection<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return 0;
+        }
+        List<byte[]> rawKeys = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            rawKeys.add(SERIALIZER.serialize(key));
+        }
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < rawKeys.size(); i += UNLINK_CHUNK) {
+                List<byte[]> chunk = rawKeys.subList(i, Math.min(i + UNLINK_CHUNK, rawKeys.size()));
+                connection.keyCommands().unlink(chunk.toArray(new byte[0][]));
+            }
+            return null;
+        });
+        long deleted = 0;
+        for (Object result : results) {
+            if (result instanceof Number number) {
+                deleted += number.longValue();
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * 从指定游标开始扫描一页Key，供管理接口分页浏览
+     * 游标是Redis返回的原始游标，可以在多次HTTP请求之间传递；单页可能连续执行多次 SCAN，
+     * 直到凑满 size 个Key或遍历结束。需要Lettuce客户端（Spring Boot默认）。
+     * @param cursor 上一页返回的游标，首页传 null 或 "0"
+     * @param size   每页Key数量，不超过 redis-scan.max-page-size
+     */
+    @SuppressWarnings("unchecked")
+    public KeyPage scanPage(String pattern, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        ScanArgs args = ScanArgs.Builder.matches(pattern).limit(Math.min(scanCount, pageSize));
+        return redisTemplate.execute((RedisCallback<KeyPage>) connection -> {
+            RedisKeyAsyncCommands<byte[], byte[]> commands =
+                    (RedisKeyAsyncCommands<byte[], byte[]>) connection.getNativeConnection();
+            ScanCursor scanCursor = ScanCursor.of(cursor == null || cursor.isEmpty() ? "0" : cursor);
+            List<String> keys = new ArrayList<>(pageSize);
+            KeyScanCursor<byte[]> result;
+            do {
+                result = LettuceFutures.awaitOrCancel(commands.scan(scanCursor, args), SCAN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                for (byte[] key : result.getKeys()) {
+                    keys.add(SERIALIZER.deserialize(key));
+                }
+                scanCursor = result;
+            } while (!result.isFinished() && keys.size() < pageSize);
+            return new KeyPage(keys, result.isFinished() ? "0" : result.getCursor(), result.isFinished());
+        });
+    }
+}
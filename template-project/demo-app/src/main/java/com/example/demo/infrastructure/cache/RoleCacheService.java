@@ -4,7 +4,6 @@ import com.example.demo.common.constants.LogMessages;
 import com.example.demo.common.constants.RedisKeyConstants;
 import com.example.demo.domain.role.entity.Role;
 import com.example.demo.domain.role.repository.RoleMapper;
-import com.example.demo.domain.user.repository.UserRoleMapper;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
@@ -13,15 +12,20 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
  * 角色缓存服务
  * 负责将用户角色信息缓存到Redis中，提高查询性能
+ * 用户角色查询依次经过本地缓存（{@link RoleLocalCache}）、Redis和数据库；
+ * 同一用户并发未命中时只有一个线程加载，其余线程等待其结果；没有角色的用户也会缓存（空列表，有效期较短）
  */
 @Slf4j
 @Service
@@ -34,7 +38,30 @@ public class RoleCacheService {
     private RoleMapper roleMapper;
 
     @Autowired
-    private UserRoleMapper userRoleMapper;
+    private RoleCacheWarmer roleCacheWarmer;
+
+    @Autowired
+    private RoleLocalCache roleLocalCache;
+
+    @Autowired
+    private RedisKeyScanner redisKeyScanner;
+
+    /**
+     * 正在加载的用户角色，同一用户的并发请求共享同一次加载
+     */
+    private final Map<String, CompletableFuture<List<String>>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * 是否正在预热；预热期间记录角色缓存被删除或刷新的用户，预热时跳过这些用户
+     */
+    private volatile boolean warmingUp;
+
+    /**
+     * 预热期间是否清除过所有用户角色缓存（之后预热的剩余数据全部跳过）
+     */
+    private volatile boolean allEvictedDuringWarmup;
+
+    private final Set<String> evictedDuringWarmup = ConcurrentHashMap.newKeySet();
 
     private final ObjectMapper objectMapper;
 
@@ -51,6 +78,12 @@ public class RoleCacheService {
     @Value("${role.cache.expire-time:604800}")
     private long expireTime;
 
+    /**
+     * 没有角色的用户的缓存过期时间（秒），默认5分钟
+     */
+    @Value("${role.cache.empty-expire-time:300}")
+    private long emptyExpireTime;
+
     /**
      * 缓存用户的所有角色
      * @param userId 用户ID
@@ -64,7 +97,8 @@ public class RoleCacheService {
                     .collect(Collectors.toList());
             
             String roleCodesJson = objectMapper.writeValueAsString(roleCodes);
-            redisTemplate.opsForValue().set(key, roleCodesJson, expireTime, TimeUnit.SECONDS);
+            redisTemplate.opsForValue().set(key, roleCodesJson, roleCodes.isEmpty() ? emptyExpireTime : expireTime,
+                    TimeUnit.SECONDS);
             
             log.debug(String.format(LogMessages.RoleCache.CACHE_USER_ROLES, userId, roleCodes));
         } catch (Exception e) {
@@ -94,13 +128,17 @@ public class RoleCacheService {
     }
 
     /**
-     * 删除用户角色缓存
+     * 删除用户角色缓存（同时失效所有实例的本地缓存）
      * @param userId 用户ID
      */
     public void evictUserRoles(String userId) {
+        if (warmingUp) {
+            evictedDuringWarmup.add(userId);
+        }
         try {
             String key = RedisKeyConstants.getUserRolesKey(userId);
             redisTemplate.delete(key);
+            roleLocalCache.invalidate(List.of(userId));
             log.debug(String.format(LogMessages.RoleCache.DELETE_USER_ROLES, userId));
         } catch (Exception e) {
             log.error(String.format(LogMessages.RoleCache.DELETE_USER_ROLES_FAILED, userId, e.getMessage()), e);
@@ -108,27 +146,63 @@ public class RoleCacheService {
     }
 
     /**
-     * 获取用户角色（优先从缓存获取，缓存不存在则从数据库获取并缓存）
+     * 获取用户角色（依次从本地缓存、Redis获取，都不存在则从数据库获取并缓存）
      * @param userId 用户ID
      * @return 角色代码列表
      */
     public List<String> getUserRoles(String userId) {
-            // 先从缓存获取
-            List<String> cachedRoles = getUserRolesFromCache(userId);
-            if (cachedRoles != null) {
-                log.debug(String.format(LogMessages.RoleCache.GET_FROM_CACHE, userId, cachedRoles));
-                return cachedRoles;
+        List<String> localRoles = roleLocalCache.get(userId);
+        if (localRoles != null) {
+            return localRoles;
+        }
+
+        CompletableFuture<List<String>> load = new CompletableFuture<>();
+        CompletableFuture<List<String>> existing = loading.putIfAbsent(userId, load);
+        if (existing != null) {
+            // 其他线程正在加载该用户的角色，等待其结果
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
             }
+        }
+
+        try {
+            List<String> roleCodes = loadUserRoles(userId);
+            load.complete(roleCodes);
+            return roleCodes;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(userId, load);
+        }
+    }
 
-            // 缓存不存在，从数据库获取
-            log.info(String.format(LogMessages.RoleCache.CACHE_MISS, userId));
+    /**
+     * 从Redis加载用户角色，不存在则从数据库获取并缓存到Redis，结果写入本地缓存
+     */
+    private List<String> loadUserRoles(String userId) {
+        long version = roleLocalCache.version();
+
+        // 先从缓存获取
+        List<String> cachedRoles = getUserRolesFromCache(userId);
+        if (cachedRoles != null) {
+            log.debug(String.format(LogMessages.RoleCache.GET_FROM_CACHE, userId, cachedRoles));
+            roleLocalCache.put(userId, cachedRoles, version);
+            return cachedRoles;
+        }
+
+        // 缓存不存在，从数据库获取
+        log.info(String.format(LogMessages.RoleCache.CACHE_MISS, userId));
         List<Role> roles = roleMapper.findRolesByUserId(userId);
         List<String> roleCodes = roles.stream()
                 .map(Role::getRoleCode)
                 .collect(Collectors.toList());
 
-        // 缓存到Redis
+        // 缓存到Redis（没有角色时缓存空列表，避免重复查询数据库）
         cacheUserRoles(userId, roles);
+        roleLocalCache.put(userId, roleCodes, version);
         log.info(String.format("从数据库加载用户角色并缓存: userId=%s, roles=%s", userId, roleCodes));
         return roleCodes;
     }
@@ -180,12 +254,15 @@ public class RoleCacheService {
      * 清除所有用户角色缓存
      */
     public void evictAllUserRolesCache() {
+        if (warmingUp) {
+            allEvictedDuringWarmup = true;
+        }
         try {
-            Set<String> keys = redisTemplate.keys(RedisKeyConstants.Role.USER_ROLES + "*");
-            if (keys != null && !keys.isEmpty()) {
-                redisTemplate.delete(keys);
-                log.info(String.format(LogMessages.RoleCache.CLEAR_ALL_USER_ROLES, keys.size()));
+            long deleted = redisKeyScanner.unlink(RedisKeyConstants.Role.USER_ROLES + "*");
+            if (deleted > 0) {
+                log.info(String.format(LogMessages.RoleCache.CLEAR_ALL_USER_ROLES, deleted));
             }
+            roleLocalCache.invalidateAll();
         } catch (Exception e) {
             log.error(String.format(LogMessages.RoleCache.CLEAR_ALL_USER_ROLES_FAILED, e.getMessage()), e);
         }
@@ -193,52 +270,33 @@ public class RoleCacheService {
 
     /**
      * 初始化所有用户角色缓存
-     * 系统启动时调用，将所有用户的角色信息缓存到Redis
+     * 系统启动时调用，将所有用户的角色信息批量缓存到Redis（见 {@link RoleCacheWarmer}）
+     * 预热期间未缓存的用户由 {@link #getUserRoles} 按需加载
      */
     public void initAllUserRolesCache() {
         try {
             log.info(LogMessages.RoleCache.INIT_START);
-            
-            // 获取所有用户角色关联
-            List<com.example.demo.domain.user.entity.UserRole> userRoles = userRoleMapper.selectList(null);
-            
-            // 按用户ID分组
-            java.util.Map<String, List<String>> userRolesMap = userRoles.stream()
-                    .collect(Collectors.groupingBy(
-                            com.example.demo.domain.user.entity.UserRole::getUserId,
-                            Collectors.mapping(com.example.demo.domain.user.entity.UserRole::getRoleId, Collectors.toList())
-                    ));
-
-            int cachedCount = 0;
-            for (java.util.Map.Entry<String, List<String>> entry : userRolesMap.entrySet()) {
-                String userId = entry.getKey();
-                List<String> roleIds = entry.getValue();
-                
-                // 根据角色ID查询角色信息
-                List<Role> roles = new ArrayList<>();
-                for (String roleId : roleIds) {
-                    Role role = roleMapper.selectById(roleId);
-                    if (role != null) {
-                        roles.add(role);
-                    }
-                }
-                
-                // 缓存用户角色
-                cacheUserRoles(userId, roles);
-                cachedCount++;
-            }
-            
+
             // 缓存所有角色列表
             cacheAllRoles();
-            
-            log.info(String.format(LogMessages.RoleCache.INIT_SUCCESS, cachedCount));
+
+            evictedDuringWarmup.clear();
+            allEvictedDuringWarmup = false;
+            warmingUp = true;
+            roleCacheWarmer.warmUp(userId -> allEvictedDuringWarmup || evictedDuringWarmup.contains(userId));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn(String.format(LogMessages.RoleCache.INIT_FAILED, "预热被中断"));
         } catch (Exception e) {
             log.error(String.format(LogMessages.RoleCache.INIT_FAILED, e.getMessage()), e);
+        } finally {
+            warmingUp = false;
+            evictedDuringWarmup.clear();
         }
     }
 
     /**
-     * 刷新用户角色缓存（从数据库重新加载并缓存）
+     * 刷新用户角色缓存（从数据库重新加载并缓存；先删除缓存，预热期间该用户会被预热跳过）
      * @param userId 用户ID
      */
     public void refreshUserRolesCache(String userId) {
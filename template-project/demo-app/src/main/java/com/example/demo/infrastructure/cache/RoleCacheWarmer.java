@@ -0,0 +1,247 @@
+package com.example.demo.infrastructure.cache;
+
+import com.example.demo.common.constants.LogMessages;
+import com.example.demo.common.constants.RedisKeyConstants;
+import com.example.demo.domain.role.entity.Role;
+import com.example.demo.domain.role.repository.RoleMapper;
+import com.example.demo.domain.user.entity.UserRole;
+import com.example.demo.domain.user.repository.UserRoleMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 用户角色缓存预热
+ * 角色表只查询一次；user_role 按 user_id 排序流式读取，相邻行按用户聚合，不在内存中保存全部关联；
+ * 每 batch-size 个用户组成一批，由有界线程池通过管道批量 SET EX 写入Redis。
+ * 线程池队列满时由读取线程自己写入，读取速度受写入速度约束，内存占用有上限。
+ * 预热读取的是开始时的快照，写入使用 SET NX，不覆盖预热期间按需加载或刷新的缓存；
+ * 预热开始后被删除或刷新过缓存的用户（由调用方判断）直接跳过，避免写回变更前的角色。
+ */
+@Slf4j
+@Component
+public class RoleCacheWarmer {
+
+    private static final RedisSerializer<String> SERIALIZER = RedisSerializer.string();
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private RoleMapper roleMapper;
+
+    @Autowired
+    private UserRoleMapper userRoleMapper;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${role.cache.expire-time:604800}")
+    private long expireTime;
+
+    @Value("${role.cache.empty-expire-time:300}")
+    private long emptyExpireTime;
+
+    @Value("${role.cache.warmup.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${role.cache.warmup.threads:4}")
+    private int threads;
+
+    @Value("${role.cache.warmup.progress-interval:50000}")
+    private long progressInterval;
+
+    /**
+     * 预热所有用户的角色缓存
+     * 在只读事务中执行，PostgreSQL只有在事务中才会按 fetchSize 分批读取
+     * @param changed 预热开始后角色缓存已被删除或刷新的用户，这些用户不写入
+     * @return 缓存的用户数
+     */
+    @Transactional(readOnly = true)
+    public long warmUp(Predicate<String> changed) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        Map<String, String> roleCodes = new HashMap<>();
+        for (Role role : roleMapper.selectList(null)) {
+            roleCodes.put(role.getId(), role.getRoleCode());
+        }
+
+        int poolSize = Math.max(1, threads);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(poolSize * 2), warmupThreadFactory(), new ThreadPoolExecutor.CallerRunsPolicy());
+        Progress progress = new Progress(start);
+        try {
+            BatchCollector collector = new BatchCollector(roleCodes, Math.max(1, batchSize),
+                    batch -> executor.execute(() -> writeBatch(batch, changed, progress)));
+            userRoleMapper.streamAllOrderByUserId(collector);
+            collector.finish();
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.MINUTES);
+        }
+
+        if (progress.skipped.get() > 0) {
+            log.info(String.format(LogMessages.RoleCache.INIT_SKIPPED, progress.skipped.get()));
+        }
+        if (progress.failed.get() > 0) {
+            log.warn(String.format(LogMessages.RoleCache.INIT_PARTIAL_FAILED, progress.failed.get()));
+        }
+        log.info(String.format(LogMessages.RoleCache.INIT_SUCCESS, progress.cached.get(), System.currentTimeMillis() - start));
+        return progress.cached.get();
+    }
+
+    private static ThreadFactory warmupThreadFactory() {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "role-cache-warmup-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 在一次管道往返中写入一批用户的角色缓存（与 RoleCacheService.cacheUserRoles 的格式和有效期一致）
+     * 使用 SET NX：已存在的缓存是预热开始后写入的，比快照新
+     */
+    private void writeBatch(Map<String, List<String>> batch, Predicate<String> changed, Progress progress) {
+        try {
+            List<byte[]> keys = new ArrayList<>(batch.size());
+            List<byte[]> values = new ArrayList<>(batch.size());
+            List<Expiration> expirations = new ArrayList<>(batch.size());
+            for (Map.Entry<String, List<String>> entry : batch.entrySet()) {
+                if (changed.test(entry.getKey())) {
+                    progress.skipped.incrementAndGet();
+                    continue;
+                }
+                keys.add(SERIALIZER.serialize(RedisKeyConstants.getUserRolesKey(entry.getKey())));
+                values.add(SERIALIZER.serialize(objectMapper.writeValueAsString(entry.getValue())));
+                expirations.add(Expiration.seconds(entry.getValue().isEmpty() ? emptyExpireTime : expireTime));
+            }
+            if (keys.isEmpty()) {
+                return;
+            }
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (int i = 0; i < keys.size(); i++) {
+                    connection.stringCommands().set(keys.get(i), values.get(i), expirations.get(i),
+                            RedisStringCommands.SetOption.ifAbsent());
+                }
+                return null;
+            });
+            progress.onCached(keys.size());
+        } catch (Exception e) {
+            progress.failed.addAndGet(batch.size());
+            log.error(String.format(LogMessages.RoleCache.INIT_FAILED, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * 预热进度，每缓存 progress-interval 个用户输出一次
+     */
+    private final class Progress {
+
+        private final long start;
+
+        private final AtomicLong cached = new AtomicLong();
+
+        private final AtomicLong failed = new AtomicLong();
+
+        private final AtomicLong skipped = new AtomicLong();
+
+        private final AtomicLong nextReport = new AtomicLong(progressInterval);
+
+        Progress(long start) {
+            this.start = start;
+        }
+
+        void onCached(int count) {
+            long total = cached.addAndGet(count);
+            long threshold = nextReport.get();
+            if (total >= threshold && nextReport.compareAndSet(threshold, total + progressInterval)) {
+                log.info(String.format(LogMessages.RoleCache.INIT_PROGRESS, total, System.currentTimeMillis() - start));
+            }
+        }
+    }
+
+    /**
+     * 把按 user_id 排序的 user_role 行聚合为 用户→角色代码，每满一批交给 consumer
+     */
+    private static final class BatchCollector implements ResultHandler<UserRole> {
+
+        private final Map<String, String> roleCodes;
+
+        private final int batchSize;
+
+        private final Consumer<Map<String, List<String>>> consumer;
+
+        private Map<String, List<String>> batch = new LinkedHashMap<>();
+
+        private String currentUserId;
+
+        private List<String> currentRoles;
+
+        BatchCollector(Map<String, String> roleCodes, int batchSize, Consumer<Map<String, List<String>>> consumer) {
+            this.roleCodes = roleCodes;
+            this.batchSize = batchSize;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void handleResult(ResultContext<? extends UserRole> context) {
+            UserRole userRole = context.getResultObject();
+            if (!userRole.getUserId().equals(currentUserId)) {
+                flushUser();
+                currentUserId = userRole.getUserId();
+                currentRoles = new ArrayList<>(2);
+            }
+            String roleCode = roleCodes.get(userRole.getRoleId());
+            if (roleCode != null) {
+                currentRoles.add(roleCode);
+            }
+        }
+
+        /**
+         * 读取结束后提交最后一个用户和最后一批
+         */
+        void finish() {
+            flushUser();
+            currentUserId = null;
+            if (!batch.isEmpty()) {
+                consumer.accept(batch);
+                batch = new LinkedHashMap<>();
+            }
+        }
+
+        private void flushUser() {
+            if (currentUserId == null) {
+                return;
+            }
+            batch.put(currentUserId, currentRoles);
+            if (batch.size() >= batchSize) {
+                consumer.accept(batch);
+                batch = new LinkedHashMap<>();
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.demo.infrastructure.cache;
+
+import com.example.demo.common.constants.LogMessages;
+import com.example.demo.common.constants.RedisKeyConstants;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 用户角色本地缓存（一级缓存，Redis为二级缓存）
+ * 缓存用户的角色代码列表（包括没有角色的空列表），有效期较短；
+ * 用户角色变更时通过Redis发布/订阅通知所有实例失效对应条目
+ */
+@Slf4j
+@Component
+public class RoleLocalCache implements MessageListener {
+
+    /** 失效所有条目的通知内容 */
+    private static final String ALL = "*";
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    /**
+     * 最大缓存条目数
+     */
+    @Value("${role.local-cache.max-size:10000}")
+    private int maxSize;
+
+    /**
+     * 缓存有效期（秒），作为丢失失效通知时的兜底
+     */
+    @Value("${role.local-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    private BoundedTtlMap<String, List<String>> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = new BoundedTtlMap<>(maxSize, ttlSeconds);
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisKeyConstants.Channel.ROLE_INVALIDATE));
+    }
+
+    /**
+     * 获取缓存的角色代码列表，不存在或已过期返回null
+     */
+    public List<String> get(String userId) {
+        return cache.get(userId);
+    }
+
+    /**
+     * 当前失效版本，加载前获取，写入时传给 {@link #put}
+     */
+    public long version() {
+        return cache.version();
+    }
+
+    /**
+     * 缓存角色代码列表，加载期间该用户的缓存被失效过时忽略
+     * @param version 开始加载前获取的 {@link #version()}
+     */
+    public void put(String userId, List<String> roleCodes, long version) {
+        cache.put(userId, List.copyOf(roleCodes), version);
+    }
+
+    /**
+     * 失效本实例及其他实例中指定用户的缓存
+     */
+    public void invalidate(Collection<String> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return;
+        }
+        cache.invalidate(userIds);
+        publish(String.join(",", userIds));
+    }
+
+    /**
+     * 失效本实例及其他实例中的所有缓存
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        publish(ALL);
+    }
+
+    private void publish(String message) {
+        try {
+            redisTemplate.convertAndSend(RedisKeyConstants.Channel.ROLE_INVALIDATE, message);
+        } catch (Exception e) {
+            // 发布失败时其他实例依靠缓存有效期兜底
+            log.warn(String.format(LogMessages.RoleCache.INVALIDATE_PUBLISH_FAILED, e.getMessage()));
+        }
+    }
+
+    /**
+     * 接收其他实例发布的失效通知
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (ALL.equals(body)) {
+            cache.invalidateAll();
+            return;
+        }
+        List<String> userIds = new ArrayList<>();
+        for (String userId : body.split(",")) {
+            if (!userId.isEmpty()) {
+                userIds.add(userId);
+            }
+        }
+        cache.invalidate(userIds);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.demo.infrastructure.cache;
+
+import com.example.demo.common.constants.LogMessages;
+import com.example.demo.common.constants.RedisKeyConstants;
+import com.example.demo.domain.security.entity.TokenInfo;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Token本地缓存
+ * 缓存已反序列化的TokenInfo，减少每个请求的Redis访问和JSON解析；
+ * Token删除、刷新时通过Redis发布/订阅通知所有实例失效对应条目；
+ * 写入带失效版本，加载期间Token被登出或踢下线时不会把已失效的Token写回缓存
+ */
+@Slf4j
+@Component
+public class TokenLocalCache implements MessageListener {
+
+    /** 失效所有条目的通知内容 */
+    private static final String ALL = "*";
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    /**
+     * 最大缓存条目数
+     */
+    @Value("${token.local-cache.max-size:10000}")
+    private int maxSize;
+
+    /**
+     * 缓存有效期（秒），作为丢失失效通知时的兜底
+     */
+    @Value("${token.local-cache.ttl-seconds:5}")
+    private long ttlSeconds;
+
+    private BoundedTtlMap<String, TokenInfo> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = new BoundedTtlMap<>(maxSize, ttlSeconds);
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisKeyConstants.Channel.TOKEN_INVALIDATE));
+    }
+
+    /**
+     * 获取缓存的Token信息，不存在或已过期返回null
+     */
+    public TokenInfo get(String token) {
+        return cache.get(token);
+    }
+
+    /**
+     * 当前失效版本，从Redis加载前获取，写入时传给 {@link #put}
+     */
+    public long version() {
+        return cache.version();
+    }
+
+    /**
+     * 缓存Token信息，加载期间该Token被失效过（登出、踢下线等）时忽略
+     * @param version 开始加载前获取的 {@link #version()}
+     */
+    public void put(String token, TokenInfo tokenInfo, long version) {
+        cache.put(token, tokenInfo, version);
+    }
+
+    /**
+     * 失效本实例及其他实例中的Token缓存
+     */
+    public void invalidate(Collection<String> tokens) {
+        if (tokens == null || tokens.isEmpty()) {
+            return;
+        }
+        cache.invalidate(tokens);
+        publish(String.join(",", tokens));
+    }
+
+    /**
+     * 失效本实例及其他实例中的所有缓存
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        publish(ALL);
+    }
+
+    private void publish(String message) {
+        try {
+            redisTemplate.convertAndSend(RedisKeyConstants.Channel.TOKEN_INVALIDATE, message);
+        } catch (Exception e) {
+            // 发布失败时其他实例依靠缓存有效期兜底
+            log.warn(String.format(LogMessages.Token.INVALIDATE_PUBLISH_FAILED, e.getMessage()));
+        }
+    }
+
+    /**
+     * 接收其他实例发布的失效通知
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (ALL.equals(body)) {
+            cache.invalidateAll();
+            return;
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : body.split(",")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        cache.invalidate(tokens);
+    }
+}
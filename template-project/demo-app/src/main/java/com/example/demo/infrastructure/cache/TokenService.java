@@ -3,21 +3,41 @@ package com.example.demo.infrastructure.cache;
 import com.example.demo.common.constants.RedisKeyConstants;
 import com.example.demo.common.constants.LogMessages;
 import com.example.demo.domain.security.entity.TokenInfo;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
-import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Token服务
@@ -27,9 +47,78 @@ import java.util.concurrent.TimeUnit;
 @Service
 public class TokenService {
 
+    /**
+     * 删除Token及其映射的Lua脚本（按反向索引删除，不使用KEYS）
+     */
+    private static final DefaultRedisScript<Long> UNLINK_SCRIPT =
+            new DefaultRedisScript<>(loadScript("redis/token_unlink.lua"), Long.class);
+
+    /**
+     * 保存Token的Lua脚本（淘汰旧Token并写入新Token，返回被淘汰的Token）
+     */
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> SAVE_SCRIPT =
+            new DefaultRedisScript<>(loadScript("redis/token_save.lua"), List.class);
+
+    /**
+     * 刷新Token的Lua脚本（只更新刷新时间字段并续期）
+     */
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> REFRESH_SCRIPT =
+            new DefaultRedisScript<>(loadScript("redis/token_refresh.lua"), List.class);
+
+    /**
+     * Token信息Hash字段名，时间字段存储为毫秒时间戳
+     */
+    private static final String FIELD_TOKEN = "token";
+    private static final String FIELD_USERNAME = "username";
+    private static final String FIELD_USER_ID = "userId";
+    private static final String FIELD_ROLES = "roles";
+    private static final String FIELD_PERMISSIONS = "permissions";
+    private static final String FIELD_CREATE_TIME = "createTime";
+    private static final String FIELD_LAST_REFRESH_TIME = "lastRefreshTime";
+    private static final String FIELD_EXPIRE_TIME = "expireTime";
+
+    /**
+     * 清理用户名前缀索引时每批检查的条目数
+     */
+    private static final int ONLINE_PURGE_BATCH = 1000;
+
+    private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {
+    };
+
+    private static final StringRedisSerializer SERIALIZER = StringRedisSerializer.UTF_8;
+
+    private static final byte[] ONLINE_TOKENS_KEY = SERIALIZER.serialize(RedisKeyConstants.Token.ONLINE_TOKENS);
+
+    private static final byte[] ONLINE_USERNAMES_KEY = SERIALIZER.serialize(RedisKeyConstants.Token.ONLINE_USERNAMES);
+
+    /**
+     * 在线用户列表读取的Token信息字段（不读取权限列表）
+     */
+    private static final byte[][] ONLINE_FIELDS = {
+            SERIALIZER.serialize(FIELD_TOKEN),
+            SERIALIZER.serialize(FIELD_USERNAME),
+            SERIALIZER.serialize(FIELD_USER_ID),
+            SERIALIZER.serialize(FIELD_ROLES),
+            SERIALIZER.serialize(FIELD_CREATE_TIME),
+            SERIALIZER.serialize(FIELD_LAST_REFRESH_TIME),
+            SERIALIZER.serialize(FIELD_EXPIRE_TIME)};
+
+    /**
+     * 在线Token分页结果
+     * @param total   符合条件的在线Token总数
+     * @param records 当前页的Token信息（不含权限列表），按最后刷新时间倒序
+     */
+    public record OnlineTokenPage(long total, List<TokenInfo> records) {
+    }
+
     @Autowired
     private RedisTemplate<String, String> redisTemplate;
 
+    @Autowired
+    private TokenLocalCache tokenLocalCache;
+
     private final ObjectMapper objectMapper;
 
     /**
@@ -51,13 +140,8 @@ public class TokenService {
     private int tokenLength;
 
     public TokenService() {
+        // Token信息以Hash存储，ObjectMapper仅用于角色/权限列表的序列化
         this.objectMapper = new ObjectMapper();
-        JavaTimeModule javaTimeModule = new JavaTimeModule();
-        javaTimeModule.addSerializer(java.time.LocalDateTime.class,
-            new LocalDateTimeSerializer(java.time.format.DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-        javaTimeModule.addDeserializer(java.time.LocalDateTime.class,
-            new LocalDateTimeDeserializer(java.time.format.DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-        this.objectMapper.registerModule(javaTimeModule);
     }
 
     /**
@@ -66,6 +150,12 @@ public class TokenService {
     @Value("${token.ip-max-users:5}")
     private int ipMaxUsers;
 
+    /**
+     * 按用户名前缀搜索在线用户时最多读取的匹配Token数
+     */
+    @Value("${token.online.keyword-max-matches:1000}")
+    private int keywordMaxMatches;
+
     /**
      * 生成32位随机Token
      */
@@ -92,125 +182,54 @@ public class TokenService {
      */
     public void saveToken(String token, String username, String userId, List<String> roles, List<String> permissions, String browserId, String clientIp) {
         try {
-            // 如果提供了浏览器ID，需要处理单浏览器单用户限制
-            if (browserId != null && !browserId.trim().isEmpty()) {
-                // 1. 检查该浏览器是否已有其他用户的token，如果有则删除
-                String browserTokenKey = RedisKeyConstants.getBrowserTokenKey(browserId);
-                String existingToken = redisTemplate.opsForValue().get(browserTokenKey);
-                if (existingToken != null && !existingToken.equals(token)) {
-                    log.info(String.format(LogMessages.Token.BROWSER_HAS_OTHER_USER, browserId, existingToken));
-                    deleteToken(existingToken);
-                }
-                
-                // 2. 检查该用户是否在该浏览器已有token，如果有则删除
-                String userBrowserKey = RedisKeyConstants.getUserBrowserKey(userId, browserId);
-                String existingUserToken = redisTemplate.opsForValue().get(userBrowserKey);
-                if (existingUserToken != null && !existingUserToken.equals(token)) {
-                    log.info(String.format(LogMessages.Token.USER_HAS_BROWSER_TOKEN, 
-                        userId, browserId, existingUserToken));
-                    deleteToken(existingUserToken);
-                }
-            }
-
-            // 如果提供了客户端IP，需要处理IP限制
-            if (clientIp != null && !clientIp.trim().isEmpty()) {
-                // 1. 检查同一IP下同一用户是否已有token，如果有则删除
-                String ipUserTokenKey = RedisKeyConstants.getIpUserTokenKey(clientIp, userId);
-                String existingIpUserToken = redisTemplate.opsForValue().get(ipUserTokenKey);
-                if (existingIpUserToken != null && !existingIpUserToken.equals(token)) {
-                    log.info(String.format(LogMessages.Token.IP_USER_HAS_TOKEN, 
-                        clientIp, userId, existingIpUserToken));
-                    deleteToken(existingIpUserToken);
-                }
-
-                // 2. 检查同一IP下的用户数量，如果>=5个，删除最旧的token
-                String ipUsersKey = RedisKeyConstants.getIpUsersKey(clientIp);
-                Long userCount = redisTemplate.opsForSet().size(ipUsersKey);
-                
-                if (userCount != null && userCount >= ipMaxUsers) {
-                    // 检查当前用户是否已经在IP用户列表中
-                    Boolean isMember = redisTemplate.opsForSet().isMember(ipUsersKey, userId);
-                    
-                    if (isMember == null || !isMember) {
-                        // 当前用户不在列表中，需要删除一个旧的用户token
-                        // 获取所有用户ID，找到最旧的一个
-                        Set<String> userIds = redisTemplate.opsForSet().members(ipUsersKey);
-                        if (userIds != null && !userIds.isEmpty()) {
-                            // 找到最旧的token（通过查找创建时间最早的）
-                            String oldestUserId = null;
-                            LocalDateTime oldestTime = null;
-                            
-                            for (String uid : userIds) {
-                                String ipUserKey = RedisKeyConstants.getIpUserTokenKey(clientIp, uid);
-                                String userToken = redisTemplate.opsForValue().get(ipUserKey);
-                                if (userToken != null) {
-                                    TokenInfo info = getTokenInfo(userToken);
-                                    if (info != null && info.getCreateTime() != null) {
-                                        if (oldestTime == null || info.getCreateTime().isBefore(oldestTime)) {
-                                            oldestTime = info.getCreateTime();
-                                            oldestUserId = uid;
-                                        }
-                                    }
-                                }
-                            }
-                            
-                            // 删除最旧的token
-                            if (oldestUserId != null) {
-                                String oldestIpUserKey = RedisKeyConstants.getIpUserTokenKey(clientIp, oldestUserId);
-                                String oldestToken = redisTemplate.opsForValue().get(oldestIpUserKey);
-                                if (oldestToken != null) {
-                                    log.info(String.format(LogMessages.Token.IP_MAX_USERS_REACHED, 
-                                        clientIp, oldestUserId, oldestToken));
-                                    deleteToken(oldestToken);
-                                }
-                            }
-                        }
-                    }
+            long now = System.currentTimeMillis();
+
+            boolean hasBrowser = browserId != null && !browserId.trim().isEmpty();
+            boolean hasIp = clientIp != null && !clientIp.trim().isEmpty();
+
+            // 浏览器/IP限制检查、旧Token淘汰和新Token写入在一个Lua脚本中原子执行
+            List<String> keys = List.of(
+                    RedisKeyConstants.getTokenKey(token),
+                    RedisKeyConstants.getTokenIndexKey(token),
+                    RedisKeyConstants.getUserTokensKey(userId),
+                    RedisKeyConstants.getUserTokenKey(username),
+                    hasBrowser ? RedisKeyConstants.getBrowserTokenKey(browserId) : "",
+                    hasBrowser ? RedisKeyConstants.getUserBrowserKey(userId, browserId) : "",
+                    hasIp ? RedisKeyConstants.getIpUserTokenKey(clientIp, userId) : "",
+                    hasIp ? RedisKeyConstants.getIpUsersKey(clientIp) : "",
+                    RedisKeyConstants.Token.ONLINE_TOKENS,
+                    RedisKeyConstants.Token.ONLINE_USERNAMES);
+
+            // Token信息以Hash存储：静态字段只在登录时写入一次，刷新时仅更新时间字段
+            @SuppressWarnings("unchecked")
+            List<String> evicted = (List<String>) redisTemplate.execute(SAVE_SCRIPT, keys,
+                    token,
+                    userId,
+                    String.valueOf(expireTime),
+                    String.valueOf(ipMaxUsers),
+                    String.valueOf(now),
+                    RedisKeyConstants.Token.TOKEN,
+                    RedisKeyConstants.Token.TOKEN_INDEX,
+                    RedisKeyConstants.Token.USER_TOKENS,
+                    RedisKeyConstants.Token.IP_USERS,
+                    hasIp ? RedisKeyConstants.getIpUserTokenKey(clientIp, "") : "",
+                    username,
+                    FIELD_TOKEN, token,
+                    FIELD_USERNAME, username,
+                    FIELD_USER_ID, userId,
+                    FIELD_ROLES, objectMapper.writeValueAsString(roles != null ? roles : List.of()),
+                    FIELD_PERMISSIONS, objectMapper.writeValueAsString(permissions != null ? permissions : List.of()),
+                    FIELD_CREATE_TIME, String.valueOf(now),
+                    FIELD_LAST_REFRESH_TIME, String.valueOf(now),
+                    FIELD_EXPIRE_TIME, String.valueOf(now + expireTime * 1000));
+
+            logEvictedTokens(evicted, userId, browserId, clientIp);
+            if (evicted != null && !evicted.isEmpty()) {
+                List<String> evictedTokens = new ArrayList<>();
+                for (int i = 1; i < evicted.size(); i += 3) {
+                    evictedTokens.add(evicted.get(i));
                 }
-            }
-
-            TokenInfo tokenInfo = new TokenInfo();
-            tokenInfo.setToken(token);
-            tokenInfo.setUsername(username);
-            tokenInfo.setUserId(userId);
-            tokenInfo.setRoles(roles);
-            tokenInfo.setPermissions(permissions);
-            tokenInfo.setCreateTime(LocalDateTime.now());
-            tokenInfo.setLastRefreshTime(LocalDateTime.now());
-            tokenInfo.setExpireTime(LocalDateTime.now().plusSeconds(expireTime));
-
-            // 将TokenInfo转换为JSON字符串存储
-            String tokenJson = objectMapper.writeValueAsString(tokenInfo);
-            
-            // 存储token信息，设置过期时间
-            String tokenKey = RedisKeyConstants.getTokenKey(token);
-            redisTemplate.opsForValue().set(tokenKey, tokenJson, expireTime, TimeUnit.SECONDS);
-            
-            // 存储用户到token的映射（用于快速查找和强制下线）
-            String userTokenKey = RedisKeyConstants.getUserTokenKey(username);
-            redisTemplate.opsForValue().set(userTokenKey, token, expireTime, TimeUnit.SECONDS);
-
-            // 如果提供了浏览器ID，保存浏览器相关的映射
-            if (browserId != null && !browserId.trim().isEmpty()) {
-                // 存储浏览器到token的映射
-                String browserTokenKey = RedisKeyConstants.getBrowserTokenKey(browserId);
-                redisTemplate.opsForValue().set(browserTokenKey, token, expireTime, TimeUnit.SECONDS);
-                
-                // 存储用户浏览器到token的映射
-                String userBrowserKey = RedisKeyConstants.getUserBrowserKey(userId, browserId);
-                redisTemplate.opsForValue().set(userBrowserKey, token, expireTime, TimeUnit.SECONDS);
-            }
-
-            // 如果提供了客户端IP，保存IP相关的映射
-            if (clientIp != null && !clientIp.trim().isEmpty()) {
-                // 存储IP用户到token的映射
-                String ipUserTokenKey = RedisKeyConstants.getIpUserTokenKey(clientIp, userId);
-                redisTemplate.opsForValue().set(ipUserTokenKey, token, expireTime, TimeUnit.SECONDS);
-                
-                // 将用户ID添加到IP用户列表中
-                String ipUsersKey = RedisKeyConstants.getIpUsersKey(clientIp);
-                redisTemplate.opsForSet().add(ipUsersKey, userId);
-                redisTemplate.expire(ipUsersKey, expireTime, TimeUnit.SECONDS);
+                tokenLocalCache.invalidate(evictedTokens);
             }
 
             log.info(String.format(LogMessages.Token.SAVE_SUCCESS, 
@@ -221,24 +240,47 @@ public class TokenService {
         }
     }
 
+    /**
+     * 记录保存Token时被淘汰的旧Token
+     * @param evicted 脚本返回的 {原因, token, 被淘汰用户ID} 三元组列表
+     */
+    private void logEvictedTokens(List<String> evicted, String userId, String browserId, String clientIp) {
+        if (evicted == null) {
+            return;
+        }
+        for (int i = 0; i + 2 < evicted.size(); i += 3) {
+            String reason = evicted.get(i);
+            String oldToken = evicted.get(i + 1);
+            String oldUserId = evicted.get(i + 2);
+            switch (reason) {
+                case "browser" -> log.info(String.format(LogMessages.Token.BROWSER_HAS_OTHER_USER, browserId, oldToken));
+                case "user_browser" -> log.info(String.format(LogMessages.Token.USER_HAS_BROWSER_TOKEN,
+                        userId, browserId, oldToken));
+                case "ip_user" -> log.info(String.format(LogMessages.Token.IP_USER_HAS_TOKEN,
+                        clientIp, userId, oldToken));
+                case "ip_max" -> log.info(String.format(LogMessages.Token.IP_MAX_USERS_REACHED,
+                        clientIp, oldUserId, oldToken));
+                default -> log.debug(String.format(LogMessages.Token.DELETE_SUCCESS, oldToken, oldUserId));
+            }
+        }
+    }
+
     /**
      * 从Redis获取Token信息
      */
     public TokenInfo getTokenInfo(String token) {
         try {
             String tokenKey = RedisKeyConstants.getTokenKey(token);
-            String tokenJson = redisTemplate.opsForValue().get(tokenKey);
+            Map<Object, Object> fields = redisTemplate.opsForHash().entries(tokenKey);
             
-            if (tokenJson == null || tokenJson.isEmpty()) {
+            if (fields.isEmpty() || fields.get(FIELD_USERNAME) == null) {
                 log.debug(String.format(LogMessages.Token.NOT_FOUND_OR_EXPIRED, token));
                 return null;
             }
 
-            TokenInfo tokenInfo = objectMapper.readValue(tokenJson, TokenInfo.class);
-            
-            // 检查是否超过刷新间隔未刷新（30分钟无刷新则失效）
+            // 检查是否超过刷新间隔未刷新（30分钟无刷新则失效），在解析角色/权限之前完成
             LocalDateTime now = LocalDateTime.now();
-            LocalDateTime lastRefresh = tokenInfo.getLastRefreshTime();
+            LocalDateTime lastRefresh = toLocalDateTime(fields.get(FIELD_LAST_REFRESH_TIME));
             if (lastRefresh != null && now.isAfter(lastRefresh.plusSeconds(refreshInterval))) {
                 log.info(String.format(LogMessages.Token.EXPIRED_NO_REFRESH, 
                     token, lastRefresh, now));
@@ -247,38 +289,66 @@ public class TokenService {
                 return null;
             }
 
-            return tokenInfo;
+            return toTokenInfo(fields, lastRefresh);
         } catch (Exception e) {
             log.error(String.format(LogMessages.Token.GET_INFO_FAILED, e.getMessage()), e);
             return null;
         }
     }
 
+    /**
+     * 优先从本地缓存获取Token信息，未命中时从Redis加载并缓存
+     * 用于每个请求都要执行的Token校验
+     */
+    public TokenInfo getCachedTokenInfo(String token) {
+        TokenInfo tokenInfo = tokenLocalCache.get(token);
+        if (tokenInfo != null) {
+            // 本地缓存同样需要遵守刷新间隔限制，超过时交给getTokenInfo处理
+            LocalDateTime lastRefresh = tokenInfo.getLastRefreshTime();
+            if (lastRefresh == null || !LocalDateTime.now().isAfter(lastRefresh.plusSeconds(refreshInterval))) {
+                return tokenInfo;
+            }
+        }
+        // 先取失效版本再读Redis，读取期间Token被删除时不写入本地缓存
+        long version = tokenLocalCache.version();
+        tokenInfo = getTokenInfo(token);
+        if (tokenInfo != null) {
+            tokenLocalCache.put(token, tokenInfo, version);
+        }
+        return tokenInfo;
+    }
+
     /**
      * 刷新Token（更新最后刷新时间）
      */
     public boolean refreshToken(String token) {
         try {
-            TokenInfo tokenInfo = getTokenInfo(token);
-            if (tokenInfo == null) {
+            // 一次往返更新最后刷新时间和过期时间，并续期用户token映射及反向索引
+            @SuppressWarnings("unchecked")
+            List<String> result = (List<String>) redisTemplate.execute(REFRESH_SCRIPT,
+                    List.of(RedisKeyConstants.getTokenKey(token), RedisKeyConstants.getTokenIndexKey(token),
+                            RedisKeyConstants.Token.ONLINE_TOKENS, RedisKeyConstants.Token.ONLINE_USERNAMES),
+                    String.valueOf(System.currentTimeMillis()),
+                    String.valueOf(expireTime),
+                    String.valueOf(refreshInterval * 1000),
+                    RedisKeyConstants.Token.USER_TOKEN,
+                    RedisKeyConstants.Token.USER_TOKENS,
+                    token);
+
+            String status = result == null || result.isEmpty() ? "missing" : result.get(0);
+            if ("stale".equals(status)) {
+                log.info(String.format(LogMessages.Token.EXPIRED_NO_REFRESH,
+                    token, toLocalDateTime(result.get(1)), LocalDateTime.now()));
+                deleteToken(token);
+                return false;
+            }
+            if (!"ok".equals(status)) {
                 log.warn(String.format(LogMessages.Token.REFRESH_FAILED_NOT_FOUND, token));
                 return false;
             }
+            tokenLocalCache.invalidate(List.of(token));
 
-            // 更新最后刷新时间和过期时间
-            tokenInfo.setLastRefreshTime(LocalDateTime.now());
-            tokenInfo.setExpireTime(LocalDateTime.now().plusSeconds(expireTime));
-
-            // 重新保存到Redis
-            String tokenJson = objectMapper.writeValueAsString(tokenInfo);
-            String tokenKey = RedisKeyConstants.getTokenKey(token);
-            redisTemplate.opsForValue().set(tokenKey, tokenJson, expireTime, TimeUnit.SECONDS);
-
-            // 更新用户token映射的过期时间
-            String userTokenKey = RedisKeyConstants.getUserTokenKey(tokenInfo.getUsername());
-            redisTemplate.expire(userTokenKey, expireTime, TimeUnit.SECONDS);
-
-            log.info(String.format(LogMessages.Token.REFRESH_SUCCESS, token, tokenInfo.getUsername()));
+            log.info(String.format(LogMessages.Token.REFRESH_SUCCESS, token, result.get(1)));
             return true;
         } catch (Exception e) {
             log.error(String.format(LogMessages.Token.REFRESH_FAILED, e.getMessage()), e);
@@ -288,75 +358,19 @@ public class TokenService {
 
     /**
      * 删除Token
+     * 通过token_index反向索引只删除该Token拥有的映射，不扫描整个键空间
      */
     public boolean deleteToken(String token) {
         try {
-            TokenInfo tokenInfo = getTokenInfo(token);
-            if (tokenInfo != null) {
-                // 删除token
-                String tokenKey = RedisKeyConstants.getTokenKey(token);
-                redisTemplate.delete(tokenKey);
-                
-                // 删除用户token映射
-                String userTokenKey = RedisKeyConstants.getUserTokenKey(tokenInfo.getUsername());
-                redisTemplate.delete(userTokenKey);
-                
-                // 查找并删除浏览器相关的映射（通过遍历所有浏览器token来查找）
-                // 注意：这里使用keys操作，在生产环境中如果数据量大，可以考虑使用其他方式
-                try {
-                    Set<String> browserKeys = redisTemplate.keys(RedisKeyConstants.Token.BROWSER_TOKEN + "*");
-                    if (browserKeys != null) {
-                        for (String browserKey : browserKeys) {
-                            String browserToken = redisTemplate.opsForValue().get(browserKey);
-                            if (token.equals(browserToken)) {
-                                redisTemplate.delete(browserKey);
-                                log.debug(String.format(LogMessages.Token.DELETE_BROWSER_MAPPING, browserKey));
-                            }
-                        }
-                    }
-                    
-                    // 删除用户浏览器token映射
-                    String userBrowserPattern = RedisKeyConstants.Token.USER_BROWSER + tokenInfo.getUserId() + ":*";
-                    Set<String> userBrowserKeys = redisTemplate.keys(userBrowserPattern);
-                    if (userBrowserKeys != null) {
-                        for (String userBrowserKey : userBrowserKeys) {
-                            String userBrowserToken = redisTemplate.opsForValue().get(userBrowserKey);
-                            if (token.equals(userBrowserToken)) {
-                                redisTemplate.delete(userBrowserKey);
-                                log.debug(String.format(LogMessages.Token.DELETE_USER_BROWSER_MAPPING, userBrowserKey));
-                            }
-                        }
-                    }
-
-                    // 查找并删除IP相关的映射
-                    Set<String> ipUserKeys = redisTemplate.keys(RedisKeyConstants.Token.IP_USER_TOKEN + "*");
-                    if (ipUserKeys != null) {
-                        for (String ipUserKey : ipUserKeys) {
-                            String ipUserToken = redisTemplate.opsForValue().get(ipUserKey);
-                            if (token.equals(ipUserToken)) {
-                                redisTemplate.delete(ipUserKey);
-                                
-                                // 从IP用户列表中移除该用户
-                                // 从key中提取IP和userId: ip_user_token:{ip}:{userId}
-                                String[] parts = ipUserKey.substring(RedisKeyConstants.Token.IP_USER_TOKEN.length()).split(":", 2);
-                                if (parts.length == 2) {
-                                    String ip = parts[0];
-                                    String userId = parts[1];
-                                    String ipUsersKey = RedisKeyConstants.getIpUsersKey(ip);
-                                    redisTemplate.opsForSet().remove(ipUsersKey, userId);
-                                    log.debug(String.format(LogMessages.Token.REMOVE_USER_FROM_IP, ip, userId));
-                                }
-                                
-                                log.debug(String.format(LogMessages.Token.DELETE_IP_USER_MAPPING, ipUserKey));
-                            }
-                        }
-                    }
-                } catch (Exception e) {
-                    log.warn(String.format(LogMessages.Token.DELETE_MAPPING_ERROR, e.getMessage()));
-                }
-                
-                log.info(String.format(LogMessages.Token.DELETE_SUCCESS, token, tokenInfo.getUsername()));
+            // 直接读取Token所属用户，不做刷新间隔检查（getTokenInfo在失效时会回调本方法）
+            List<Object> owner = redisTemplate.opsForHash().multiGet(RedisKeyConstants.getTokenKey(token),
+                    List.of(FIELD_USER_ID, FIELD_USERNAME));
+            if (owner.get(0) instanceof String userId) {
+                List<Object> results = unlinkTokens(userId, List.of(token));
+                log.debug(String.format(LogMessages.Token.DELETE_MAPPINGS, token, results.isEmpty() ? 0 : results.get(0)));
+                log.info(String.format(LogMessages.Token.DELETE_SUCCESS, token, owner.get(1)));
             }
+            tokenLocalCache.invalidate(List.of(token));
             return true;
         } catch (Exception e) {
             log.error(String.format(LogMessages.Token.DELETE_FAILED, e.getMessage()), e);
@@ -389,69 +403,360 @@ public class TokenService {
     public void deleteAllUserTokens(String userId, String username) {
         try {
             log.info(String.format(LogMessages.Token.DELETE_ALL_START, userId, username));
-            
-            // 1. 删除用户的主要token
-            String userTokenKey = RedisKeyConstants.getUserTokenKey(username);
-            String mainToken = redisTemplate.opsForValue().get(userTokenKey);
-            if (mainToken != null) {
-                deleteToken(mainToken);
+
+            // 一次往返读取用户的在线token集合和主token
+            byte[] userTokensKey = SERIALIZER.serialize(RedisKeyConstants.getUserTokensKey(userId));
+            byte[] userTokenKey = SERIALIZER.serialize(RedisKeyConstants.getUserTokenKey(username));
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.setCommands().sMembers(userTokensKey);
+                connection.stringCommands().get(userTokenKey);
+                return null;
+            });
+
+            Set<String> tokens = new LinkedHashSet<>();
+            if (results.get(0) instanceof Collection<?> members) {
+                for (Object member : members) {
+                    tokens.add((String) member);
+                }
+            }
+            if (results.get(1) instanceof String mainToken) {
+                tokens.add(mainToken);
             }
 
-            // 2. 删除用户在所有浏览器的token
-            String userBrowserPattern = RedisKeyConstants.Token.USER_BROWSER + userId + ":*";
-            Set<String> userBrowserKeys = redisTemplate.keys(userBrowserPattern);
-            if (userBrowserKeys != null && !userBrowserKeys.isEmpty()) {
-                for (String userBrowserKey : userBrowserKeys) {
-                    String token = redisTemplate.opsForValue().get(userBrowserKey);
-                    if (token != null && !token.equals(mainToken)) {
-                        deleteToken(token);
+            if (!tokens.isEmpty()) {
+                unlinkTokens(userId, tokens);
+                tokenLocalCache.invalidate(tokens);
+                log.debug(String.format(LogMessages.Token.DELETE_USER_TOKENS_COUNT, tokens.size()));
+            }
+
+            log.info(String.format(LogMessages.Token.DELETE_ALL_SUCCESS, userId, username));
+        } catch (Exception e) {
+            log.error(String.format(LogMessages.Token.DELETE_ALL_FAILED, 
+                userId, username, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * 分页查询在线Token，按最后刷新时间倒序
+     * 无关键词时用 ZREVRANGE 取当前页、ZCARD 取总数；有关键词时按用户名前缀（不区分大小写）
+     * 或用户ID精确匹配取候选Token，按最后刷新时间排序后分页。只读取当前页Token的信息。
+     * @param current 页码，从1开始
+     * @param size    每页数量
+     * @param keyword 用户名前缀或用户ID（可为null）
+     */
+    public OnlineTokenPage getOnlineTokens(int current, int size, String keyword) {
+        try {
+            long start = (long) (current - 1) * size;
+            double cutoff = onlineCutoffMillis();
+            if (keyword == null || keyword.trim().isEmpty()) {
+                List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    connection.zSetCommands().zRemRangeByScore(ONLINE_TOKENS_KEY, Double.NEGATIVE_INFINITY, cutoff);
+                    connection.zSetCommands().zCard(ONLINE_TOKENS_KEY);
+                    connection.zSetCommands().zRevRange(ONLINE_TOKENS_KEY, start, start + size - 1);
+                    return null;
+                });
+                List<String> tokens = new ArrayList<>();
+                if (results.get(2) instanceof Collection<?> members) {
+                    for (Object member : members) {
+                        tokens.add((String) member);
                     }
-                    redisTemplate.delete(userBrowserKey);
                 }
-                log.debug(String.format(LogMessages.Token.DELETE_USER_BROWSER_COUNT, userBrowserKeys.size()));
+                return new OnlineTokenPage((Long) results.get(1), readOnlineTokens(tokens));
             }
 
-            // 3. 删除用户在所有IP的token
-            Set<String> ipUserKeys = redisTemplate.keys(RedisKeyConstants.Token.IP_USER_TOKEN + "*");
-            if (ipUserKeys != null && !ipUserKeys.isEmpty()) {
-                for (String ipUserKey : ipUserKeys) {
-                    // 检查key格式: ip_user_token:{ip}:{userId}
-                    String keySuffix = ipUserKey.substring(RedisKeyConstants.Token.IP_USER_TOKEN.length());
-                    String[] parts = keySuffix.split(":", 2);
-                    if (parts.length == 2 && parts[1].equals(userId)) {
-                        String token = redisTemplate.opsForValue().get(ipUserKey);
-                        if (token != null && !token.equals(mainToken)) {
-                            deleteToken(token);
-                        }
-                        redisTemplate.delete(ipUserKey);
-                        
-                        // 从IP用户列表中移除该用户
-                        String ip = parts[0];
-                        String ipUsersKey = RedisKeyConstants.getIpUsersKey(ip);
-                        redisTemplate.opsForSet().remove(ipUsersKey, userId);
-                        log.debug(String.format(LogMessages.Token.REMOVE_USER_FROM_IP, ip, userId));
+            List<String> matched = findOnlineTokens(keyword.trim(), cutoff);
+            int from = (int) Math.min(start, matched.size());
+            int to = (int) Math.min(start + size, matched.size());
+            return new OnlineTokenPage(matched.size(), readOnlineTokens(matched.subList(from, to)));
+        } catch (Exception e) {
+            log.error(String.format(LogMessages.Token.ONLINE_LIST_FAILED, e.getMessage()), e);
+            throw new RuntimeException("查询在线Token失败", e);
+        }
+    }
+
+    /**
+     * 查找匹配关键词的在线Token，按最后刷新时间倒序
+     * 用户名前缀索引中对应Token已不在线的条目顺便删除
+     */
+    private List<String> findOnlineTokens(String keyword, double cutoff) {
+        byte[] min = SERIALIZER.serialize(asciiLowerCase(keyword));
+        byte[] max = Arrays.copyOf(min, min.length + 1);
+        max[min.length] = (byte) 0xFF;
+        byte[] userTokensKey = SERIALIZER.serialize(RedisKeyConstants.getUserTokensKey(keyword));
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.zSetCommands().zRangeByLex(ONLINE_USERNAMES_KEY, Range.closed(min, max),
+                    Limit.limit().count(keywordMaxMatches));
+            connection.setCommands().sMembers(userTokensKey);
+            return null;
+        });
+
+        // token -> 用户名前缀索引中的member（按用户ID匹配的Token为null）
+        Map<String, String> candidates = new LinkedHashMap<>();
+        if (results.get(0) instanceof Collection<?> members) {
+            for (Object member : members) {
+                String value = (String) member;
+                candidates.put(value.substring(value.lastIndexOf(':') + 1), value);
+            }
+        }
+        if (results.get(1) instanceof Collection<?> members) {
+            for (Object member : members) {
+                candidates.putIfAbsent((String) member, null);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> tokens = new ArrayList<>(candidates.keySet());
+        List<Double> scores = getOnlineScores(tokens);
+        List<String> staleMembers = new ArrayList<>();
+        List<Map.Entry<String, Double>> online = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            Double score = scores.get(i);
+            if (score != null && score > cutoff) {
+                online.add(Map.entry(tokens.get(i), score));
+            } else if (score == null && candidates.get(tokens.get(i)) != null) {
+                staleMembers.add(candidates.get(tokens.get(i)));
+            }
+        }
+        if (!staleMembers.isEmpty()) {
+            redisTemplate.opsForZSet().remove(RedisKeyConstants.Token.ONLINE_USERNAMES, staleMembers.toArray());
+        }
+
+        online.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+        List<String> result = new ArrayList<>(online.size());
+        for (Map.Entry<String, Double> entry : online) {
+            result.add(entry.getKey());
+        }
+        return result;
+    }
+
+    /**
+     * 在一次管道往返中读取多个Token在在线有序集合中的分值（最后刷新时间），不在集合中为null
+     */
+    private List<Double> getOnlineScores(List<String> tokens) {
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String token : tokens) {
+                connection.zSetCommands().zScore(ONLINE_TOKENS_KEY, SERIALIZER.serialize(token));
+            }
+            return null;
+        });
+        List<Double> scores = new ArrayList<>(results.size());
+        for (Object result : results) {
+            scores.add(result instanceof Number number ? number.doubleValue() : null);
+        }
+        return scores;
+    }
+
+    /**
+     * 在一次管道往返中读取一页Token的信息，Token信息已过期的从在线有序集合中删除
+     */
+    private List<TokenInfo> readOnlineTokens(List<String> tokens) throws IOException {
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String token : tokens) {
+                connection.hashCommands().hMGet(SERIALIZER.serialize(RedisKeyConstants.getTokenKey(token)), ONLINE_FIELDS);
+            }
+            return null;
+        });
+
+        List<TokenInfo> records = new ArrayList<>(tokens.size());
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            List<?> values = (List<?>) results.get(i);
+            if (values == null || values.get(1) == null) {
+                missing.add(tokens.get(i));
+                continue;
+            }
+            Map<Object, Object> fields = new HashMap<>();
+            for (int f = 0; f < ONLINE_FIELDS.length; f++) {
+                fields.put(SERIALIZER.deserialize(ONLINE_FIELDS[f]), values.get(f));
+            }
+            records.add(toTokenInfo(fields, toLocalDateTime(fields.get(FIELD_LAST_REFRESH_TIME))));
+        }
+        if (!missing.isEmpty()) {
+            redisTemplate.opsForZSet().remove(RedisKeyConstants.Token.ONLINE_TOKENS, missing.toArray());
+        }
+        return records;
+    }
+
+    /**
+     * 定期清理在线Token索引：按分值删除超过刷新间隔或过期时间未刷新的Token，
+     * 并用 ZSCAN 分批检查用户名前缀索引，删除对应Token已不在线的条目
+     */
+    @Scheduled(fixedDelayString = "${token.online.purge-interval-ms:300000}")
+    public void purgeOnlineIndex() {
+        try {
+            Long removed = redisTemplate.opsForZSet().removeRangeByScore(RedisKeyConstants.Token.ONLINE_TOKENS,
+                    Double.NEGATIVE_INFINITY, onlineCutoffMillis());
+            long expired = removed != null ? removed : 0;
+            long staleCount = 0;
+            List<String> batch = new ArrayList<>(ONLINE_PURGE_BATCH);
+            try (Cursor<ZSetOperations.TypedTuple<String>> cursor = redisTemplate.opsForZSet().scan(
+                    RedisKeyConstants.Token.ONLINE_USERNAMES, ScanOptions.scanOptions().count(ONLINE_PURGE_BATCH).build())) {
+                while (cursor.hasNext()) {
+                    batch.add(cursor.next().getValue());
+                    if (batch.size() >= ONLINE_PURGE_BATCH) {
+                        staleCount += removeStaleUsernameMembers(batch);
+                        batch.clear();
                     }
                 }
             }
+            staleCount += removeStaleUsernameMembers(batch);
+            if (expired > 0 || staleCount > 0) {
+                log.info(String.format(LogMessages.Token.ONLINE_INDEX_PURGED, expired, staleCount));
+            }
+        } catch (Exception e) {
+            log.warn(String.format(LogMessages.Token.ONLINE_INDEX_PURGE_FAILED, e.getMessage()));
+        }
+    }
+
+    /**
+     * 删除对应Token已不在在线有序集合中的用户名前缀索引条目
+     * @return 删除的条目数
+     */
+    private long removeStaleUsernameMembers(List<String> members) {
+        if (members.isEmpty()) {
+            return 0;
+        }
+        List<String> tokens = new ArrayList<>(members.size());
+        for (String member : members) {
+            tokens.add(member.substring(member.lastIndexOf(':') + 1));
+        }
+        List<Double> scores = getOnlineScores(tokens);
+        List<String> stale = new ArrayList<>();
+        for (int i = 0; i < members.size(); i++) {
+            if (scores.get(i) == null) {
+                stale.add(members.get(i));
+            }
+        }
+        if (!stale.isEmpty()) {
+            redisTemplate.opsForZSet().remove(RedisKeyConstants.Token.ONLINE_USERNAMES, stale.toArray());
+        }
+        return stale.size();
+    }
+
+    /**
+     * 在线Token的最早有效刷新时间（毫秒），更早刷新的Token已超过刷新间隔或已过期
+     */
+    private double onlineCutoffMillis() {
+        return System.currentTimeMillis() - Math.min(refreshInterval, expireTime) * 1000.0;
+    }
+
+    /**
+     * 只转换ASCII大写字母，与Lua脚本中 string.lower 的行为一致
+     */
+    private static String asciiLowerCase(String value) {
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] >= 'A' && chars[i] <= 'Z') {
+                chars[i] = (char) (chars[i] + ('a' - 'A'));
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 在一次管道往返中删除多个Token及其反向索引记录的映射
+     * 管道中按SHA执行脚本（EVALSHA），不重复发送脚本源码；Redis中没有该脚本时加载后重试一次
+     * @param userId Token所属用户ID
+     * @param tokens Token列表
+     * @return 每个Token删除的映射数量
+     */
+    private List<Object> unlinkTokens(String userId, Collection<String> tokens) {
+        try {
+            return evalUnlinkPipelined(userId, tokens);
+        } catch (RuntimeException e) {
+            if (!isNoScriptError(e)) {
+                throw e;
+            }
+            // Redis重启或执行过SCRIPT FLUSH后脚本缓存为空；脚本只删除存在的键，重试不会重复删除
+            byte[] script = SERIALIZER.serialize(UNLINK_SCRIPT.getScriptAsString());
+            redisTemplate.execute((RedisCallback<String>) connection -> connection.scriptingCommands().scriptLoad(script));
+            return evalUnlinkPipelined(userId, tokens);
+        }
+    }
+
+    private List<Object> evalUnlinkPipelined(String userId, Collection<String> tokens) {
+        String sha = UNLINK_SCRIPT.getSha1();
+        byte[] userTokensKey = SERIALIZER.serialize(RedisKeyConstants.getUserTokensKey(userId));
+        byte[] userIdArg = SERIALIZER.serialize(userId);
+        byte[] ipUsersPrefix = SERIALIZER.serialize(RedisKeyConstants.Token.IP_USERS);
+        return redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String token : tokens) {
+                connection.scriptingCommands().evalSha(sha, ReturnType.INTEGER, 5,
+                        SERIALIZER.serialize(RedisKeyConstants.getTokenKey(token)),
+                        SERIALIZER.serialize(RedisKeyConstants.getTokenIndexKey(token)),
+                        userTokensKey,
+                        ONLINE_TOKENS_KEY,
+                        ONLINE_USERNAMES_KEY,
+                        SERIALIZER.serialize(token),
+                        userIdArg,
+                        ipUsersPrefix);
+            }
+            return null;
+        });
+    }
 
-            // 4. 删除浏览器token映射中该用户的token
-            Set<String> browserKeys = redisTemplate.keys(RedisKeyConstants.Token.BROWSER_TOKEN + "*");
-            if (browserKeys != null && !browserKeys.isEmpty()) {
-                for (String browserKey : browserKeys) {
-                    String browserToken = redisTemplate.opsForValue().get(browserKey);
-                    if (browserToken != null) {
-                        TokenInfo tokenInfo = getTokenInfo(browserToken);
-                        if (tokenInfo != null && (tokenInfo.getUserId().equals(userId) || tokenInfo.getUsername().equals(username))) {
-                            deleteToken(browserToken);
-                        }
+    /**
+     * 异常（含管道中各命令的异常）是否为脚本不存在（NOSCRIPT）
+     */
+    private static boolean isNoScriptError(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().contains("NOSCRIPT")) {
+                return true;
+            }
+            if (cause instanceof RedisPipelineException pipelineException) {
+                for (Object result : pipelineException.getPipelineResult()) {
+                    if (result instanceof Throwable failure && isNoScriptError(failure)) {
+                        return true;
                     }
                 }
             }
+        }
+        return false;
+    }
 
-            log.info(String.format(LogMessages.Token.DELETE_ALL_SUCCESS, userId, username));
-        } catch (Exception e) {
-            log.error(String.format(LogMessages.Token.DELETE_ALL_FAILED, 
-                userId, username, e.getMessage()), e);
+    /**
+     * 将Token信息Hash转换为TokenInfo
+     */
+    private TokenInfo toTokenInfo(Map<Object, Object> fields, LocalDateTime lastRefresh) throws IOException {
+        TokenInfo tokenInfo = new TokenInfo();
+        tokenInfo.setToken((String) fields.get(FIELD_TOKEN));
+        tokenInfo.setUsername((String) fields.get(FIELD_USERNAME));
+        tokenInfo.setUserId((String) fields.get(FIELD_USER_ID));
+        tokenInfo.setRoles(readStringList(fields.get(FIELD_ROLES)));
+        tokenInfo.setPermissions(readStringList(fields.get(FIELD_PERMISSIONS)));
+        tokenInfo.setCreateTime(toLocalDateTime(fields.get(FIELD_CREATE_TIME)));
+        tokenInfo.setLastRefreshTime(lastRefresh);
+        tokenInfo.setExpireTime(toLocalDateTime(fields.get(FIELD_EXPIRE_TIME)));
+        return tokenInfo;
+    }
+
+    private List<String> readStringList(Object json) throws IOException {
+        return json == null ? List.of() : objectMapper.readValue((String) json, STRING_LIST);
+    }
+
+    /**
+     * 毫秒时间戳转换为本地时间
+     */
+    private static LocalDateTime toLocalDateTime(Object millis) {
+        if (millis == null) {
+            return null;
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong((String) millis)), ZoneId.systemDefault());
+    }
+
+    /**
+     * 读取classpath下的Lua脚本
+     */
+    private static String loadScript(String path) {
+        try {
+            return new String(new ClassPathResource(path).getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("加载Redis脚本失败: " + path, e);
         }
     }
 
@@ -1,19 +1,15 @@
 package com.example.demo.infrastructure.config;
 
 import com.example.demo.application.log.OperationLogService;
-import com.example.demo.common.constants.RedisKeyConstants;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.annotation.Order;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
 
-import java.util.Set;
-
 /**
  * 日志缓存初始化器
- * 系统启动时自动清除Redis中的日志列表缓存，确保数据一致性
+ * 系统启动时递增日志列表缓存代数，使旧缓存失效，确保数据一致性
  */
 @Slf4j
 @Component
@@ -21,28 +17,16 @@ import java.util.Set;
 public class LogCacheInitializer implements CommandLineRunner {
 
     @Autowired
-    private RedisTemplate<String, String> redisTemplate;
+    private OperationLogService operationLogService;
 
     @Override
     public void run(String... args) throws Exception {
         log.info("========================================");
         log.info("开始清除日志列表缓存...");
         try {
-            // 清除所有日志列表缓存
-            Set<String> keys = redisTemplate.keys(RedisKeyConstants.Log.LOG_LIST + "*");
-            if (keys != null && !keys.isEmpty()) {
-                long deletedCount = redisTemplate.delete(keys);
-                log.info("已清除 {} 个日志列表缓存key", deletedCount);
-            } else {
-                log.info("没有找到需要清除的日志列表缓存");
-            }
-            
-            // 可选：清除日志详情缓存（如果需要）
-            // Set<String> detailKeys = redisTemplate.keys(RedisKeyConstants.Log.LOG_DETAIL + "*");
-            // if (detailKeys != null && !detailKeys.isEmpty()) {
-            //     long deletedDetailCount = redisTemplate.delete(detailKeys);
-            //     log.info("已清除 {} 个日志详情缓存key", deletedDetailCount);
-            // }
+            // 递增缓存代数即可使所有日志列表缓存失效，旧缓存按TTL自然过期
+            operationLogService.invalidateListCache();
+            // 日志详情缓存按TTL自然过期；如需立即清除，使用 RedisKeyScanner.unlink(RedisKeyConstants.Log.LOG_DETAIL + "*")，不要使用KEYS
             
             log.info("日志列表缓存清除完成");
         } catch (Exception e) {
@@ -0,0 +1,31 @@
+package com.example.demo.infrastructure.config;
+
+import com.example.demo.infrastructure.logging.LogPlanRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 接口日志计划初始化器
+ * 系统启动时为所有接口方法生成日志计划，避免首次请求时计算
+ */
+@Slf4j
+@Component
+@Order(3)  // 设置执行顺序，在缓存初始化之后执行
+public class LogPlanInitializer implements CommandLineRunner {
+
+    @Autowired
+    private LogPlanRegistry logPlanRegistry;
+
+    @Override
+    public void run(String... args) throws Exception {
+        try {
+            logPlanRegistry.preload();
+        } catch (Exception e) {
+            log.error(String.format("接口日志计划初始化失败: %s", e.getMessage()), e);
+            // 不抛出异常，首次调用时再生成
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.infrastructure.config;
 
+import com.example.demo.infrastructure.security.LoginUser;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.ibatis.reflection.MetaObject;
 import org.springframework.security.core.Authentication;
@@ -18,19 +19,16 @@ public class MetaObjectHandler implements com.baomidou.mybatisplus.core.handlers
 
     /**
      * 获取当前登录用户ID
+     * 通过Token认证的请求直接取认证主体中的用户ID；其他认证方式（如测试中的模拟用户）返回用户名
      */
     private String getCurrentUserId() {
         try {
+            LoginUser loginUser = LoginUser.current();
+            if (loginUser != null && loginUser.getUserId() != null) {
+                return loginUser.getUserId();
+            }
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             if (authentication != null && authentication.isAuthenticated() && !"anonymousUser".equals(authentication.getName())) {
-                // 尝试从认证信息中获取用户ID
-                // 如果认证信息中包含用户ID，则返回；否则返回用户名
-                Object principal = authentication.getPrincipal();
-                if (principal instanceof org.springframework.security.core.userdetails.UserDetails) {
-                    // 如果实现了UserDetails，可以尝试获取用户ID
-                    // 这里暂时返回用户名，实际项目中应该从UserDetails中获取用户ID
-                    return authentication.getName();
-                }
                 return authentication.getName();
             }
         } catch (Exception e) {
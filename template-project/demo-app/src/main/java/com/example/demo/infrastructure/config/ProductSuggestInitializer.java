@@ -0,0 +1,22 @@
+package com.example.demo.infrastructure.config;
+
+import com.example.demo.application.product.ProductSuggestService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * 商品联想索引初始化器
+ * 系统启动时在后台线程中从数据库构建索引，不阻塞启动；构建完成前联想查询只返回启动后新增或修改的条目
+ */
+@Component
+public class ProductSuggestInitializer implements CommandLineRunner {
+
+    @Autowired
+    private ProductSuggestService productSuggestService;
+
+    @Override
+    public void run(String... args) {
+        productSuggestService.rebuildAsync();
+    }
+}
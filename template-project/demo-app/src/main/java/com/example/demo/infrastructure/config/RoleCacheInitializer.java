@@ -3,6 +3,7 @@ package com.example.demo.infrastructure.config;
 import com.example.demo.infrastructure.cache.RoleCacheService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Component;
 /**
  * 角色缓存初始化器
  * 系统启动时自动将角色权限信息缓存到Redis
+ * 默认在后台线程中预热，不阻塞启动；预热完成前未缓存的用户在访问时按需加载
  */
 @Slf4j
 @Component
@@ -19,8 +21,24 @@ public class RoleCacheInitializer implements CommandLineRunner {
     @Autowired
     private RoleCacheService roleCacheService;
 
+    /**
+     * 是否在后台线程中预热（false 时阻塞启动直到预热完成）
+     */
+    @Value("${role.cache.warmup.async:true}")
+    private boolean async;
+
     @Override
     public void run(String... args) throws Exception {
+        if (async) {
+            Thread warmup = new Thread(this::warmUp, "role-cache-warmup");
+            warmup.setDaemon(true);
+            warmup.start();
+        } else {
+            warmUp();
+        }
+    }
+
+    private void warmUp() {
         log.info("========================================");
         log.info("开始初始化角色权限缓存...");
         try {
@@ -33,4 +51,3 @@ public class RoleCacheInitializer implements CommandLineRunner {
         log.info("========================================");
     }
 }
-
@@ -1,9 +1,7 @@
 package com.example.demo.infrastructure.config;
 
-import com.example.demo.domain.security.entity.SecurityPermission;
-import com.example.demo.domain.security.entity.SecurityWhitelist;
+import com.example.demo.infrastructure.security.DynamicAuthorizationManager;
 import com.example.demo.infrastructure.security.JwtAuthenticationFilter;
-import com.example.demo.application.role.SecurityConfigService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -19,14 +17,10 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
-import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.security.web.firewall.HttpFirewall;
 import org.springframework.security.web.firewall.StrictHttpFirewall;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 @Slf4j
 @Configuration
 @EnableWebSecurity
@@ -40,7 +34,7 @@ public class SecurityConfig {
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
     @Autowired
-    private SecurityConfigService securityConfigService;
+    private DynamicAuthorizationManager dynamicAuthorizationManager;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
@@ -97,81 +91,8 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .cors(cors -> {}) // 启用CORS，使用WebConfig中的配置
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-            .authorizeHttpRequests(auth -> {
-                // 从数据库加载白名单配置
-                List<SecurityWhitelist> whitelists = securityConfigService.getAllEnabledWhitelist();
-                if (!whitelists.isEmpty()) {
-                    log.info(String.format("配置白名单，共 %d 条规则", whitelists.size()));
-                    AntPathRequestMatcher[] whitelistMatchers = whitelists.stream()
-                            .filter(w -> w.getPathPattern() != null && !w.getPathPattern().trim().isEmpty())
-                            .map(w -> {
-                                String method = w.getHttpMethod();
-                                if (method != null && !method.trim().isEmpty()) {
-                                    return new AntPathRequestMatcher(w.getPathPattern().trim(), method.trim().toUpperCase());
-                                } else {
-                                    return new AntPathRequestMatcher(w.getPathPattern().trim());
-                                }
-                            })
-                            .collect(Collectors.toList())
-                            .toArray(new AntPathRequestMatcher[0]);
-                    
-                    if (whitelistMatchers.length > 0) {
-                        auth.requestMatchers(whitelistMatchers).permitAll();
-                    }
-                } else {
-                    // 如果没有数据库配置，使用默认白名单（兜底）
-                    log.warn("未找到白名单配置，使用默认白名单");
-                    auth.requestMatchers(
-                        new AntPathRequestMatcher("/api/auth/login"),
-                        new AntPathRequestMatcher("/api/auth/register"),
-                        new AntPathRequestMatcher("/error"),
-                        new AntPathRequestMatcher("/favicon.ico")
-                    ).permitAll();
-                }
-
-                // 从数据库加载权限配置
-                List<SecurityPermission> permissions = securityConfigService.getAllEnabledPermissions();
-                if (!permissions.isEmpty()) {
-                    log.info(String.format("配置权限规则，共 %d 条规则", permissions.size()));
-                    for (SecurityPermission permission : permissions) {
-                        if (permission.getPathPattern() == null || permission.getPathPattern().trim().isEmpty()) {
-                            continue;
-                        }
-                        
-                        AntPathRequestMatcher matcher;
-                        String method = permission.getHttpMethod();
-                        if (method != null && !method.trim().isEmpty()) {
-                            matcher = new AntPathRequestMatcher(permission.getPathPattern().trim(), method.trim().toUpperCase());
-                        } else {
-                            matcher = new AntPathRequestMatcher(permission.getPathPattern().trim());
-                        }
-
-                        String requiredRoles = permission.getRequiredRoles();
-                        if (requiredRoles != null && !requiredRoles.trim().isEmpty()) {
-                            String[] roles = requiredRoles.split(",");
-                            if (roles.length == 1) {
-                                auth.requestMatchers(matcher).hasRole(roles[0].trim());
-                            } else {
-                                String[] trimmedRoles = new String[roles.length];
-                                for (int i = 0; i < roles.length; i++) {
-                                    trimmedRoles[i] = roles[i].trim();
-                                }
-                                auth.requestMatchers(matcher).hasAnyRole(trimmedRoles);
-                            }
-                        } else {
-                            auth.requestMatchers(matcher).authenticated();
-                        }
-                    }
-                } else {
-                    // 如果没有数据库配置，使用默认权限规则（兜底）
-                    log.warn("未找到权限配置，使用默认权限规则");
-                    auth.requestMatchers("/api/admin/**").hasAnyRole("ADMIN", "SUPER_ADMIN");
-                    auth.requestMatchers("/api/users/**").hasAnyRole("USER", "ADMIN", "SUPER_ADMIN");
-                }
-
-                // 其他接口需要认证
-                auth.anyRequest().authenticated();
-            })
+            // 授权规则来自数据库（白名单 + 权限配置），由动态授权管理器按请求匹配，配置变更无需重启
+            .authorizeHttpRequests(auth -> auth.anyRequest().access(dynamicAuthorizationManager))
             // 配置认证提供者
             .authenticationProvider(authenticationProvider())
             // 添加JWT过滤器
@@ -0,0 +1,268 @@
+package com.example.demo.infrastructure.logging;
+
+import java.util.Arrays;
+
+/**
+ * 访问日志事件构建器
+ * 直接把字段编码为UTF-8 JSON写入固定大小的字节缓冲区，不创建中间Map和字符串。
+ * 超出容量的字段被截断或丢弃，输出仍是合法JSON，并带有 "truncated":true 标记。
+ * 非线程安全，按线程复用：每次 {@link #begin()} 重置缓冲区。
+ */
+public final class AccessLogEvent {
+
+    /** 为结束引号、截断标记和结束括号预留的字节数 */
+    private static final int RESERVED = 24;
+
+    private static final byte[] TRUNCATED_FIELD = ",\"truncated\":true".getBytes();
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    private final byte[] buffer;
+
+    private final int limit;
+
+    private int length;
+
+    private boolean truncated;
+
+    private boolean firstField;
+
+    public AccessLogEvent(int capacity) {
+        this.buffer = new byte[Math.max(capacity, RESERVED * 4)];
+        this.limit = buffer.length - RESERVED;
+    }
+
+    /**
+     * 开始一个新事件
+     */
+    public AccessLogEvent begin() {
+        length = 0;
+        truncated = false;
+        firstField = true;
+        buffer[length++] = '{';
+        return this;
+    }
+
+    /**
+     * 写入字符串字段，值为null时写入JSON null
+     */
+    public AccessLogEvent field(String name, String value) {
+        if (!startField(name, value == null ? 4 : 2)) {
+            return this;
+        }
+        if (value == null) {
+            writeAscii("null");
+        } else {
+            writeString(value);
+        }
+        return this;
+    }
+
+    /**
+     * 写入已编码的JSON值字段（原样写入，不转义），值为null时写入JSON null
+     * 剩余空间放不下完整的值时改为按字符串截断写入，输出仍是合法JSON
+     * @param json 合法的JSON值
+     */
+    public AccessLogEvent rawField(String name, String json) {
+        if (json == null) {
+            return field(name, (String) null);
+        }
+        int bytes = utf8Length(json);
+        if (truncated || length + name.length() + 4 + bytes > limit) {
+            return field(name, json);
+        }
+        startField(name, bytes);
+        writeUtf8(json);
+        return this;
+    }
+
+    /**
+     * 写入数值字段
+     */
+    public AccessLogEvent field(String name, long value) {
+        if (startField(name, 20)) {
+            writeAscii(Long.toString(value));
+        }
+        return this;
+    }
+
+    /**
+     * 写入布尔字段
+     */
+    public AccessLogEvent field(String name, boolean value) {
+        if (startField(name, 5)) {
+            writeAscii(value ? "true" : "false");
+        }
+        return this;
+    }
+
+    /**
+     * 是否有字段被截断或丢弃
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * 结束事件并返回编码后的字节
+     */
+    public byte[] end() {
+        if (truncated) {
+            System.arraycopy(TRUNCATED_FIELD, 0, buffer, length, TRUNCATED_FIELD.length);
+            length += TRUNCATED_FIELD.length;
+        }
+        buffer[length++] = '}';
+        return Arrays.copyOf(buffer, length);
+    }
+
+    /**
+     * 写入字段名，剩余空间不足以写入字段名和最短的值时丢弃该字段
+     * @param minValueBytes 值至少需要的字节数
+     */
+    private boolean startField(String name, int minValueBytes) {
+        if (truncated) {
+            return false;
+        }
+        // 字段名为ASCII：逗号 + 两个引号 + 冒号
+        if (length + name.length() + 4 + minValueBytes > limit) {
+            truncated = true;
+            return false;
+        }
+        if (!firstField) {
+            buffer[length++] = ',';
+        }
+        firstField = false;
+        buffer[length++] = '"';
+        writeAscii(name);
+        buffer[length++] = '"';
+        buffer[length++] = ':';
+        return true;
+    }
+
+    private void writeAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            buffer[length++] = (byte) value.charAt(i);
+        }
+    }
+
+    /**
+     * 字符串按UTF-8编码后的字节数（孤立的代理字符按替换字符计算）
+     */
+    private static int utf8Length(String value) {
+        int bytes = 0;
+        int n = value.length();
+        for (int i = 0; i < n; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(value.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 不转义地写入UTF-8编码的字符串，调用前已确认空间足够
+     */
+    private void writeUtf8(String value) {
+        int n = value.length();
+        for (int i = 0; i < n; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer[length++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[length++] = (byte) (0xC0 | (c >> 6));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[length++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[length++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                char out = Character.isSurrogate(c) ? '\uFFFD' : c;
+                buffer[length++] = (byte) (0xE0 | (out >> 12));
+                buffer[length++] = (byte) (0x80 | ((out >> 6) & 0x3F));
+                buffer[length++] = (byte) (0x80 | (out & 0x3F));
+            }
+        }
+    }
+
+    /**
+     * 写入转义后的字符串，空间不足时截断（结束引号使用预留空间）
+     */
+    private void writeString(String value) {
+        buffer[length++] = '"';
+        int i = 0;
+        int n = value.length();
+        while (i < n) {
+            char c = value.charAt(i);
+            int needed;
+            if (c == '"' || c == '\\' || c == '\n' || c == '\r' || c == '\t') {
+                needed = 2;
+            } else if (c < 0x20) {
+                needed = 6;
+            } else if (c < 0x80) {
+                needed = 1;
+            } else if (c < 0x800) {
+                needed = 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(value.charAt(i + 1))) {
+                needed = 4;
+            } else {
+                needed = 3;
+            }
+            if (length + needed > limit) {
+                truncated = true;
+                break;
+            }
+
+            switch (c) {
+                case '"' -> writeEscape('"');
+                case '\\' -> writeEscape('\\');
+                case '\n' -> writeEscape('n');
+                case '\r' -> writeEscape('r');
+                case '\t' -> writeEscape('t');
+                default -> {
+                    if (c < 0x20) {
+                        buffer[length++] = '\\';
+                        buffer[length++] = 'u';
+                        buffer[length++] = '0';
+                        buffer[length++] = '0';
+                        buffer[length++] = HEX[c >> 4];
+                        buffer[length++] = HEX[c & 0xF];
+                    } else if (needed == 1) {
+                        buffer[length++] = (byte) c;
+                    } else if (needed == 2) {
+                        buffer[length++] = (byte) (0xC0 | (c >> 6));
+                        buffer[length++] = (byte) (0x80 | (c & 0x3F));
+                    } else if (needed == 4) {
+                        int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                        buffer[length++] = (byte) (0xF0 | (codePoint >> 18));
+                        buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                        buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                        buffer[length++] = (byte) (0x80 | (codePoint & 0x3F));
+                    } else {
+                        // 孤立的代理字符按替换字符输出
+                        char out = Character.isSurrogate(c) ? '\uFFFD' : c;
+                        buffer[length++] = (byte) (0xE0 | (out >> 12));
+                        buffer[length++] = (byte) (0x80 | ((out >> 6) & 0x3F));
+                        buffer[length++] = (byte) (0x80 | (out & 0x3F));
+                    }
+                }
+            }
+            i++;
+        }
+        buffer[length++] = '"';
+    }
+
+    private void writeEscape(char c) {
+        buffer[length++] = '\\';
+        buffer[length++] = (byte) c;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.demo.infrastructure.logging;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 访问日志异步输出
+ * 请求线程只把编码好的事件入队，后台线程通过名为 ACCESS_LOG 的Logger输出（可在日志配置中单独路由）。
+ * 队列满时直接丢弃，不阻塞请求线程。
+ */
+@Slf4j
+@Component
+public class AccessLogWriter {
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("ACCESS_LOG");
+
+    private static final int DRAIN_BATCH = 256;
+
+    @Value("${api-log.queue-capacity:10000}")
+    private int capacity;
+
+    private BlockingQueue<byte[]> queue;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        running = true;
+        writer = new Thread(this::writeLoop, "access-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<byte[]> batch = new ArrayList<>(DRAIN_BATCH);
+        while (queue.drainTo(batch, DRAIN_BATCH) > 0) {
+            write(batch);
+        }
+    }
+
+    /**
+     * 提交一条编码好的访问日志事件，队列满时丢弃
+     */
+    public void submit(byte[] event) {
+        if (!queue.offer(event)) {
+            long dropped = droppedCount.incrementAndGet();
+            // 避免队列持续满时刷屏，每丢弃1000条记录一次
+            if (dropped == 1 || dropped % 1000 == 0) {
+                log.warn(String.format("访问日志队列已满，丢弃日志: 已丢弃 %d 条, 队列容量 %d", dropped, capacity));
+            }
+        }
+    }
+
+    private void writeLoop() {
+        List<byte[]> batch = new ArrayList<>(DRAIN_BATCH);
+        while (running) {
+            try {
+                byte[] first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, DRAIN_BATCH - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("访问日志输出线程异常: " + e.getMessage(), e);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<byte[]> batch) {
+        for (byte[] event : batch) {
+            ACCESS_LOG.info(new String(event, StandardCharsets.UTF_8));
+        }
+        batch.clear();
+    }
+}
@@ -1,14 +1,15 @@
 package com.example.demo.infrastructure.logging;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -16,12 +17,14 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import jakarta.servlet.http.HttpServletRequest;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * API 日志切面
- * 记录所有接口的访问信息，包括参数、用户信息、线程信息等
+ * 以结构化JSON输出访问日志：成功请求按比例采样，异常和慢请求全部记录。
+ * 请求线程上只在需要记录时才收集参数，事件直接编码到按线程复用的有界缓冲区，由 {@link AccessLogWriter} 异步输出。
+ * 参数和响应通过 {@link BoundedJsonWriter} 序列化，超过上限即停止，敏感字段已脱敏；
+ * 作为JSON值（而不是转义后的字符串）写入事件，日志消费方无需二次解析。
  */
 @Aspect
 @Component
@@ -29,15 +32,37 @@ public class ApiLogAspect {
 
     private static final Logger log = LoggerFactory.getLogger(ApiLogAspect.class);
 
-    private final ObjectMapper objectMapper;
+    @Autowired
+    private AccessLogWriter accessLogWriter;
 
-    /**
-     * 注入配置好的 ObjectMapper Bean，确保支持 Java 8 时间类型
-     */
     @Autowired
-    public ApiLogAspect(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
-    }
+    private BoundedJsonWriter boundedJsonWriter;
+
+    @Autowired
+    private LogPlanRegistry logPlanRegistry;
+
+    @Value("${api-log.enabled:true}")
+    private boolean enabled;
+
+    @Value("${api-log.success-sample-rate:0.01}")
+    private double successSampleRate;
+
+    @Value("${api-log.slow-threshold-ms:1000}")
+    private long slowThresholdMs;
+
+    @Value("${api-log.include-params:true}")
+    private boolean includeParams;
+
+    @Value("${api-log.include-response:false}")
+    private boolean includeResponse;
+
+    @Value("${api-log.max-event-bytes:4096}")
+    private int maxEventBytes;
+
+    @Value("${api-log.max-payload-bytes:1024}")
+    private int maxPayloadBytes;
+
+    private final ThreadLocal<AccessLogEvent> events = ThreadLocal.withInitial(() -> new AccessLogEvent(maxEventBytes));
 
     /**
      * 定义切点：拦截所有 Controller 的方法
@@ -51,243 +76,113 @@ public class ApiLogAspect {
      */
     @Around("controllerPointcut()")
     public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
-        long startTime = System.currentTimeMillis();
-        
-        // 获取请求信息
+        if (!enabled) {
+            return joinPoint.proceed();
+        }
+        long startNanos = System.nanoTime();
+
         ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
         HttpServletRequest request = attributes != null ? attributes.getRequest() : null;
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication != null && authentication.isAuthenticated() ? authentication.getName() : "anonymous";
 
-        // 获取方法信息
-        String className = joinPoint.getTarget().getClass().getSimpleName();
-        String methodName = joinPoint.getSignature().getName();
-        Object[] args = joinPoint.getArgs();
-        
-        // 获取线程信息
-        Thread currentThread = Thread.currentThread();
-        String threadName = currentThread.getName();
-        @SuppressWarnings("deprecation")
-        long threadId = currentThread.getId(); // Java 8 中使用，Java 9+ 已废弃
-        
-        // 获取用户信息
-        Map<String, Object> userInfo = getUserInfo();
-        
-        // 获取请求参数（过滤敏感信息）
-        Map<String, Object> params = getRequestParams(joinPoint, args);
-        
-        // 构建日志信息
-        Map<String, Object> logInfo = new HashMap<>();
-        logInfo.put("请求时间", System.currentTimeMillis());
-        logInfo.put("接口路径", request != null ? request.getRequestURI() : "未知");
-        logInfo.put("请求方法", request != null ? request.getMethod() : "未知");
-        logInfo.put("IP地址", getClientIp(request));
-        logInfo.put("类名", className);
-        logInfo.put("方法名", methodName);
-        logInfo.put("请求参数", params);
-        logInfo.put("用户信息", userInfo);
-        logInfo.put("线程信息", Map.of(
-            "线程ID", threadId,
-            "线程名称", threadName,
-            "线程组", currentThread.getThreadGroup().getName(),
-            "是否守护线程", currentThread.isDaemon(),
-            "线程优先级", currentThread.getPriority()
-        ));
-        
         // 设置 MDC（用于日志追踪）
-        MDC.put("userId", userInfo.get("用户名") != null ? userInfo.get("用户名").toString() : "anonymous");
-        MDC.put("threadId", String.valueOf(threadId));
+        MDC.put("userId", username);
         MDC.put("requestURI", request != null ? request.getRequestURI() : "");
-        
+
         Object result = null;
-        
+        Throwable error = null;
         try {
-            // 记录请求日志
-            String requestParams = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(logInfo.get("请求参数"));
-            log.info(String.format("========== API 请求开始 ==========%n请求路径: %s%n请求方法: %s%n类名.方法名: %s.%s%n客户端IP: %s%n用户信息: %s%n线程信息: 线程ID=%d, 线程名=%s%n请求参数: %s", 
-                logInfo.get("接口路径"),
-                logInfo.get("请求方法"),
-                logInfo.get("类名"),
-                logInfo.get("方法名"),
-                logInfo.get("IP地址"),
-                logInfo.get("用户信息"),
-                threadId,
-                threadName,
-                requestParams
-            ));
-            
-            // 执行方法
             result = joinPoint.proceed();
-            
-            // 计算执行时间
-            long endTime = System.currentTimeMillis();
-            long duration = endTime - startTime;
-            
-            // 构建响应日志
-            Map<String, Object> responseLog = new HashMap<>();
-            responseLog.put("执行时间(ms)", duration);
-            responseLog.put("响应状态", "成功");
-            
-            // 记录响应结果（如果结果不太大）
-            if (result != null) {
-                String resultStr = objectMapper.writeValueAsString(result);
-                if (resultStr.length() < 1000) {
-                    responseLog.put("响应结果", result);
-                } else {
-                    responseLog.put("响应结果", "响应数据过大，已省略");
-                }
-            }
-            
-            // 记录响应日志
-            String responseResult = responseLog.get("响应结果") != null ? 
-                (responseLog.get("响应结果").toString().length() < 500 ? 
-                    responseLog.get("响应结果").toString() : "响应数据过大，已省略") : "无";
-            log.info(String.format("========== API 请求结束 ==========%n执行耗时: %dms%n响应状态: %s%n响应结果: %s", 
-                duration,
-                responseLog.get("响应状态"),
-                responseResult
-            ));
-            
             return result;
-            
         } catch (Throwable e) {
-            long endTime = System.currentTimeMillis();
-            long duration = endTime - startTime;
-            
-            // 构建异常日志
-            Map<String, Object> errorLog = new HashMap<>();
-            errorLog.put("执行时间(ms)", duration);
-            errorLog.put("响应状态", "异常");
-            errorLog.put("异常类型", e.getClass().getName());
-            errorLog.put("异常消息", e.getMessage());
-            
-            // 记录异常日志
-            log.error(String.format("========== API 请求异常 ==========%n执行耗时: %dms%n异常类型: %s%n异常消息: %s%n", 
-                duration,
-                errorLog.get("异常类型"),
-                errorLog.get("异常消息")
-            ), e);
-            
+            error = e;
             throw e;
         } finally {
+            long durationMicros = (System.nanoTime() - startNanos) / 1000;
+            try {
+                record(joinPoint, request, username, durationMicros, result, error);
+            } catch (Exception e) {
+                log.warn(String.format("记录访问日志失败: %s", e.getMessage()), e);
+            }
             // 清理 MDC
             MDC.clear();
         }
     }
 
     /**
-     * 获取请求参数
+     * 按采样规则记录访问日志：异常和慢请求全部记录，成功请求按 success-sample-rate 采样
      */
-    private Map<String, Object> getRequestParams(ProceedingJoinPoint joinPoint, Object[] args) {
-        Map<String, Object> params = new HashMap<>();
-        
-        if (args == null || args.length == 0) {
-            return params;
+    private void record(ProceedingJoinPoint joinPoint, HttpServletRequest request, String username,
+                        long durationMicros, Object result, Throwable error) {
+        boolean slow = durationMicros >= slowThresholdMs * 1000;
+        if (error == null && !slow && !sampleSuccess()) {
+            return;
         }
-        
-        try {
-            // 获取方法参数名（需要编译时保留参数名，或使用反射获取）
-            String[] paramNames = getParameterNames(joinPoint);
-            
-            for (int i = 0; i < args.length; i++) {
-                String paramName = i < paramNames.length ? paramNames[i] : "arg" + i;
-                Object arg = args[i];
-                
-                // 过滤敏感信息
-                if (arg != null && isSensitiveParam(paramName)) {
-                    params.put(paramName, "***敏感信息已隐藏***");
-                } else {
-                    params.put(paramName, serializeObject(arg));
-                }
-            }
-        } catch (Exception e) {
-            log.warn(String.format("获取请求参数失败: %s", e.getMessage()), e);
-            params.put("error", "参数解析失败: " + e.getMessage());
-        }
-        
-        return params;
-    }
 
-    /**
-     * 序列化对象
-     */
-    private Object serializeObject(Object obj) {
-        if (obj == null) {
-            return null;
+        LogPlanRegistry.LogPlan plan = logPlanRegistry.getPlan(((MethodSignature) joinPoint.getSignature()).getMethod());
+        AccessLogEvent event = events.get().begin()
+                .field("ts", System.currentTimeMillis())
+                .field("method", request != null ? request.getMethod() : null)
+                .field("uri", request != null ? request.getRequestURI() : null)
+                .field("handler", plan.handler())
+                .field("status", error == null ? "ok" : "error")
+                .field("durationUs", durationMicros)
+                .field("slow", slow)
+                .field("ip", getClientIp(request))
+                .field("user", username)
+                .field("thread", Thread.currentThread().getName());
+        if (error != null) {
+            event.field("error", error.getClass().getName())
+                    .field("message", error.getMessage());
         }
-        
-        // 简单类型直接返回
-        if (obj instanceof String || obj instanceof Number || obj instanceof Boolean) {
-            return obj;
+        if (includeParams) {
+            event.rawField("params", getRequestParams(plan, joinPoint.getArgs()));
         }
-        
-        try {
-            // 对于复杂对象，尝试 JSON 序列化
-            return objectMapper.readValue(objectMapper.writeValueAsString(obj), Object.class);
-        } catch (Exception e) {
-            // 如果序列化失败，返回对象的 toString
-            return obj.toString();
+        if (includeResponse && error == null && result != null) {
+            event.rawField("response", boundedJsonWriter.writeJsonValue(result, maxPayloadBytes));
         }
+        accessLogWriter.submit(event.end());
     }
 
-    /**
-     * 判断是否为敏感参数
-     */
-    private boolean isSensitiveParam(String paramName) {
-        String lowerName = paramName.toLowerCase();
-        return lowerName.contains("password") 
-            || lowerName.contains("pwd") 
-            || lowerName.contains("secret")
-            || lowerName.contains("token")
-            || lowerName.contains("key");
+    private boolean sampleSuccess() {
+        if (successSampleRate <= 0) {
+            return false;
+        }
+        return successSampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < successSampleRate;
     }
 
     /**
-     * 获取方法参数名
+     * 获取请求参数（JSON对象，敏感参数已隐藏，每个参数最多 max-payload-bytes 字节，截断的参数输出为字符串）
+     * 参数名和需要跳过/隐藏的参数取自预先生成的日志计划
      */
-    private String[] getParameterNames(ProceedingJoinPoint joinPoint) {
-        try {
-            // 使用 Spring 的参数名解析
-            org.springframework.core.DefaultParameterNameDiscoverer discoverer = 
-                new org.springframework.core.DefaultParameterNameDiscoverer();
-            java.lang.reflect.Method method = ((org.aspectj.lang.reflect.MethodSignature) joinPoint.getSignature()).getMethod();
-            @SuppressWarnings("null")
-            String[] paramNames = discoverer.getParameterNames(method);
-            return paramNames != null ? paramNames : new String[0];
-        } catch (Exception e) {
-            log.debug(String.format("获取参数名失败，使用默认命名: %s", e.getMessage()), e);
-            // 如果获取失败，使用默认命名
-            Object[] args = joinPoint.getArgs();
-            String[] defaultNames = new String[args != null ? args.length : 0];
-            for (int i = 0; i < defaultNames.length; i++) {
-                defaultNames[i] = "arg" + i;
-            }
-            return defaultNames;
+    private String getRequestParams(LogPlanRegistry.LogPlan plan, Object[] args) {
+        if (args == null || args.length == 0) {
+            return "{}";
         }
-    }
 
-    /**
-     * 获取用户信息
-     */
-    private Map<String, Object> getUserInfo() {
-        Map<String, Object> userInfo = new HashMap<>();
-        
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            
-            if (authentication != null && authentication.isAuthenticated()) {
-                userInfo.put("用户名", authentication.getName());
-                userInfo.put("是否已认证", authentication.isAuthenticated());
-                userInfo.put("权限列表", authentication.getAuthorities().toString());
-                userInfo.put("认证详情", authentication.getDetails() != null ? authentication.getDetails().toString() : null);
+        String[] paramNames = plan.paramNames();
+        StringBuilder params = new StringBuilder(128).append('{');
+        boolean first = true;
+        for (int i = 0; i < args.length && i < paramNames.length; i++) {
+            if (plan.skipped()[i]) {
+                continue;
+            }
+            if (!first) {
+                params.append(',');
+            }
+            first = false;
+            params.append('"').append(paramNames[i]).append("\":");
+
+            // 过滤敏感信息
+            Object arg = args[i];
+            if (arg != null && plan.redacted()[i]) {
+                params.append('"').append(BoundedJsonWriter.MASK).append('"');
             } else {
-                userInfo.put("用户名", "匿名用户");
-                userInfo.put("是否已认证", false);
+                params.append(boundedJsonWriter.writeJsonValue(arg, maxPayloadBytes));
             }
-        } catch (Exception e) {
-            log.warn(String.format("获取用户信息失败: %s", e.getMessage()), e);
-            userInfo.put("error", "获取用户信息失败: " + e.getMessage());
         }
-        
-        return userInfo;
+        return params.append('}').toString();
     }
 
     /**
@@ -0,0 +1,276 @@
+package com.example.demo.infrastructure.logging;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.type.MapType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 有界JSON序列化器（用于日志中的请求参数和响应结果）
+ * 输出达到上限后立即中止序列化并标记为已截断，CPU和内存开销由上限决定，而不是由对象大小决定
+ * （最多多序列化一个生成器缓冲区）。
+ * 对象属性和Map键为敏感名称（密码、密钥、token等）的值输出为 "***"。
+ */
+@Component
+public class BoundedJsonWriter {
+
+    /** 截断标记 */
+    public static final String TRUNCATED_MARK = "...(已截断)";
+
+    /** 敏感值替换文本 */
+    public static final String MASK = "***";
+
+    private static final String[] SENSITIVE_WORDS = {"password", "passwd", "pwd", "secret", "token", "credential"};
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 基于应用配置的 ObjectMapper 复制一份，并注册敏感字段脱敏
+     */
+    @Autowired
+    public BoundedJsonWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper.copy()
+                .registerModule(new SimpleModule("log-redaction").setSerializerModifier(new RedactingSerializerModifier()));
+    }
+
+    /**
+     * 判断名称是否为敏感名称（不区分大小写）：包含 password、pwd、secret、token 等，或以 key 结尾（如 apiKey）
+     */
+    public static boolean isSensitiveName(String name) {
+        if (name == null) {
+            return false;
+        }
+        String lowerName = name.toLowerCase(Locale.ROOT);
+        for (String word : SENSITIVE_WORDS) {
+            if (lowerName.contains(word)) {
+                return true;
+            }
+        }
+        return lowerName.endsWith("key");
+    }
+
+    /**
+     * 序列化为JSON，超过 maxBytes 字节（UTF-8）时截断并追加 {@link #TRUNCATED_MARK}
+     * 对象无法序列化时只输出类名：toString 不经过脱敏，且开销不受上限控制
+     */
+    public String write(Object value, int maxBytes) {
+        return write(value, maxBytes, false);
+    }
+
+    /**
+     * 序列化为合法的JSON值，用于嵌入结构化日志；截断或无法序列化时整体输出为JSON字符串
+     */
+    public String writeJsonValue(Object value, int maxBytes) {
+        return write(value, maxBytes, true);
+    }
+
+    private String write(Object value, int maxBytes, boolean quoteIncomplete) {
+        LimitedOutputStream out = new LimitedOutputStream(maxBytes);
+        // 关闭生成器时不关闭输出流，也不在截断后补写未闭合的括号
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)) {
+            objectMapper.writeValue(generator, value);
+            generator.flush();
+        } catch (Exception e) {
+            String text = isLimitReached(e) ? out.toUtf8String() + TRUNCATED_MARK
+                    : "[unserializable " + value.getClass().getName() + "]";
+            return quoteIncomplete ? quote(text) : text;
+        }
+        return out.toUtf8String();
+    }
+
+    /**
+     * 输出为JSON字符串（文本长度已受上限控制）
+     */
+    private String quote(String text) {
+        try {
+            return objectMapper.writeValueAsString(text);
+        } catch (IOException e) {
+            return "\"" + TRUNCATED_MARK + "\"";
+        }
+    }
+
+    private static boolean isLimitReached(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof LimitReachedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 达到输出上限时抛出，用于中止序列化（不收集堆栈）
+     */
+    private static final class LimitReachedException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    /**
+     * 有上限的字节输出流，写满后在UTF-8字符边界处截断并抛出 {@link LimitReachedException}
+     */
+    private static final class LimitedOutputStream extends OutputStream {
+
+        private final int limit;
+
+        private byte[] buffer;
+
+        private int count;
+
+        LimitedOutputStream(int limit) {
+            this.limit = Math.max(0, limit);
+            this.buffer = new byte[Math.min(this.limit, 512)];
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count >= limit) {
+                cutAtCharBoundary();
+                throw new LimitReachedException();
+            }
+            ensureCapacity(count + 1);
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            int n = Math.min(len, limit - count);
+            ensureCapacity(count + n);
+            System.arraycopy(b, off, buffer, count, n);
+            count += n;
+            if (n < len) {
+                cutAtCharBoundary();
+                throw new LimitReachedException();
+            }
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.min(limit, Math.max(capacity, buffer.length * 2)));
+            }
+        }
+
+        /**
+         * 去掉末尾不完整的多字节字符
+         */
+        private void cutAtCharBoundary() {
+            int i = count - 1;
+            while (i >= 0 && (buffer[i] & 0xC0) == 0x80) {
+                i--;
+            }
+            if (i >= 0) {
+                int lead = buffer[i] & 0xFF;
+                int expected = lead >= 0xF0 ? 4 : lead >= 0xE0 ? 3 : lead >= 0xC0 ? 2 : 1;
+                if (count - i < expected) {
+                    count = i;
+                }
+            }
+        }
+
+        /**
+         * 按UTF-8解码已写入的内容
+         */
+        String toUtf8String() {
+            return new String(buffer, 0, count, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * 敏感字段脱敏：替换对象中敏感属性的写出器，并为Map使用按键脱敏的序列化器
+     */
+    private static final class RedactingSerializerModifier extends BeanSerializerModifier {
+
+        @Override
+        public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+                                                         List<BeanPropertyWriter> beanProperties) {
+            List<BeanPropertyWriter> properties = new ArrayList<>(beanProperties.size());
+            for (BeanPropertyWriter property : beanProperties) {
+                properties.add(isSensitiveName(property.getName()) ? new RedactedPropertyWriter(property) : property);
+            }
+            return properties;
+        }
+
+        @Override
+        public JsonSerializer<?> modifyMapSerializer(SerializationConfig config, MapType valueType,
+                                                     BeanDescription beanDesc, JsonSerializer<?> serializer) {
+            return new RedactingMapSerializer();
+        }
+    }
+
+    /**
+     * 敏感属性写出器：非null值输出为 {@link #MASK}
+     */
+    private static final class RedactedPropertyWriter extends BeanPropertyWriter {
+
+        private static final long serialVersionUID = 1L;
+
+        RedactedPropertyWriter(BeanPropertyWriter base) {
+            super(base);
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+            if (get(bean) == null) {
+                super.serializeAsField(bean, gen, prov);
+                return;
+            }
+            gen.writeFieldName(_name);
+            gen.writeString(MASK);
+        }
+    }
+
+    /**
+     * 按键脱敏的Map序列化器
+     */
+    @SuppressWarnings("rawtypes")
+    private static final class RedactingMapSerializer extends StdSerializer<Map> {
+
+        private static final long serialVersionUID = 1L;
+
+        RedactingMapSerializer() {
+            super(Map.class);
+        }
+
+        @Override
+        public void serialize(Map map, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(map);
+            for (Object entryObject : map.entrySet()) {
+                Map.Entry<?, ?> entry = (Map.Entry<?, ?>) entryObject;
+                String key = String.valueOf(entry.getKey());
+                gen.writeFieldName(key);
+                if (entry.getValue() != null && isSensitiveName(key)) {
+                    gen.writeString(MASK);
+                } else {
+                    provider.defaultSerializeValue(entry.getValue(), gen);
+                }
+            }
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.demo.infrastructure.logging;
+
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 接口日志计划注册表
+ * 每个 Controller 方法的参数名、需跳过/脱敏的参数、模块和操作类型只在启动时（或首次调用时）计算一次，
+ * 日志切面按 Method 直接取用，请求路径上不再反射获取参数名或做字符串匹配。
+ * 参数对象内部的敏感字段由 {@link BoundedJsonWriter} 的序列化器按类型脱敏（Jackson按类型缓存序列化器）。
+ */
+@Slf4j
+@Component
+public class LogPlanRegistry {
+
+    /**
+     * 单个接口方法的日志计划（不可变）
+     * @param handler 类名.方法名
+     * @param paramNames 参数名，无法获取时为 argN
+     * @param skipped 不记录的参数（请求、响应、上传文件等框架对象）
+     * @param redacted 整个值需要隐藏的参数（参数名为敏感名称）
+     * @param module 所属模块
+     * @param operationType 操作类型（CREATE/UPDATE/DELETE），无法从映射注解确定时为null
+     * @param operationLogSkipped 是否不记录操作日志（认证、公开、测试接口）
+     */
+    public record LogPlan(String handler, String[] paramNames, boolean[] skipped, boolean[] redacted,
+                          String module, String operationType, boolean operationLogSkipped) {
+    }
+
+    private static final String[] OPERATION_LOG_SKIPPED_PATHS = {
+            "/auth/login", "/auth/register", "/auth/refresh", "/auth/logout", "/public/", "/test/"};
+
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+
+    private final Map<Method, LogPlan> plans = new ConcurrentHashMap<>();
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping requestMappingHandlerMapping;
+
+    /**
+     * 为所有已注册的接口方法预先生成日志计划
+     */
+    public void preload() {
+        for (HandlerMethod handlerMethod : requestMappingHandlerMapping.getHandlerMethods().values()) {
+            getPlan(handlerMethod.getMethod());
+        }
+        log.info("接口日志计划已生成: {} 个", plans.size());
+    }
+
+    /**
+     * 获取方法的日志计划，未预先生成时生成并缓存
+     */
+    public LogPlan getPlan(Method method) {
+        LogPlan plan = plans.get(method);
+        return plan != null ? plan : plans.computeIfAbsent(method, this::buildPlan);
+    }
+
+    private LogPlan buildPlan(Method method) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        String[] discoveredNames = parameterNameDiscoverer.getParameterNames(method);
+        String[] paramNames = new String[parameterTypes.length];
+        boolean[] skipped = new boolean[parameterTypes.length];
+        boolean[] redacted = new boolean[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            paramNames[i] = discoveredNames != null && i < discoveredNames.length ? discoveredNames[i] : "arg" + i;
+            skipped[i] = isFrameworkType(parameterTypes[i]);
+            redacted[i] = BoundedJsonWriter.isSensitiveName(paramNames[i]);
+        }
+
+        Class<?> controllerClass = method.getDeclaringClass();
+        List<String> paths = getMappingPaths(controllerClass, method);
+        return new LogPlan(controllerClass.getSimpleName() + "." + method.getName(), paramNames, skipped, redacted,
+                determineModule(controllerClass.getSimpleName(), paths), determineOperationType(method),
+                isOperationLogSkipped(paths));
+    }
+
+    /**
+     * 框架对象不记录
+     */
+    private boolean isFrameworkType(Class<?> type) {
+        return ServletRequest.class.isAssignableFrom(type)
+                || ServletResponse.class.isAssignableFrom(type)
+                || InputStreamSource.class.isAssignableFrom(type)
+                || Errors.class.isAssignableFrom(type);
+    }
+
+    /**
+     * 类和方法上的映射路径组合
+     */
+    private List<String> getMappingPaths(Class<?> controllerClass, Method method) {
+        RequestMapping classMapping = AnnotatedElementUtils.findMergedAnnotation(controllerClass, RequestMapping.class);
+        RequestMapping methodMapping = AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class);
+        String[] classPaths = classMapping != null && classMapping.path().length > 0 ? classMapping.path() : new String[]{""};
+        String[] methodPaths = methodMapping != null && methodMapping.path().length > 0 ? methodMapping.path() : new String[]{""};
+
+        List<String> paths = new ArrayList<>(classPaths.length * methodPaths.length);
+        for (String classPath : classPaths) {
+            for (String methodPath : methodPaths) {
+                boolean needSlash = !methodPath.isEmpty() && !methodPath.startsWith("/") && !classPath.endsWith("/");
+                paths.add(classPath + (needSlash ? "/" : "") + methodPath);
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * 根据映射注解确定操作类型
+     */
+    private String determineOperationType(Method method) {
+        RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class);
+        if (mapping == null || mapping.method().length != 1) {
+            return null;
+        }
+        RequestMethod requestMethod = mapping.method()[0];
+        if (requestMethod == RequestMethod.POST) {
+            return "CREATE";
+        } else if (requestMethod == RequestMethod.PUT || requestMethod == RequestMethod.PATCH) {
+            return "UPDATE";
+        } else if (requestMethod == RequestMethod.DELETE) {
+            return "DELETE";
+        }
+        return null;
+    }
+
+    /**
+     * 确定模块
+     */
+    private String determineModule(String className, List<String> paths) {
+        if (className.contains("User") || anyPathContains(paths, "/users")) {
+            return "用户管理";
+        } else if (className.contains("Product") && !className.contains("Type")) {
+            return "商品管理";
+        } else if (className.contains("ProductType") || anyPathContains(paths, "/product-types")) {
+            return "商品类型管理";
+        } else if (className.contains("Role")) {
+            return "角色管理";
+        } else if (className.contains("Security") || anyPathContains(paths, "/security")) {
+            return "安全配置";
+        } else {
+            return "其他";
+        }
+    }
+
+    /**
+     * 认证、公开、测试接口不记录操作日志
+     */
+    private boolean isOperationLogSkipped(List<String> paths) {
+        for (String skippedPath : OPERATION_LOG_SKIPPED_PATHS) {
+            if (anyPathContains(paths, skippedPath)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean anyPathContains(List<String> paths, String fragment) {
+        for (String path : paths) {
+            if (path.contains(fragment)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
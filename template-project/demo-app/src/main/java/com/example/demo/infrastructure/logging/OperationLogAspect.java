@@ -1,24 +1,23 @@
 package com.example.demo.infrastructure.logging;
 
-import com.example.demo.application.log.OperationLogService;
-import com.example.demo.application.user.UserService;
 import com.example.demo.domain.log.entity.OperationLog;
-import com.example.demo.domain.user.entity.User;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.demo.infrastructure.security.LoginUser;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -31,18 +30,19 @@ import java.util.Map;
 public class OperationLogAspect {
 
     @Autowired
-    private OperationLogService operationLogService;
+    private OperationLogQueue operationLogQueue;
 
     @Autowired
-    private UserService userService;
+    private BoundedJsonWriter boundedJsonWriter;
 
-    private final ObjectMapper objectMapper;
+    @Autowired
+    private LogPlanRegistry logPlanRegistry;
 
-    public OperationLogAspect() {
-        this.objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
-        objectMapper.disable(com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-    }
+    /**
+     * 请求参数和响应结果的最大字节数，超过时停止序列化并标记为已截断
+     */
+    @Value("${operation-log.max-payload-bytes:2000}")
+    private int maxPayloadBytes;
 
     /**
      * 定义切点：拦截所有 Controller 的增删改方法
@@ -69,42 +69,28 @@ public class OperationLogAspect {
             return joinPoint.proceed();
         }
 
-        // 获取方法信息
-        String className = joinPoint.getTarget().getClass().getSimpleName();
-        String methodName = joinPoint.getSignature().getName();
-        Object[] args = joinPoint.getArgs();
+        // 获取预先生成的日志计划，排除不需要记录的接口
+        LogPlanRegistry.LogPlan plan = logPlanRegistry.getPlan(((MethodSignature) joinPoint.getSignature()).getMethod());
+        if (plan.operationLogSkipped()) {
+            return joinPoint.proceed();
+        }
 
-        // 获取用户信息
+        // 获取用户信息（用户ID取自认证主体，不查询数据库）
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = null;
         String userId = null;
         if (authentication != null && authentication.isAuthenticated() && !"anonymousUser".equals(authentication.getPrincipal())) {
             username = authentication.getName();
-            // 根据username查询userId
-            try {
-                User user = userService.getOne(
-                    new com.baomidou.mybatisplus.core.conditions.query.QueryWrapper<User>()
-                        .eq("username", username));
-                if (user != null) {
-                    userId = user.getId();
-                }
-            } catch (Exception e) {
-                log.warn("获取用户ID失败: " + e.getMessage());
-            }
-        }
-
-        // 排除不需要记录的接口
-        String requestUri = request.getRequestURI();
-        if (shouldSkipLogging(requestUri)) {
-            return joinPoint.proceed();
+            LoginUser loginUser = LoginUser.current();
+            userId = loginUser != null ? loginUser.getUserId() : null;
         }
 
-        // 确定操作类型（根据HTTP方法）
-        String operationType = determineOperationTypeByHttpMethod(request.getMethod());
-        String module = determineModule(className, requestUri);
+        // 确定操作类型（映射注解无法确定时根据HTTP方法）
+        String operationType = plan.operationType() != null
+                ? plan.operationType() : determineOperationTypeByHttpMethod(request.getMethod());
 
         // 获取请求参数
-        String requestParams = getRequestParams(args);
+        String requestParams = getRequestParams(plan, joinPoint.getArgs());
 
         // 执行方法
         Object result = null;
@@ -113,23 +99,16 @@ public class OperationLogAspect {
         try {
             result = joinPoint.proceed();
             if (result != null) {
-                try {
-                    responseResult = objectMapper.writeValueAsString(result);
-                    // 限制响应结果长度，避免过长
-                    if (responseResult.length() > 2000) {
-                        responseResult = responseResult.substring(0, 2000) + "...(已截断)";
-                    }
-                } catch (Exception e) {
-                    responseResult = result.toString();
-                }
+                // 限制响应结果长度，超过上限即停止序列化，不会先序列化整个响应
+                responseResult = boundedJsonWriter.write(result, maxPayloadBytes);
             }
         } catch (Exception e) {
             exception = e;
             throw e;
         } finally {
-            // 记录操作日志（异步记录，避免影响主流程）
+            // 记录操作日志（提交到异步队列，不等待数据库写入）
             try {
-                saveOperationLog(request, className, methodName, username, userId, operationType, module, 
+                saveOperationLog(request, plan.handler(), username, userId, operationType, plan.module(),
                     requestParams, responseResult, exception == null);
             } catch (Exception e) {
                 log.error("保存操作日志失败: " + e.getMessage(), e);
@@ -139,19 +118,6 @@ public class OperationLogAspect {
         return result;
     }
 
-    /**
-     * 判断是否跳过日志记录
-     */
-    private boolean shouldSkipLogging(String requestUri) {
-        // 排除登录、注册、刷新token等接口
-        return requestUri.contains("/auth/login") ||
-               requestUri.contains("/auth/register") ||
-               requestUri.contains("/auth/refresh") ||
-               requestUri.contains("/auth/logout") ||
-               requestUri.contains("/public/") ||
-               requestUri.contains("/test/");
-    }
-
     /**
      * 根据HTTP方法确定操作类型
      */
@@ -167,62 +133,33 @@ public class OperationLogAspect {
         }
     }
 
-    /**
-     * 确定模块
-     */
-    private String determineModule(String className, String requestUri) {
-        if (className.contains("User") || requestUri.contains("/users")) {
-            return "用户管理";
-        } else if (className.contains("Product") && !className.contains("Type")) {
-            return "商品管理";
-        } else if (className.contains("ProductType") || requestUri.contains("/product-types")) {
-            return "商品类型管理";
-        } else if (className.contains("Role")) {
-            return "角色管理";
-        } else if (className.contains("Security") || requestUri.contains("/security")) {
-            return "安全配置";
-        } else {
-            return "其他";
-        }
-    }
-
     /**
      * 获取请求参数
+     * 所有参数一次序列化，总长度受 maxPayloadBytes 限制；参数名为敏感名称时整体隐藏，
+     * 参数对象中的敏感字段（如密码）由 {@link BoundedJsonWriter} 脱敏
      */
-    private String getRequestParams(Object[] args) {
+    private String getRequestParams(LogPlanRegistry.LogPlan plan, Object[] args) {
         if (args == null || args.length == 0) {
             return null;
         }
 
-        try {
-            Map<String, Object> params = new HashMap<>();
-            for (int i = 0; i < args.length; i++) {
-                Object arg = args[i];
-                // 跳过HttpServletRequest等框架对象
-                if (arg instanceof HttpServletRequest || arg instanceof jakarta.servlet.http.HttpServletResponse) {
-                    continue;
-                }
-                // 过滤敏感信息（如密码）
-                if (arg != null && arg.toString().contains("password")) {
-                    params.put("arg" + i, "***敏感信息已隐藏***");
-                } else {
-                    try {
-                        params.put("arg" + i, objectMapper.writeValueAsString(arg));
-                    } catch (Exception e) {
-                        params.put("arg" + i, arg != null ? arg.toString() : "null");
-                    }
-                }
+        String[] paramNames = plan.paramNames();
+        Map<String, Object> params = new LinkedHashMap<>();
+        for (int i = 0; i < args.length && i < paramNames.length; i++) {
+            // 跳过HttpServletRequest等框架对象
+            if (plan.skipped()[i]) {
+                continue;
             }
-            return objectMapper.writeValueAsString(params);
-        } catch (Exception e) {
-            return "参数序列化失败: " + e.getMessage();
+            Object arg = args[i];
+            params.put(paramNames[i], arg != null && plan.redacted()[i] ? BoundedJsonWriter.MASK : arg);
         }
+        return boundedJsonWriter.write(params, maxPayloadBytes);
     }
 
     /**
      * 保存操作日志
      */
-    private void saveOperationLog(HttpServletRequest request, String className, String methodName, 
+    private void saveOperationLog(HttpServletRequest request, String handler,
                                   String username, String userId, String operationType, String module,
                                   String requestParams, String responseResult, boolean success) {
         try {
@@ -231,7 +168,7 @@ public class OperationLogAspect {
             operationLog.setUsername(username);
             operationLog.setOperationType(operationType);
             operationLog.setModule(module);
-            operationLog.setOperationDesc(className + "." + methodName + (success ? " 成功" : " 失败"));
+            operationLog.setOperationDesc(handler + (success ? " 成功" : " 失败"));
             operationLog.setRequestMethod(request.getMethod());
             operationLog.setRequestUrl(request.getRequestURI());
             operationLog.setRequestParams(requestParams);
@@ -240,8 +177,10 @@ public class OperationLogAspect {
             operationLog.setUserAgent(request.getHeader("User-Agent"));
             operationLog.setOperationTime(java.time.LocalDateTime.now());
             operationLog.setCreateDate(java.time.LocalDateTime.now());
+            // 写入线程没有安全上下文，创建人在请求线程中确定
+            operationLog.setCreateUser(userId != null ? userId : (username != null ? username : "system"));
 
-            operationLogService.saveLog(operationLog);
+            operationLogQueue.submit(operationLog);
         } catch (Exception e) {
             log.error("保存操作日志异常: " + e.getMessage(), e);
         }
@@ -0,0 +1,185 @@
+package com.example.demo.infrastructure.logging;
+
+import com.example.demo.application.log.OperationLogService;
+import com.example.demo.domain.log.entity.OperationLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 操作日志异步队列
+ * 请求线程只负责入队，后台线程按批次写入数据库，写接口不再等待日志I/O。
+ * 队列满时按配置的策略处理：DROP 直接丢弃，BLOCK 最多阻塞等待 block-timeout-ms 后丢弃。
+ */
+@Slf4j
+@Component
+public class OperationLogQueue {
+
+    /**
+     * 队列满时的处理策略
+     */
+    public enum OverflowPolicy {
+        /** 直接丢弃新日志 */
+        DROP,
+        /** 阻塞等待一段时间，超时后丢弃 */
+        BLOCK
+    }
+
+    /** 单批最大条数（PostgreSQL单条语句绑定参数上限为65535，每行20个参数） */
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    @Autowired
+    private OperationLogService operationLogService;
+
+    @Value("${operation-log.queue.capacity:10000}")
+    private int capacity;
+
+    @Value("${operation-log.queue.batch-size:200}")
+    private int batchSize;
+
+    @Value("${operation-log.queue.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${operation-log.queue.overflow-policy:DROP}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${operation-log.queue.block-timeout-ms:50}")
+    private long blockTimeoutMs;
+
+    private BlockingQueue<OperationLog> queue;
+
+    private Thread drainer;
+
+    private volatile boolean running;
+
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        batchSize = Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE));
+        queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        running = true;
+        drainer = new Thread(this::drainLoop, "operation-log-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+        log.info(String.format("操作日志异步队列已启动: capacity=%d, batchSize=%d, flushInterval=%dms, policy=%s",
+                capacity, batchSize, flushIntervalMs, overflowPolicy));
+    }
+
+    /**
+     * 停止时写完队列中剩余的日志
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        try {
+            // 等待写入线程结束当前批次（不中断，避免中断正在执行的JDBC调用）
+            drainer.join(flushIntervalMs + TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<OperationLog> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+        }
+        log.info(String.format("操作日志异步队列已停止: %s", getStats()));
+    }
+
+    /**
+     * 提交日志，不等待写入
+     * @return 是否成功入队（false表示已按溢出策略丢弃）
+     */
+    public boolean submit(OperationLog operationLog) {
+        boolean accepted;
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            try {
+                accepted = queue.offer(operationLog, blockTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                accepted = false;
+            }
+        } else {
+            accepted = queue.offer(operationLog);
+        }
+
+        if (accepted) {
+            enqueuedCount.incrementAndGet();
+        } else {
+            long dropped = droppedCount.incrementAndGet();
+            // 避免队列持续满时刷屏，每丢弃1000条记录一次
+            if (dropped == 1 || dropped % 1000 == 0) {
+                log.warn(String.format("操作日志队列已满，丢弃日志: 已丢弃 %d 条, 队列容量 %d", dropped, capacity));
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * 队列统计信息
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("depth", queue.size());
+        stats.put("capacity", capacity);
+        stats.put("overflowPolicy", overflowPolicy.name());
+        stats.put("enqueued", enqueuedCount.get());
+        stats.put("dropped", droppedCount.get());
+        stats.put("written", writtenCount.get());
+        stats.put("failed", failedCount.get());
+        stats.put("batches", batchCount.get());
+        return stats;
+    }
+
+    /**
+     * 后台写入循环：等待第一条日志或刷新间隔到期，然后取出一批写入
+     */
+    private void drainLoop() {
+        List<OperationLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                OperationLog first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("操作日志写入线程异常: " + e.getMessage(), e);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<OperationLog> batch) {
+        try {
+            operationLogService.saveLogs(batch);
+            writtenCount.addAndGet(batch.size());
+            batchCount.incrementAndGet();
+        } catch (Exception e) {
+            failedCount.addAndGet(batch.size());
+            log.error(String.format("批量保存操作日志失败，丢弃 %d 条: %s", batch.size(), e.getMessage()), e);
+        } finally {
+            batch.clear();
+        }
+    }
+}
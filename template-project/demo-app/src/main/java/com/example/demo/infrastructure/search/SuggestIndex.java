@@ -0,0 +1,379 @@
+package com.example.demo.infrastructure.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 输入联想索引
+ * 不可变的稀疏后缀数组：对每个条目的名称和代码，只在词首位置（开头、分隔符之后、字母与数字的交界、
+ * 每个汉字）建立后缀，后缀以 (键序号, 偏移) 打包为 long 并按后缀文本排序存放在一个数组中。
+ * 查询时二分查找第一个不小于关键词的后缀，再顺序读取以关键词开头的后缀，不创建中间字符串。
+ * 变更时重建新版本并整体替换；两次重建之间的少量变更由调用方单独维护，查询时作为额外条目一并排序。
+ */
+public final class SuggestIndex {
+
+    /**
+     * 条目类型
+     */
+    public enum Kind {
+        /** 商品 */
+        PRODUCT,
+        /** 商品类型 */
+        PRODUCT_TYPE
+    }
+
+    /**
+     * 联想条目
+     * @param kind 条目类型
+     * @param id   主键
+     * @param name 名称
+     * @param code 代码
+     */
+    public record Item(Kind kind, String id, String name, String code) {
+    }
+
+    /** 匹配等级：名称或代码与关键词完全相同 */
+    private static final int RANK_EXACT = 0;
+
+    /** 匹配等级：名称或代码以关键词开头 */
+    private static final int RANK_PREFIX = 1;
+
+    /** 匹配等级：名称或代码中某个词以关键词开头 */
+    private static final int RANK_WORD = 2;
+
+    /** 单个键最多建立的后缀数，超长名称只索引前面的词 */
+    private static final int MAX_SUFFIXES_PER_KEY = 32;
+
+    /** 偏移占用的位数 */
+    private static final int OFFSET_BITS = 16;
+
+    private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+
+    private static final long ITEM_MASK = 0xFFFFFFFFL;
+
+    private static final SuggestIndex EMPTY = builder().build();
+
+    private final Item[] items;
+
+    /** 规范化后的键，每个条目的名称和代码各占一个 */
+    private final String[] keys;
+
+    /** 键所属条目的序号 */
+    private final int[] keyItems;
+
+    /** 按后缀文本排序的 (键序号 << 16 | 偏移) */
+    private final long[] suffixes;
+
+    private SuggestIndex(Item[] items, String[] keys, int[] keyItems, long[] suffixes) {
+        this.items = items;
+        this.keys = keys;
+        this.keyItems = keyItems;
+        this.suffixes = suffixes;
+    }
+
+    public static SuggestIndex empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 查询联想条目，按匹配等级、名称长度排序
+     * @param query    关键词
+     * @param limit    最多返回条数
+     * @param maxScan  最多读取的后缀数，限制短关键词的查询耗时
+     * @param excluded 需要跳过的条目（已被调用方的增量变更覆盖），可为null
+     * @param extra    尚未进入索引的条目，逐个匹配后与索引结果一起排序，可为null
+     */
+    public List<Item> suggest(String query, int limit, int maxScan, Predicate<Item> excluded, Collection<Item> extra) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // 每个命中的后缀打包为 (等级, 名称长度, 条目序号) 的排序键，同一条目的多个后缀在输出时去重
+        int start = lowerBound(q);
+        int end = (int) Math.min(suffixes.length, (long) start + Math.max(1, maxScan));
+        long[] hits = new long[end - start];
+        int hitCount = 0;
+        for (int i = start; i < end; i++) {
+            int keyIndex = (int) (suffixes[i] >>> OFFSET_BITS);
+            int offset = (int) (suffixes[i] & OFFSET_MASK);
+            String key = keys[keyIndex];
+            if (!key.startsWith(q, offset)) {
+                break;
+            }
+            int rank = offset > 0 ? RANK_WORD : key.length() == q.length() ? RANK_EXACT : RANK_PREFIX;
+            int itemIndex = keyItems[keyIndex];
+            hits[hitCount++] = sortKey(rank, items[itemIndex].name()) | itemIndex;
+        }
+        Arrays.sort(hits, 0, hitCount);
+
+        List<Candidate> others = new ArrayList<>();
+        if (extra != null) {
+            for (Item item : extra) {
+                int rank = bestRank(normalize(item.name()), normalize(item.code()), q);
+                if (rank >= 0) {
+                    others.add(new Candidate(item, sortKey(rank, item.name())));
+                }
+            }
+            others.sort(Comparator.comparingLong(Candidate::sortKey));
+        }
+
+        List<Item> result = new ArrayList<>(Math.min(limit, hitCount + others.size()));
+        int[] emitted = new int[limit];
+        int emittedCount = 0;
+        int h = 0;
+        int o = 0;
+        while (result.size() < limit && (h < hitCount || o < others.size())) {
+            if (o < others.size() && (h >= hitCount || others.get(o).sortKey() < (hits[h] & ~ITEM_MASK))) {
+                result.add(others.get(o++).item());
+                continue;
+            }
+            int itemIndex = (int) (hits[h++] & ITEM_MASK);
+            if (contains(emitted, emittedCount, itemIndex)) {
+                continue;
+            }
+            Item item = items[itemIndex];
+            if (excluded == null || !excluded.test(item)) {
+                emitted[emittedCount++] = itemIndex;
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 索引中的条目数
+     */
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * 索引中的后缀数
+     */
+    public int suffixCount() {
+        return suffixes.length;
+    }
+
+    /**
+     * 遍历索引中的所有条目
+     */
+    public void forEach(Consumer<Item> consumer) {
+        for (Item item : items) {
+            consumer.accept(item);
+        }
+    }
+
+    /**
+     * 条目名称和代码中较好的匹配等级，都不匹配时返回-1
+     */
+    private static int bestRank(String nameKey, String codeKey, String q) {
+        int nameRank = rankKey(nameKey, q);
+        int codeRank = rankKey(codeKey, q);
+        if (nameRank < 0 || codeRank < 0) {
+            return Math.max(nameRank, codeRank);
+        }
+        return Math.min(nameRank, codeRank);
+    }
+
+    private static int rankKey(String key, String q) {
+        if (key.isEmpty()) {
+            return -1;
+        }
+        if (key.equals(q)) {
+            return RANK_EXACT;
+        }
+        if (key.startsWith(q)) {
+            return RANK_PREFIX;
+        }
+        // 与构建时一致：开头占一个后缀名额
+        int count = 1;
+        for (int i = 1; i < key.length() && count < MAX_SUFFIXES_PER_KEY; i++) {
+            if (isWordStart(key, i)) {
+                count++;
+                if (key.startsWith(q, i)) {
+                    return RANK_WORD;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 排序键：等级占高位，其次是名称长度（不超过16位），低32位留给条目序号
+     */
+    private static long sortKey(int rank, String name) {
+        return ((long) rank << 48) | ((long) Math.min(length(name), 0xFFFF) << 32);
+    }
+
+    /**
+     * 同一条目最多输出一次；已输出的条目不超过 limit 个，线性查找即可
+     */
+    private static boolean contains(int[] emitted, int count, int itemIndex) {
+        for (int i = 0; i < count; i++) {
+            if (emitted[i] == itemIndex) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    /**
+     * 第一个不小于关键词的后缀位置
+     */
+    private int lowerBound(String q) {
+        int low = 0;
+        int high = suffixes.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareSuffix(suffixes[mid], q) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int compareSuffix(long suffix, String q) {
+        String key = keys[(int) (suffix >>> OFFSET_BITS)];
+        return compare(key, (int) (suffix & OFFSET_MASK), q, 0);
+    }
+
+    /**
+     * 比较两个字符串从指定偏移开始的后缀
+     */
+    private static int compare(String a, int aOffset, String b, int bOffset) {
+        int aLength = a.length() - aOffset;
+        int bLength = b.length() - bOffset;
+        int n = Math.min(aLength, bLength);
+        for (int i = 0; i < n; i++) {
+            char x = a.charAt(aOffset + i);
+            char y = b.charAt(bOffset + i);
+            if (x != y) {
+                return x - y;
+            }
+        }
+        return aLength - bLength;
+    }
+
+    /**
+     * 位置 i 是否为词首：分隔符之后的字母或数字、字母与数字的交界、汉字
+     */
+    private static boolean isWordStart(String key, int i) {
+        char c = key.charAt(i);
+        if (!Character.isLetterOrDigit(c)) {
+            return false;
+        }
+        if (Character.UnicodeScript.of(c) == Character.UnicodeScript.HAN) {
+            return true;
+        }
+        char prev = key.charAt(i - 1);
+        if (!Character.isLetterOrDigit(prev) || Character.UnicodeScript.of(prev) == Character.UnicodeScript.HAN) {
+            return true;
+        }
+        return Character.isDigit(c) != Character.isDigit(prev);
+    }
+
+    /**
+     * 规范化：去除首尾空白并转为小写
+     */
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Candidate(Item item, long sortKey) {
+    }
+
+    /**
+     * 构建器，非线程安全
+     */
+    public static final class Builder {
+
+        private final List<Item> items = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder add(Item item) {
+            if (item != null && item.id() != null) {
+                items.add(item);
+            }
+            return this;
+        }
+
+        public SuggestIndex build() {
+            Item[] itemArray = items.toArray(new Item[0]);
+            String[] keys = new String[itemArray.length * 2];
+            int[] keyItems = new int[keys.length];
+            long[] suffixes = new long[16];
+            int suffixCount = 0;
+            for (int i = 0; i < itemArray.length; i++) {
+                keys[i * 2] = normalize(itemArray[i].name());
+                keys[i * 2 + 1] = normalize(itemArray[i].code());
+                keyItems[i * 2] = i;
+                keyItems[i * 2 + 1] = i;
+            }
+            for (int k = 0; k < keys.length; k++) {
+                String key = keys[k];
+                int count = 0;
+                for (int offset = 0; offset < key.length() && offset <= OFFSET_MASK && count < MAX_SUFFIXES_PER_KEY; offset++) {
+                    if (offset == 0 || isWordStart(key, offset)) {
+                        if (suffixCount == suffixes.length) {
+                            suffixes = Arrays.copyOf(suffixes, suffixes.length * 2);
+                        }
+                        suffixes[suffixCount++] = ((long) k << OFFSET_BITS) | offset;
+                        count++;
+                    }
+                }
+            }
+            suffixes = Arrays.copyOf(suffixes, suffixCount);
+            sort(keys, suffixes);
+            return new SuggestIndex(itemArray, keys, keyItems, suffixes);
+        }
+
+        /**
+         * 按后缀文本对打包的后缀做归并排序（long[] 没有带比较器的排序方法）
+         */
+        private static void sort(String[] keys, long[] suffixes) {
+            long[] buffer = new long[suffixes.length];
+            for (int width = 1; width < suffixes.length; width *= 2) {
+                for (int low = 0; low < suffixes.length - width; low += width * 2) {
+                    int mid = low + width;
+                    int high = Math.min(low + width * 2, suffixes.length);
+                    int i = low;
+                    int j = mid;
+                    int k = low;
+                    while (i < mid && j < high) {
+                        buffer[k++] = compareSuffixes(keys, suffixes[j], suffixes[i]) < 0 ? suffixes[j++] : suffixes[i++];
+                    }
+                    while (i < mid) {
+                        buffer[k++] = suffixes[i++];
+                    }
+                    while (j < high) {
+                        buffer[k++] = suffixes[j++];
+                    }
+                    System.arraycopy(buffer, low, suffixes, low, high - low);
+                }
+            }
+        }
+
+        private static int compareSuffixes(String[] keys, long a, long b) {
+            return compare(keys[(int) (a >>> OFFSET_BITS)], (int) (a & OFFSET_MASK),
+                    keys[(int) (b >>> OFFSET_BITS)], (int) (b & OFFSET_MASK));
+        }
+    }
+}
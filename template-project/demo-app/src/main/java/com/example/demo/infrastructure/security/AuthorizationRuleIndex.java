@@ -0,0 +1,158 @@
+package com.example.demo.infrastructure.security;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 授权规则索引
+ * 按HTTP方法和路径段组织的不可变规则索引，每次配置变更重建一个新版本并整体替换。
+ * 多条规则同时匹配时取最先添加的规则，与Spring Security按顺序匹配的语义一致。
+ */
+public final class AuthorizationRuleIndex {
+
+    /**
+     * 访问控制类型
+     */
+    public enum Access {
+        /** 允许所有人访问 */
+        PERMIT_ALL,
+        /** 需要登录 */
+        AUTHENTICATED,
+        /** 需要任一指定角色 */
+        HAS_ANY_ROLE
+    }
+
+    /**
+     * 授权规则
+     * @param order 规则顺序，越小越优先
+     * @param pattern 路径模式
+     * @param method HTTP方法，null表示所有方法
+     * @param access 访问控制类型
+     * @param authorities 所需权限（ROLE_前缀的角色）
+     */
+    public record Rule(int order, String pattern, String method, Access access, Set<String> authorities) {
+    }
+
+    private static final AuthorizationRuleIndex EMPTY = builder(0).build();
+
+    private final long version;
+
+    private final int size;
+
+    private final Map<String, PathPatternIndex<Rule>> byMethod;
+
+    private final PathPatternIndex<Rule> anyMethod;
+
+    private AuthorizationRuleIndex(long version, int size, Map<String, PathPatternIndex<Rule>> byMethod,
+                                   PathPatternIndex<Rule> anyMethod) {
+        this.version = version;
+        this.size = size;
+        this.byMethod = byMethod;
+        this.anyMethod = anyMethod;
+    }
+
+    /**
+     * 空索引，不匹配任何请求
+     */
+    public static AuthorizationRuleIndex empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder(long version) {
+        return new Builder(version);
+    }
+
+    /**
+     * 查找请求匹配的规则，没有匹配时返回null
+     * @param method HTTP方法
+     * @param path 应用内路径（不含context path）
+     */
+    public Rule find(String method, String path) {
+        Rule any = anyMethod.match(path);
+        PathPatternIndex<Rule> methodIndex = method != null ? byMethod.get(method) : null;
+        Rule specific = methodIndex != null ? methodIndex.match(path) : null;
+        if (specific == null) {
+            return any;
+        }
+        return any == null || specific.order() < any.order() ? specific : any;
+    }
+
+    /**
+     * 索引版本号
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 规则数量
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 构建器，按添加顺序确定规则优先级，非线程安全
+     */
+    public static final class Builder {
+
+        private final long version;
+
+        private final Map<String, PathPatternIndex.Builder<Rule>> byMethod = new HashMap<>();
+
+        private final PathPatternIndex.Builder<Rule> anyMethod = PathPatternIndex.builder();
+
+        private int order;
+
+        private Builder(long version) {
+            this.version = version;
+        }
+
+        public Builder permitAll(String pattern, String method) {
+            return add(pattern, method, Access.PERMIT_ALL, Set.of());
+        }
+
+        public Builder authenticated(String pattern, String method) {
+            return add(pattern, method, Access.AUTHENTICATED, Set.of());
+        }
+
+        /**
+         * 添加角色规则
+         * @param roles 角色编码（不含ROLE_前缀）
+         */
+        public Builder hasAnyRole(String pattern, String method, String... roles) {
+            Set<String> authorities = Arrays.stream(roles)
+                    .map(String::trim)
+                    .filter(role -> !role.isEmpty())
+                    .map(role -> "ROLE_" + role)
+                    .collect(Collectors.toUnmodifiableSet());
+            if (authorities.isEmpty()) {
+                return authenticated(pattern, method);
+            }
+            return add(pattern, method, Access.HAS_ANY_ROLE, authorities);
+        }
+
+        private Builder add(String pattern, String method, Access access, Set<String> authorities) {
+            if (pattern == null || pattern.trim().isEmpty()) {
+                return this;
+            }
+            String normalizedMethod = method != null && !method.trim().isEmpty() ? method.trim().toUpperCase() : null;
+            Rule rule = new Rule(order++, pattern.trim(), normalizedMethod, access, authorities);
+            if (normalizedMethod == null) {
+                anyMethod.add(rule.pattern(), rule);
+            } else {
+                byMethod.computeIfAbsent(normalizedMethod, k -> PathPatternIndex.builder()).add(rule.pattern(), rule);
+            }
+            return this;
+        }
+
+        public AuthorizationRuleIndex build() {
+            Map<String, PathPatternIndex<Rule>> built = new HashMap<>();
+            byMethod.forEach((method, builder) -> built.put(method, builder.build()));
+            return new AuthorizationRuleIndex(version, order, Map.copyOf(built), anyMethod.build());
+        }
+    }
+}
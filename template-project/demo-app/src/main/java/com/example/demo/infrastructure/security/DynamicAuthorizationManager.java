@@ -0,0 +1,79 @@
+package com.example.demo.infrastructure.security;
+
+import com.example.demo.application.role.SecurityConfigService;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * 基于数据库配置的动态授权管理器
+ * 规则来自 security_whitelist 和 security_permission 表，由SecurityConfigService编译为
+ * {@link AuthorizationRuleIndex} 并在配置变更时整体替换，无需重启即可生效。
+ * 没有匹配规则的请求需要登录。
+ */
+@Slf4j
+@Component
+public class DynamicAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+
+    @Autowired
+    private SecurityConfigService securityConfigService;
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        HttpServletRequest request = context.getRequest();
+        // 异步分派（如流式导出完成后）沿用原始请求的授权结果，无状态认证下此时没有登录信息
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return GRANTED;
+        }
+        AuthorizationRuleIndex.Rule rule = securityConfigService.getAuthorizationRuleIndex()
+                .find(request.getMethod(), getRequestPath(request));
+
+        if (rule != null && rule.access() == AuthorizationRuleIndex.Access.PERMIT_ALL) {
+            return GRANTED;
+        }
+
+        Authentication auth = authentication.get();
+        if (auth == null || !auth.isAuthenticated() || trustResolver.isAnonymous(auth)) {
+            return DENIED;
+        }
+        if (rule == null || rule.access() == AuthorizationRuleIndex.Access.AUTHENTICATED) {
+            return GRANTED;
+        }
+
+        for (GrantedAuthority authority : auth.getAuthorities()) {
+            if (rule.authorities().contains(authority.getAuthority())) {
+                return GRANTED;
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("访问被拒绝: %s %s，匹配规则: %s，需要角色: %s",
+                    request.getMethod(), request.getRequestURI(), rule.pattern(), rule.authorities()));
+        }
+        return DENIED;
+    }
+
+    /**
+     * 获取应用内请求路径（与AntPathRequestMatcher一致，使用servletPath + pathInfo）
+     */
+    private String getRequestPath(HttpServletRequest request) {
+        String pathInfo = request.getPathInfo();
+        return pathInfo == null ? request.getServletPath() : request.getServletPath() + pathInfo;
+    }
+}
@@ -47,83 +47,31 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private com.example.demo.application.role.SecurityConfigService securityConfigService;
 
-    /**
-     * 获取白名单路径（从数据库加载）
-     */
-    private String[] getWhitelistPaths() {
-        try {
-            List<com.example.demo.domain.security.entity.SecurityWhitelist> whitelists = securityConfigService.getAllEnabledWhitelist();
-            if (!whitelists.isEmpty()) {
-                return whitelists.stream()
-                        .map(com.example.demo.domain.security.entity.SecurityWhitelist::getPathPattern)
-                        .filter(path -> path != null && !path.trim().isEmpty())
-                        .toArray(String[]::new);
-            }
-        } catch (Exception e) {
-            logger.warn(String.format("加载白名单失败，使用默认白名单: %s", e.getMessage()));
-        }
-        
-        // 默认白名单（兜底）
-        return new String[]{
-            "/api/auth/login",
-            "/api/auth/register",
-            "/api/public",
-            "/swagger-ui",
-            "/v2/api-docs",
-            "/v3/api-docs",
-            "/actuator"
-        };
-    }
-
     /**
      * 重写此方法，在白名单路径上完全跳过过滤器
+     * 白名单匹配器由SecurityConfigService预编译并缓存，此处不访问数据库
      */
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
         String path = request.getRequestURI();
         String contextPath = request.getContextPath();
         
-        // 移除context path
+        // 跳过context path
+        int from = 0;
         if (contextPath != null && !contextPath.isEmpty() && path.startsWith(contextPath)) {
-            path = path.substring(contextPath.length());
+            from = contextPath.length();
         }
         
         // 检查是否在白名单中（支持Ant风格匹配）
-        String[] whitelistPaths = getWhitelistPaths();
-        for (String whitelistPath : whitelistPaths) {
-            if (matchesAntPattern(path, whitelistPath)) {
-                logger.debug(String.format("跳过JWT过滤器，白名单路径: %s (匹配模式: %s)", path, whitelistPath));
-                return true;
+        if (securityConfigService.getWhitelistMatcher().matches(path, from)) {
+            if (logger.isDebugEnabled()) {
+                logger.debug(String.format("跳过JWT过滤器，白名单路径: %s", path));
             }
+            return true;
         }
         return false;
     }
 
-    /**
-     * 简单的Ant风格路径匹配
-     */
-    private boolean matchesAntPattern(String path, String pattern) {
-        if (pattern == null || pattern.isEmpty()) {
-            return false;
-        }
-        
-        // 如果模式以 ** 结尾，表示匹配所有子路径
-        if (pattern.endsWith("/**")) {
-            String prefix = pattern.substring(0, pattern.length() - 3);
-            return path.startsWith(prefix);
-        }
-        
-        // 如果模式以 * 结尾，表示匹配单层路径
-        if (pattern.endsWith("*")) {
-            String prefix = pattern.substring(0, pattern.length() - 1);
-            int nextSlash = path.indexOf('/', prefix.length());
-            return path.startsWith(prefix) && (nextSlash == -1 || nextSlash == path.length());
-        }
-        
-        // 完全匹配
-        return path.equals(pattern);
-    }
-
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
                                    HttpServletResponse response, 
@@ -147,8 +95,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // 只有在存在token时才进行验证
         if (StringUtils.hasText(token)) {
             try {
-                // 从Redis获取Token信息
-                TokenInfo tokenInfo = tokenService.getTokenInfo(token);
+                // 获取Token信息（优先本地缓存，未命中时从Redis加载）
+                TokenInfo tokenInfo = tokenService.getCachedTokenInfo(token);
                 
                 if (tokenInfo != null) {
                     // 构建用户权限列表
@@ -160,9 +108,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     }
 
                     // 创建认证对象（不需要密码，因为已经通过token验证）
+                    // 主体携带用户ID和角色，后续的日志、审计字段填充和控制器无需再查询用户
                     UsernamePasswordAuthenticationToken authentication = 
                             new UsernamePasswordAuthenticationToken(
-                                    tokenInfo.getUsername(), null, authorities);
+                                    LoginUser.from(tokenInfo), null, authorities);
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                     SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -0,0 +1,81 @@
+package com.example.demo.infrastructure.security;
+
+import com.example.demo.domain.security.entity.TokenInfo;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * 当前登录用户（认证主体）
+ * 由 {@link JwtAuthenticationFilter} 根据 TokenInfo 在每个请求中构建一次，不可变。
+ * 日志切面、自动填充和控制器直接从安全上下文取用户ID和角色，不再按用户名查询数据库。
+ * 实现 {@link Principal}，Authentication.getName() 仍返回用户名。
+ */
+public final class LoginUser implements Principal, Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final String userId;
+
+    private final String username;
+
+    private final List<String> roles;
+
+    private final List<String> permissions;
+
+    public LoginUser(String userId, String username, List<String> roles, List<String> permissions) {
+        this.userId = userId;
+        this.username = username;
+        this.roles = roles != null ? List.copyOf(roles) : List.of();
+        this.permissions = permissions != null ? List.copyOf(permissions) : List.of();
+    }
+
+    /**
+     * 根据Token信息构建
+     */
+    public static LoginUser from(TokenInfo tokenInfo) {
+        return new LoginUser(tokenInfo.getUserId(), tokenInfo.getUsername(), tokenInfo.getRoles(), tokenInfo.getPermissions());
+    }
+
+    /**
+     * 获取当前请求的登录用户，未登录或不是通过Token认证（如测试中的模拟用户）时返回null
+     */
+    public static LoginUser current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof LoginUser loginUser) {
+            return loginUser;
+        }
+        return null;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    public List<String> getPermissions() {
+        return permissions;
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
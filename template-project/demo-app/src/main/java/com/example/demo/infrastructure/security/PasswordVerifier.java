@@ -0,0 +1,95 @@
+package com.example.demo.infrastructure.security;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 密码哈希校验器
+ * BCrypt 校验是CPU密集型操作，统一在有界线程池中执行：同时计算哈希的线程数不超过CPU核数，
+ * 排队数量有上限，队列满或等待超时时立即拒绝，登录高峰不会让哈希计算占满CPU、拖慢其他请求。
+ */
+@Component
+public class PasswordVerifier {
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final ThreadPoolExecutor executor;
+
+    private final long timeoutMillis;
+
+    /**
+     * @param threads       计算哈希的线程数，小于等于0时使用CPU核数
+     * @param queueCapacity 等待计算的最大请求数
+     * @param timeoutMillis 排队加计算的最长等待时间（毫秒）
+     */
+    @Autowired
+    public PasswordVerifier(PasswordEncoder passwordEncoder,
+                            @Value("${auth.password-verify.threads:0}") int threads,
+                            @Value("${auth.password-verify.queue-capacity:64}") int queueCapacity,
+                            @Value("${auth.password-verify.timeout-ms:3000}") long timeoutMillis) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMillis = timeoutMillis;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), verifyThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private static ThreadFactory verifyThreadFactory() {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-verify-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 校验明文密码与数据库中的哈希是否匹配（只计算一次哈希）
+     * @throws RejectedExecutionException 校验队列已满或等待超时，调用方应提示稍后重试
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return false;
+        }
+        Future<Boolean> future = executor.submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 仍在排队的任务被取消后不会再计算
+            future.cancel(false);
+            throw new RejectedExecutionException(String.format("密码校验等待超过 %d ms", timeoutMillis));
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("密码校验被中断");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("密码校验失败: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * 当前排队等待校验的请求数
+     */
+    public int queuedCount() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,327 @@
+package com.example.demo.infrastructure.security;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 按路径段组织的Ant风格路径模式前缀树
+ * 构建后不可变，可在多线程间共享；除含变量的路径段外，匹配过程不拆分字符串、不创建对象。
+ * 多个模式同时匹配时，返回最先添加的模式对应的值（与Spring Security按顺序匹配的语义一致）。
+ * <p>
+ * 支持的模式：
+ * <ul>
+ *     <li>{@code /api/auth/login}：完全匹配</li>
+ *     <li>{@code /api/public/*}：匹配单层路径</li>
+ *     <li>{@code /api/public/**}：匹配该路径本身及所有子路径，{@code **} 也可出现在中间</li>
+ *     <li>{@code /api/file-*}、{@code /api/v?/users}：段内通配，{@code ?} 匹配单个字符</li>
+ *     <li>{@code /api/users/{id}}、{@code /api/users/{id:\d+}}：路径变量，匹配单层路径中的任意字符或指定正则
+ *     （与 AntPathMatcher 一致，按正则匹配该路径段）</li>
+ * </ul>
+ *
+ * @param <T> 模式对应的值类型
+ */
+public final class PathPatternIndex<T> {
+
+    private final Node<T> root;
+
+    private final int size;
+
+    private PathPatternIndex(Node<T> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * 查找匹配的值，没有匹配时返回null
+     */
+    public T match(String path) {
+        return match(path, 0);
+    }
+
+    /**
+     * 查找路径从指定位置开始的部分匹配的值（用于跳过context path）
+     */
+    public T match(String path, int from) {
+        if (path == null || from > path.length() || size == 0) {
+            return null;
+        }
+        int start = from < path.length() && path.charAt(from) == '/' ? from + 1 : from;
+        Entry<T> entry = root.match(path, start, null);
+        return entry != null ? entry.value : null;
+    }
+
+    /**
+     * 模式数量
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 构建器，非线程安全
+     */
+    public static final class Builder<T> {
+
+        private final Node<T> root = new Node<>();
+
+        private int order;
+
+        private Builder() {
+        }
+
+        /**
+         * 添加路径模式，空值和空串会被忽略
+         * @throws IllegalArgumentException 路径变量缺少右括号或正则不合法
+         */
+        public Builder<T> add(String pattern, T value) {
+            if (pattern == null || pattern.trim().isEmpty()) {
+                return this;
+            }
+            String trimmed = pattern.trim();
+            String[] segments = (trimmed.startsWith("/") ? trimmed.substring(1) : trimmed).split("/", -1);
+            Node<T> node = root;
+            for (String segment : segments) {
+                node = "**".equals(segment) ? node.doubleStar() : node.child(segment);
+            }
+            Entry<T> entry = new Entry<>(order++, value);
+            if (node.entry == null) {
+                node.entry = entry;
+            }
+            return this;
+        }
+
+        public PathPatternIndex<T> build() {
+            return new PathPatternIndex<>(root.freeze(), order);
+        }
+    }
+
+    private record Entry<T>(int order, T value) {
+    }
+
+    /**
+     * 前缀树节点，每个节点对应一个路径段
+     */
+    private static final class Node<T> {
+
+        private Map<String, Node<T>> building = new LinkedHashMap<>();
+
+        /** 字面量子节点 */
+        private String[] literalKeys;
+        private List<Node<T>> literalNodes;
+
+        /** 含通配符的子节点（包括单独的 *） */
+        private String[] globKeys;
+        private List<Node<T>> globNodes;
+
+        /** 含路径变量的子节点，按正则匹配路径段 */
+        private Pattern[] variablePatterns;
+        private List<Node<T>> variableNodes;
+
+        /** ** 子节点：匹配零个或多个路径段 */
+        private Node<T> doubleStar;
+
+        /** 在此结束的模式（同一模式重复添加时保留最先添加的） */
+        private Entry<T> entry;
+
+        private Node<T> child(String segment) {
+            if (segment.indexOf('{') >= 0 && !building.containsKey(segment)) {
+                // 添加时即校验，格式错误的模式不会进入索引
+                toRegex(segment);
+            }
+            return building.computeIfAbsent(segment, k -> new Node<>());
+        }
+
+        private Node<T> doubleStar() {
+            if (doubleStar == null) {
+                doubleStar = new Node<>();
+            }
+            return doubleStar;
+        }
+
+        private Node<T> freeze() {
+            List<String> literals = new ArrayList<>();
+            List<Node<T>> literalChildren = new ArrayList<>();
+            List<String> globs = new ArrayList<>();
+            List<Node<T>> globChildren = new ArrayList<>();
+            List<Pattern> variables = new ArrayList<>();
+            List<Node<T>> variableChildren = new ArrayList<>();
+            for (Map.Entry<String, Node<T>> e : building.entrySet()) {
+                Node<T> child = e.getValue().freeze();
+                if (e.getKey().indexOf('{') >= 0) {
+                    variables.add(toRegex(e.getKey()));
+                    variableChildren.add(child);
+                } else if (e.getKey().indexOf('*') >= 0 || e.getKey().indexOf('?') >= 0) {
+                    globs.add(e.getKey());
+                    globChildren.add(child);
+                } else {
+                    literals.add(e.getKey());
+                    literalChildren.add(child);
+                }
+            }
+            literalKeys = literals.toArray(new String[0]);
+            literalNodes = List.copyOf(literalChildren);
+            globKeys = globs.toArray(new String[0]);
+            globNodes = List.copyOf(globChildren);
+            variablePatterns = variables.toArray(new Pattern[0]);
+            variableNodes = List.copyOf(variableChildren);
+            if (doubleStar != null) {
+                doubleStar.freeze();
+            }
+            building = null;
+            return this;
+        }
+
+        /**
+         * 从start位置开始匹配当前节点下的路径段
+         * @param start 当前路径段起始位置
+         * @param best 目前找到的最优（最先添加）的匹配
+         */
+        private Entry<T> match(String path, int start, Entry<T> best) {
+            int length = path.length();
+            if (doubleStar != null) {
+                // ** 可以匹配零个或多个路径段
+                best = doubleStar.matchHere(path, start - 1, best);
+                for (int i = start; i < length; i++) {
+                    if (path.charAt(i) == '/') {
+                        best = doubleStar.matchHere(path, i, best);
+                    }
+                }
+                best = better(best, doubleStar.entry);
+            }
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            int segmentLength = end - start;
+            for (int i = 0; i < literalKeys.length; i++) {
+                String key = literalKeys[i];
+                if (key.length() == segmentLength && path.regionMatches(start, key, 0, segmentLength)) {
+                    best = literalNodes.get(i).matchHere(path, end, best);
+                }
+            }
+            for (int i = 0; i < globKeys.length; i++) {
+                if (globMatches(globKeys[i], path, start, end)) {
+                    best = globNodes.get(i).matchHere(path, end, best);
+                }
+            }
+            for (int i = 0; i < variablePatterns.length; i++) {
+                if (variablePatterns[i].matcher(path).region(start, end).matches()) {
+                    best = variableNodes.get(i).matchHere(path, end, best);
+                }
+            }
+            return best;
+        }
+
+        /**
+         * 路径已匹配到end位置（end为路径末尾或 / 所在位置），继续匹配剩余部分
+         */
+        private Entry<T> matchHere(String path, int end, Entry<T> best) {
+            if (end >= path.length()) {
+                best = better(best, entry);
+                if (doubleStar != null) {
+                    best = better(best, doubleStar.entry);
+                }
+                return best;
+            }
+            if (end < 0) {
+                return best;
+            }
+            return match(path, end + 1, best);
+        }
+
+        private static <T> Entry<T> better(Entry<T> best, Entry<T> candidate) {
+            if (candidate == null) {
+                return best;
+            }
+            return best == null || candidate.order() < best.order() ? candidate : best;
+        }
+
+        /**
+         * 段内通配匹配，* 匹配任意个非 / 字符，? 匹配单个非 / 字符
+         */
+        private static boolean globMatches(String glob, String path, int start, int end) {
+            int g = 0;
+            int p = start;
+            int starG = -1;
+            int starP = -1;
+            while (p < end) {
+                if (g < glob.length() && glob.charAt(g) == '*') {
+                    starG = g++;
+                    starP = p;
+                } else if (g < glob.length() && (glob.charAt(g) == '?' || glob.charAt(g) == path.charAt(p))) {
+                    g++;
+                    p++;
+                } else if (starG >= 0) {
+                    g = starG + 1;
+                    p = ++starP;
+                } else {
+                    return false;
+                }
+            }
+            while (g < glob.length() && glob.charAt(g) == '*') {
+                g++;
+            }
+            return g == glob.length();
+        }
+
+        /**
+         * 将含路径变量的路径段转换为正则：{name} 匹配任意字符，{name:regex} 匹配指定正则，
+         * * 和 ? 同段内通配，其余字符按字面匹配
+         */
+        private static Pattern toRegex(String segment) {
+            StringBuilder regex = new StringBuilder();
+            int literalStart = 0;
+            for (int i = 0; i < segment.length(); i++) {
+                char c = segment.charAt(i);
+                if (c != '*' && c != '?' && c != '{') {
+                    continue;
+                }
+                if (literalStart < i) {
+                    regex.append(Pattern.quote(segment.substring(literalStart, i)));
+                }
+                if (c == '*') {
+                    regex.append(".*");
+                } else if (c == '?') {
+                    regex.append('.');
+                } else {
+                    int close = closingBrace(segment, i);
+                    if (close < 0) {
+                        throw new IllegalArgumentException("路径变量缺少右括号: " + segment);
+                    }
+                    String variable = segment.substring(i + 1, close);
+                    int colon = variable.indexOf(':');
+                    regex.append('(').append(colon >= 0 ? variable.substring(colon + 1) : ".*").append(')');
+                    i = close;
+                }
+                literalStart = i + 1;
+            }
+            if (literalStart < segment.length()) {
+                regex.append(Pattern.quote(segment.substring(literalStart)));
+            }
+            return Pattern.compile(regex.toString(), Pattern.DOTALL);
+        }
+
+        /**
+         * 与位置open处的 { 配对的 } 位置（正则中可能含有 {n} 形式的量词），没有时返回-1
+         */
+        private static int closingBrace(String segment, int open) {
+            int depth = 0;
+            for (int i = open; i < segment.length(); i++) {
+                char c = segment.charAt(i);
+                if (c == '{') {
+                    depth++;
+                } else if (c == '}' && --depth == 0) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.demo.infrastructure.security;
+
+import com.example.demo.domain.menu.entity.Menu;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 角色-菜单-权限快照
+ * 角色→菜单→菜单功能权限→安全权限关系的不可变内存快照，每次变更重建一个新版本并整体替换。
+ * 角色编号为从0开始的小整数，每个角色的菜单集合为按菜单排序下标组成的位图，
+ * 多个角色的菜单合并只需位图按位或，结果天然去重且保持菜单排序。
+ */
+public final class RbacSnapshot {
+
+    /** 超级管理员角色代码，拥有所有启用的菜单 */
+    public static final String SUPER_ADMIN = "SUPER_ADMIN";
+
+    private static final RbacSnapshot EMPTY = builder(0).build();
+
+    private final long version;
+
+    private final Map<String, Integer> roleIndex;
+
+    private final BitSet[] roleMenus;
+
+    private final List<Menu> menus;
+
+    private final List<String>[] menuPermissions;
+
+    private RbacSnapshot(long version, Map<String, Integer> roleIndex, BitSet[] roleMenus, List<Menu> menus,
+                         List<String>[] menuPermissions) {
+        this.version = version;
+        this.roleIndex = roleIndex;
+        this.roleMenus = roleMenus;
+        this.menus = menus;
+        this.menuPermissions = menuPermissions;
+    }
+
+    /**
+     * 空快照，没有任何角色和菜单
+     */
+    public static RbacSnapshot empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder(long version) {
+        return new Builder(version);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 角色数量
+     */
+    public int roleCount() {
+        return roleMenus.length;
+    }
+
+    /**
+     * 启用的菜单数量
+     */
+    public int menuCount() {
+        return menus.size();
+    }
+
+    /**
+     * 合并多个角色的菜单（去重，按菜单排序），超级管理员返回所有启用的菜单
+     */
+    public List<Menu> getMenus(Collection<String> roleCodes) {
+        BitSet menuBits = getMenuBits(roleCodes);
+        if (menuBits == null) {
+            return menus;
+        }
+        List<Menu> result = new ArrayList<>(menuBits.cardinality());
+        for (int i = menuBits.nextSetBit(0); i >= 0; i = menuBits.nextSetBit(i + 1)) {
+            result.add(menus.get(i));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * 合并多个角色可访问的安全权限ID（经由菜单功能权限，去重）
+     */
+    public Set<String> getSecurityPermissionIds(Collection<String> roleCodes) {
+        BitSet menuBits = getMenuBits(roleCodes);
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = 0; i < menus.size(); i++) {
+            if (menuBits == null || menuBits.get(i)) {
+                result.addAll(menuPermissions[i]);
+            }
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    /**
+     * 角色菜单位图的并集，包含超级管理员时返回null表示所有菜单
+     */
+    private BitSet getMenuBits(Collection<String> roleCodes) {
+        BitSet menuBits = new BitSet(menus.size());
+        if (roleCodes == null) {
+            return menuBits;
+        }
+        for (String roleCode : roleCodes) {
+            if (SUPER_ADMIN.equals(roleCode)) {
+                return null;
+            }
+            Integer index = roleIndex.get(roleCode);
+            if (index != null) {
+                menuBits.or(roleMenus[index]);
+            }
+        }
+        return menuBits;
+    }
+
+    /**
+     * 快照构建器，依次添加角色、启用的菜单（按显示顺序）和关联关系，未知的角色或菜单关联被忽略
+     */
+    public static final class Builder {
+
+        private final long version;
+
+        private final Map<String, Integer> roleIndexById = new HashMap<>();
+
+        private final Map<String, Integer> roleIndexByCode = new HashMap<>();
+
+        private final Map<String, Integer> menuIndexById = new HashMap<>();
+
+        private final List<Menu> menus = new ArrayList<>();
+
+        private final List<BitSet> roleMenus = new ArrayList<>();
+
+        private final Map<Integer, List<String>> menuPermissions = new HashMap<>();
+
+        private Builder(long version) {
+            this.version = version;
+        }
+
+        public Builder role(String roleId, String roleCode) {
+            if (roleId == null || roleCode == null || roleIndexById.containsKey(roleId)) {
+                return this;
+            }
+            int index = roleMenus.size();
+            roleMenus.add(new BitSet());
+            roleIndexById.put(roleId, index);
+            roleIndexByCode.putIfAbsent(roleCode, index);
+            return this;
+        }
+
+        public Builder menu(Menu menu) {
+            if (menu != null && menu.getId() != null && !menuIndexById.containsKey(menu.getId())) {
+                menuIndexById.put(menu.getId(), menus.size());
+                menus.add(menu);
+            }
+            return this;
+        }
+
+        public Builder roleMenu(String roleId, String menuId) {
+            Integer roleIndex = roleIndexById.get(roleId);
+            Integer menuIndex = menuIndexById.get(menuId);
+            if (roleIndex != null && menuIndex != null) {
+                roleMenus.get(roleIndex).set(menuIndex);
+            }
+            return this;
+        }
+
+        public Builder menuPermission(String menuId, String securityPermissionId) {
+            Integer menuIndex = menuIndexById.get(menuId);
+            if (menuIndex != null && securityPermissionId != null) {
+                menuPermissions.computeIfAbsent(menuIndex, k -> new ArrayList<>()).add(securityPermissionId);
+            }
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public RbacSnapshot build() {
+            List<String>[] permissions = new List[menus.size()];
+            for (int i = 0; i < permissions.length; i++) {
+                List<String> ids = menuPermissions.get(i);
+                permissions[i] = ids != null ? List.copyOf(ids) : List.of();
+            }
+            return new RbacSnapshot(version, Map.copyOf(roleIndexByCode), roleMenus.toArray(new BitSet[0]),
+                    Collections.unmodifiableList(new ArrayList<>(menus)), permissions);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.demo.infrastructure.security;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 预编译的白名单路径匹配器
+ * 将Ant风格路径模式编译为 {@link PathPatternIndex}，构建后不可变，可在多线程间共享；
+ * 除含路径变量的模式外，匹配过程不拆分字符串、不创建对象。
+ */
+public final class WhitelistMatcher {
+
+    private static final WhitelistMatcher EMPTY = compile(List.of());
+
+    private final PathPatternIndex<String> index;
+
+    private final List<String> patterns;
+
+    private WhitelistMatcher(PathPatternIndex<String> index, List<String> patterns) {
+        this.index = index;
+        this.patterns = patterns;
+    }
+
+    /**
+     * 空匹配器，不匹配任何路径
+     */
+    public static WhitelistMatcher empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 编译路径模式
+     * @param patterns 路径模式列表，空值和空串会被忽略
+     */
+    public static WhitelistMatcher compile(Collection<String> patterns) {
+        PathPatternIndex.Builder<String> builder = PathPatternIndex.builder();
+        List<String> compiled = new ArrayList<>();
+        for (String pattern : patterns) {
+            if (pattern == null || pattern.trim().isEmpty()) {
+                continue;
+            }
+            builder.add(pattern.trim(), pattern.trim());
+            compiled.add(pattern.trim());
+        }
+        return new WhitelistMatcher(builder.build(), List.copyOf(compiled));
+    }
+
+    /**
+     * 判断路径是否匹配任一白名单模式
+     */
+    public boolean matches(String path) {
+        return matches(path, 0);
+    }
+
+    /**
+     * 判断路径从指定位置开始的部分是否匹配任一白名单模式（用于跳过context path）
+     */
+    public boolean matches(String path, int from) {
+        return index.match(path, from) != null;
+    }
+
+    /**
+     * 已编译的路径模式
+     */
+    public List<String> getPatterns() {
+        return patterns;
+    }
+}
@@ -1,10 +1,9 @@
 package com.example.demo.interfaces.rest.admin;
 
 import com.example.demo.application.user.UserService;
-import com.example.demo.application.product.ProductService;
-import com.example.demo.application.product.ProductTypeService;
+import com.example.demo.application.statistics.DashboardStatisticsService;
+import com.example.demo.application.statistics.dto.DashboardStatistics;
 import com.example.demo.common.result.Result;
-import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -26,10 +25,7 @@ public class AdminController {
     private UserService userService;
 
     @Autowired
-    private ProductService productService;
-
-    @Autowired
-    private ProductTypeService productTypeService;
+    private DashboardStatisticsService dashboardStatisticsService;
 
     /**
      * 管理员可以强制删除用户
@@ -74,39 +70,12 @@ public class AdminController {
 
     /**
      * 获取控制台统计数据（真实数据库统计，不受权限过滤影响）
+     * 计数由写操作增量维护并定期从数据库校准，读取的是缓存的统计快照
      */
     @GetMapping("/statistics")
-    public Result<Map<String, Object>> getStatistics() {
+    public Result<DashboardStatistics> getStatistics() {
         try {
-            // 获取用户总数（直接从数据库统计，不受角色过滤影响）
-            long userCount = userService.count();
-            
-            // 获取商品类型总数
-            long productTypeCount = productTypeService.count();
-            
-            // 获取商品总数
-            long productCount = productService.count();
-            
-            // 获取启用商品数量
-            QueryWrapper<com.example.demo.domain.product.entity.Product> enabledWrapper = 
-                new QueryWrapper<>();
-            enabledWrapper.eq("enabled", true);
-            long activeProductCount = productService.count(enabledWrapper);
-            
-            // 获取禁用商品数量
-            QueryWrapper<com.example.demo.domain.product.entity.Product> disabledWrapper = 
-                new QueryWrapper<>();
-            disabledWrapper.eq("enabled", false);
-            long disabledProductCount = productService.count(disabledWrapper);
-            
-            Map<String, Object> data = new HashMap<>();
-            data.put("userCount", userCount);
-            data.put("productTypeCount", productTypeCount);
-            data.put("productCount", productCount);
-            data.put("activeProductCount", activeProductCount);
-            data.put("disabledProductCount", disabledProductCount);
-            
-            return Result.success(data);
+            return Result.success(dashboardStatisticsService.getStatistics());
         } catch (Exception e) {
             return Result.error(500, "获取统计数据失败: " + e.getMessage());
         }
@@ -8,34 +8,33 @@ import com.example.demo.domain.user.entity.User;
 import com.example.demo.common.enums.StatusCode;
 import com.example.demo.infrastructure.cache.RoleCacheService;
 import com.example.demo.infrastructure.cache.TokenService;
+import com.example.demo.infrastructure.security.LoginUser;
+import com.example.demo.infrastructure.security.PasswordVerifier;
 import com.example.demo.application.user.UserService;
 import com.example.demo.infrastructure.util.BrowserIdentifier;
 import com.example.demo.infrastructure.util.IpUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @Slf4j
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
-    @Autowired
-    private AuthenticationManager authenticationManager;
-
     @Autowired
     private UserService userService;
 
@@ -48,6 +47,9 @@ public class AuthController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PasswordVerifier passwordVerifier;
+
     @Autowired
     private BrowserIdentifier browserIdentifier;
 
@@ -59,6 +61,8 @@ public class AuthController {
 
     /**
      * 用户登录
+     * 用户只查询一次、密码哈希只校验一次（在有界线程池中执行）、角色只获取一次，
+     * 校验通过后直接构建认证信息，不再经过 AuthenticationManager 重复加载用户和校验密码
      */
     @PostMapping("/login")
     public Result<LoginResponse> login(@RequestBody(required = false) LoginRequest loginRequest, HttpServletRequest request) {
@@ -82,7 +86,6 @@ public class AuthController {
         log.info(String.format(LogMessages.Auth.LOGIN_REQUEST, username));
 
         try {
-            // 先查询用户是否存在
             User user = userService.getOne(
                     new com.baomidou.mybatisplus.core.conditions.query.QueryWrapper<User>()
                             .eq("username", username));
@@ -92,49 +95,31 @@ public class AuthController {
                 return Result.error(StatusCode.LOGIN_FAILED.getCode(), StatusCode.LOGIN_FAILED.getMessage());
             }
 
-            // 调试：验证密码是否匹配
+            // 数据库密码带有前后空格时直接校验去除空格后的哈希（带空格的哈希格式无效，不可能匹配），只计算一次哈希
             String dbPassword = user.getPassword();
-            log.info(String.format(LogMessages.Auth.PASSWORD_VERIFY_DETAIL, 
-                username, password.length(), dbPassword != null ? dbPassword.length() : 0));
-            log.info(String.format(LogMessages.Auth.PASSWORD_PREFIX, 
-                dbPassword != null && dbPassword.length() > 10 ? dbPassword.substring(0, 10) : dbPassword));
-            log.info(String.format(LogMessages.Auth.PASSWORD_FULL, dbPassword));
-            
-            boolean passwordMatches = passwordEncoder.matches(password, dbPassword);
-            log.info(String.format(LogMessages.Auth.PASSWORD_VERIFY_RESULT, passwordMatches));
-            
-            // 如果密码不匹配，尝试去除前后空格再验证
-            if (!passwordMatches && dbPassword != null) {
-                String trimmedPassword = dbPassword.trim();
-                if (!trimmedPassword.equals(dbPassword)) {
-                    log.info(LogMessages.Auth.PASSWORD_TRIM_DETECTED);
-                    passwordMatches = passwordEncoder.matches(password, trimmedPassword);
-                    if (passwordMatches) {
-                        // 更新数据库中的密码（去除空格）
-                        user.setPassword(trimmedPassword);
-                        userService.updateById(user);
-                        log.info(LogMessages.Auth.PASSWORD_TRIM_UPDATED);
-                    }
-                }
-            }
-            
-            if (!passwordMatches) {
+            String encodedPassword = dbPassword != null ? dbPassword.trim() : null;
+            if (!passwordVerifier.matches(password, encodedPassword)) {
                 log.warn(String.format(LogMessages.Auth.PASSWORD_VERIFY_FAILED, username));
-                // 额外调试：尝试直接比较（不应该匹配，但可以查看）
-                log.warn(String.format(LogMessages.Auth.PASSWORD_COMPARISON, password, dbPassword));
                 return Result.error(StatusCode.LOGIN_FAILED.getCode(), StatusCode.LOGIN_FAILED.getMessage());
             }
+            if (!encodedPassword.equals(dbPassword)) {
+                // 更新数据库中的密码（去除空格）
+                user.setPassword(encodedPassword);
+                userService.updateById(user);
+                log.info(LogMessages.Auth.PASSWORD_TRIM_UPDATED);
+            }
 
-            // 使用 AuthenticationManager 进行认证
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(username, password));
-
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-
-            // 从Redis缓存获取用户角色（优先从缓存获取）
+            // 获取用户角色（本地缓存 → Redis → 数据库）
             List<String> roleCodes = roleCacheService.getUserRoles(user.getId());
 
+            List<GrantedAuthority> authorities = new ArrayList<>(roleCodes.size());
+            for (String roleCode : roleCodes) {
+                authorities.add(new SimpleGrantedAuthority("ROLE_" + roleCode));
+            }
+            LoginUser loginUser = new LoginUser(user.getId(), user.getUsername(), roleCodes, List.of());
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(loginUser, null, authorities));
+
             // 生成32位随机Token
             String token = tokenService.generateToken();
             
@@ -147,14 +132,14 @@ public class AuthController {
             // 将Token和用户信息（包括角色权限）存储到Redis中
             // 注意：这里暂时不存储权限列表，只存储角色（权限可以后续扩展）
             // 传递浏览器ID和IP以实现单浏览器单用户限制和IP限制
-            tokenService.saveToken(token, userDetails.getUsername(), user.getId(), roleCodes, List.of(), browserId, clientIp);
+            tokenService.saveToken(token, user.getUsername(), user.getId(), roleCodes, List.of(), browserId, clientIp);
 
             // 获取用户菜单列表
             List<com.example.demo.domain.menu.entity.Menu> menus = menuService.getMenusByRoleCodes(roleCodes);
 
             LoginResponse response = new LoginResponse();
             response.setToken(token);
-            response.setUsername(userDetails.getUsername());
+            response.setUsername(user.getUsername());
             response.setRoles(roleCodes);
             response.setMenus(menus);
             response.setMessage(StatusCode.LOGIN_SUCCESS.getMessage());
@@ -162,15 +147,9 @@ public class AuthController {
             log.info(String.format(LogMessages.Auth.LOGIN_SUCCESS, username, token));
             return Result.success(StatusCode.LOGIN_SUCCESS.getMessage(), response);
 
-        } catch (UsernameNotFoundException e) {
-            log.warn(String.format(LogMessages.Auth.LOGIN_USER_NOT_FOUND, username));
-            return Result.error(StatusCode.LOGIN_FAILED.getCode(), StatusCode.LOGIN_FAILED.getMessage());
-        } catch (BadCredentialsException e) {
-            log.warn(String.format(LogMessages.Auth.LOGIN_PASSWORD_ERROR, username));
-            return Result.error(StatusCode.LOGIN_FAILED.getCode(), StatusCode.LOGIN_FAILED.getMessage());
-        } catch (org.springframework.security.core.AuthenticationException e) {
-            log.warn(String.format(LogMessages.Auth.LOGIN_AUTH_ERROR, username, e.getMessage()));
-            return Result.error(StatusCode.LOGIN_FAILED.getCode(), StatusCode.LOGIN_FAILED.getMessage());
+        } catch (RejectedExecutionException e) {
+            log.warn(String.format(LogMessages.Auth.LOGIN_BUSY, username, e.getMessage()));
+            return Result.error(StatusCode.LOGIN_BUSY.getCode(), StatusCode.LOGIN_BUSY.getMessage());
         } catch (Exception e) {
             log.error(String.format(LogMessages.Auth.LOGIN_EXCEPTION, e.getMessage()), e);
             return Result.error(StatusCode.LOGIN_ERROR.getCode(), StatusCode.LOGIN_ERROR.getMessage() + ": " + e.getMessage());
@@ -225,17 +204,23 @@ public class AuthController {
             return Result.error(StatusCode.UNAUTHORIZED.getCode(), StatusCode.UNAUTHORIZED.getMessage());
         }
 
-        String username = authentication.getName();
-        User user = userService.getOne(
-                new com.baomidou.mybatisplus.core.conditions.query.QueryWrapper<User>()
-                        .eq("username", username));
+        // 通过Token认证时用户ID和角色取自认证主体，按主键查询用户
+        LoginUser loginUser = LoginUser.current();
+        User user;
+        if (loginUser != null && loginUser.getUserId() != null) {
+            user = userService.getById(loginUser.getUserId());
+        } else {
+            user = userService.getOne(
+                    new com.baomidou.mybatisplus.core.conditions.query.QueryWrapper<User>()
+                            .eq("username", authentication.getName()));
+        }
         
         if (user == null) {
             return Result.error(StatusCode.USER_NOT_FOUND.getCode(), StatusCode.USER_NOT_FOUND.getMessage());
         }
 
-        // 从Redis缓存获取用户角色（优先从缓存获取）
-        List<String> roleCodes = roleCacheService.getUserRoles(user.getId());
+        // 用户角色：优先取认证主体中的角色，否则从Redis缓存获取
+        List<String> roleCodes = loginUser != null ? loginUser.getRoles() : roleCacheService.getUserRoles(user.getId());
 
         // 获取用户菜单列表
         List<com.example.demo.domain.menu.entity.Menu> menus = menuService.getMenusByRoleCodes(roleCodes);
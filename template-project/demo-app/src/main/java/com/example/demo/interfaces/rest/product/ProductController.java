@@ -2,12 +2,15 @@ package com.example.demo.interfaces.rest.product;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.demo.common.result.CursorPage;
 import com.example.demo.common.result.Result;
 import com.example.demo.domain.product.entity.Product;
 import com.example.demo.domain.product.entity.ProductType;
 import com.example.demo.common.enums.StatusCode;
 import com.example.demo.application.product.ProductService;
+import com.example.demo.application.product.ProductSuggestService;
 import com.example.demo.application.product.ProductTypeService;
+import com.example.demo.infrastructure.search.SuggestIndex;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
@@ -30,6 +33,9 @@ public class ProductController {
     @Autowired
     private ProductTypeService productTypeService;
 
+    @Autowired
+    private ProductSuggestService productSuggestService;
+
     /**
      * 创建商品
      */
@@ -103,30 +109,34 @@ public class ProductController {
             @RequestParam(required = false) Boolean enabled,
             @RequestParam(required = false) String keyword) {
         Page<Product> page = new Page<>(current, size);
-        QueryWrapper<Product> queryWrapper = new QueryWrapper<>();
-        
-        if (typeId != null && !typeId.trim().isEmpty()) {
-            queryWrapper.eq("type_id", typeId);
-        }
-        if (enabled != null) {
-            queryWrapper.eq("enabled", enabled);
-        }
-        // 如果有关键词，添加查询条件
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            queryWrapper.and(wrapper -> wrapper
-                .like("product_name", keyword.trim())
-                .or()
-                .like("product_code", keyword.trim())
-                .or()
-                .like("description", keyword.trim())
-            );
-        }
-        
+        QueryWrapper<Product> queryWrapper = productService.buildFilterWrapper(typeId, enabled, keyword);
         queryWrapper.orderByDesc("create_date");
         Page<Product> productPage = productService.page(page, queryWrapper);
         return Result.success(productPage);
     }
 
+    /**
+     * 游标分页查询商品
+     * 返回的nextCursor原样传回即可获取下一页，翻页开销与页码无关
+     */
+    @GetMapping("/cursor")
+    public Result<CursorPage<Product>> getProductsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String typeId,
+            @RequestParam(required = false) Boolean enabled,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(defaultValue = "false") Boolean withTotal) {
+        if (size < 1 || size > 1000) {
+            return Result.error(StatusCode.BAD_REQUEST.getCode(), "每页条数必须在1到1000之间");
+        }
+        try {
+            return Result.success(productService.pageByCursor(cursor, size, typeId, enabled, keyword, withTotal));
+        } catch (IllegalArgumentException e) {
+            return Result.error(StatusCode.BAD_REQUEST.getCode(), e.getMessage());
+        }
+    }
+
     /**
      * 查询所有启用的商品（不分页）
      */
@@ -203,26 +213,31 @@ public class ProductController {
 
     /**
      * 搜索商品
+     * 按相关度排序分页返回，匹配结果最多只能翻到前 search.product.max-results 条
      */
     @GetMapping("/search")
-    public Result<List<Product>> searchProducts(
+    public Result<Page<Product>> searchProducts(
             @RequestParam String keyword,
-            @RequestParam(required = false) String typeId) {
-        QueryWrapper<Product> queryWrapper = new QueryWrapper<>();
-        queryWrapper.and(wrapper -> wrapper
-                .like("product_name", keyword)
-                .or()
-                .like("product_code", keyword)
-                .or()
-                .like("description", keyword));
-        
-        if (typeId != null && !typeId.trim().isEmpty()) {
-            queryWrapper.eq("type_id", typeId);
+            @RequestParam(required = false) String typeId,
+            @RequestParam(required = false) Boolean enabled,
+            @RequestParam(defaultValue = "1") Integer current,
+            @RequestParam(defaultValue = "10") Integer size) {
+        try {
+            return Result.success(productService.search(keyword, typeId, enabled, current, size));
+        } catch (IllegalArgumentException e) {
+            return Result.error(StatusCode.BAD_REQUEST.getCode(), e.getMessage());
         }
-        
-        queryWrapper.orderByDesc("create_date");
-        List<Product> list = productService.list(queryWrapper);
-        return Result.success(list);
+    }
+
+    /**
+     * 商品和商品类型输入联想
+     * 匹配名称或代码中以关键词开头的词，结果来自本地内存索引，不查询数据库
+     */
+    @GetMapping("/suggest")
+    public Result<List<SuggestIndex.Item>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") Integer limit) {
+        return Result.success(productSuggestService.suggest(q, limit));
     }
 
     /**
@@ -3,6 +3,7 @@ package com.example.demo.interfaces.rest.role;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.demo.application.role.SecurityConfigService;
 import com.example.demo.common.result.Result;
 import com.example.demo.domain.security.entity.SecurityPermission;
 import com.example.demo.domain.security.entity.SecurityWhitelist;
@@ -33,6 +34,9 @@ public class SecurityConfigController {
     @Autowired
     private SecurityPermissionMapper permissionMapper;
 
+    @Autowired
+    private SecurityConfigService securityConfigService;
+
     // ========== 白名单管理 ==========
 
     /**
@@ -77,6 +81,7 @@ public class SecurityConfigController {
         boolean saved = whitelistMapper.insert(whitelist) > 0;
         if (saved) {
             log.info(String.format("创建白名单配置: %s", whitelist.getPathPattern()));
+            securityConfigService.onWhitelistChanged();
             return Result.success("创建成功", whitelist);
         } else {
             return Result.error(500, "创建失败");
@@ -102,6 +107,7 @@ public class SecurityConfigController {
         boolean updated = whitelistMapper.updateById(whitelist) > 0;
         if (updated) {
             log.info(String.format("更新白名单配置: %s", id));
+            securityConfigService.onWhitelistChanged();
             return Result.success("更新成功", whitelistMapper.selectById(id));
         } else {
             return Result.error(500, "更新失败");
@@ -116,6 +122,7 @@ public class SecurityConfigController {
         boolean removed = whitelistMapper.deleteById(id) > 0;
         if (removed) {
             log.info(String.format("删除白名单配置: %s", id));
+            securityConfigService.onWhitelistChanged();
             return Result.success("删除成功");
         } else {
             return Result.error(404, "白名单配置不存在");
@@ -196,6 +203,7 @@ public class SecurityConfigController {
         boolean saved = permissionMapper.insert(permission) > 0;
         if (saved) {
             log.info(String.format("创建权限配置: %s", permission.getPathPattern()));
+            securityConfigService.onPermissionChanged();
             return Result.success("创建成功", permission);
         } else {
             return Result.error(500, "创建失败");
@@ -221,6 +229,7 @@ public class SecurityConfigController {
         boolean updated = permissionMapper.updateById(permission) > 0;
         if (updated) {
             log.info(String.format("更新权限配置: %s", id));
+            securityConfigService.onPermissionChanged();
             return Result.success("更新成功", permissionMapper.selectById(id));
         } else {
             return Result.error(500, "更新失败");
@@ -235,6 +244,7 @@ public class SecurityConfigController {
         boolean removed = permissionMapper.deleteById(id) > 0;
         if (removed) {
             log.info(String.format("删除权限配置: %s", id));
+            securityConfigService.onPermissionChanged();
             return Result.success("删除成功");
         } else {
             return Result.error(404, "权限配置不存在");
@@ -243,12 +253,13 @@ public class SecurityConfigController {
 
     /**
      * 刷新安全配置（使配置立即生效）
-     * 注意：配置会在下次请求时从数据库重新加载
+     * 从数据库重建白名单匹配器和授权规则索引，并通知其他实例同步重建
      */
     @PostMapping("/refresh")
     public Result<String> refreshConfig() {
         log.info("刷新安全配置");
-        return Result.success("配置将在下次请求时从数据库重新加载");
+        securityConfigService.onWhitelistChanged();
+        return Result.success("安全配置已重新加载");
     }
 }
 
@@ -1,24 +1,27 @@
 package com.example.demo.interfaces.rest.system;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.example.demo.application.log.OperationLogExporter;
 import com.example.demo.application.log.OperationLogService;
+import com.example.demo.common.result.CursorPage;
 import com.example.demo.common.result.Result;
 import com.example.demo.domain.log.entity.OperationLog;
+import com.example.demo.infrastructure.logging.OperationLogQueue;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * 操作日志管理控制器
@@ -33,6 +36,12 @@ public class OperationLogController {
     @Autowired
     private OperationLogService operationLogService;
 
+    @Autowired
+    private OperationLogQueue operationLogQueue;
+
+    @Autowired
+    private OperationLogExporter operationLogExporter;
+
     /**
      * 分页查询日志
      */
@@ -47,6 +56,36 @@ public class OperationLogController {
         return Result.success(logs);
     }
 
+    /**
+     * 游标分页查询日志
+     * 返回的nextCursor原样传回即可获取下一页，翻页开销与页码无关
+     */
+    @GetMapping("/cursor")
+    public Result<CursorPage<OperationLog>> getLogsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String module,
+            @RequestParam(required = false) String operationType,
+            @RequestParam(required = false) String username,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        if (size < 1 || size > 1000) {
+            return Result.error(400, "每页条数必须在1到1000之间");
+        }
+        try {
+            return Result.success(operationLogService.getLogsByCursor(cursor, size, module, operationType, username, withTotal));
+        } catch (IllegalArgumentException e) {
+            return Result.error(400, e.getMessage());
+        }
+    }
+
+    /**
+     * 查询异步日志队列状态（队列深度、丢弃数、写入数等）
+     */
+    @GetMapping("/queue-stats")
+    public Result<Map<String, Object>> getQueueStats() {
+        return Result.success(operationLogQueue.getStats());
+    }
+
     /**
      * 根据ID查询日志详情
      */
@@ -60,70 +99,55 @@ public class OperationLogController {
     }
 
     /**
-     * 导出日志（导出为TXT文件）
+     * 导出日志（流式输出，支持CSV/NDJSON/TXT格式和gzip压缩）
+     * 边查询边写出，不限制导出条数，内存占用与导出行数无关
+     * @param startTime 操作时间下限（含），格式 yyyy-MM-dd HH:mm:ss
+     * @param endTime 操作时间上限（不含），格式 yyyy-MM-dd HH:mm:ss
+     * @param format 导出格式：csv、ndjson、txt，默认txt
+     * @param gzip 是否gzip压缩
      */
     @GetMapping("/export")
-    public ResponseEntity<byte[]> exportLogs(
+    public ResponseEntity<StreamingResponseBody> exportLogs(
             @RequestParam(required = false) String module,
             @RequestParam(required = false) String operationType,
-            @RequestParam(required = false) String username) {
-        try {
-            // 查询所有符合条件的日志（不分页）
-            IPage<OperationLog> logsPage = operationLogService.getLogs(1, 10000, module, operationType, username);
-            List<OperationLog> logs = logsPage.getRecords();
-
-            // 生成TXT内容
-            StringBuilder content = new StringBuilder();
-            content.append("========== 操作日志导出 ==========\n");
-            content.append("导出时间: ").append(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))).append("\n");
-            content.append("日志数量: ").append(logs.size()).append("\n");
-            if (module != null && !module.isEmpty()) {
-                content.append("模块筛选: ").append(module).append("\n");
-            }
-            if (operationType != null && !operationType.isEmpty()) {
-                content.append("操作类型筛选: ").append(operationType).append("\n");
-            }
-            if (username != null && !username.isEmpty()) {
-                content.append("用户名筛选: ").append(username).append("\n");
-            }
-            content.append("=====================================\n\n");
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime endTime,
+            @RequestParam(defaultValue = "txt") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        OperationLogExporter.Format exportFormat = OperationLogExporter.Format.of(format);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest().build();
+        }
 
-            for (OperationLog log : logs) {
-                content.append("日志ID: ").append(log.getId()).append("\n");
-                content.append("用户ID: ").append(log.getUserId()).append("\n");
-                content.append("用户名: ").append(log.getUsername()).append("\n");
-                content.append("操作类型: ").append(log.getOperationType()).append("\n");
-                content.append("模块: ").append(log.getModule()).append("\n");
-                content.append("操作描述: ").append(log.getOperationDesc()).append("\n");
-                content.append("请求方法: ").append(log.getRequestMethod()).append("\n");
-                content.append("请求URL: ").append(log.getRequestUrl()).append("\n");
-                content.append("请求参数: ").append(log.getRequestParams()).append("\n");
-                content.append("响应结果: ").append(log.getResponseResult()).append("\n");
-                content.append("IP地址: ").append(log.getIpAddress()).append("\n");
-                content.append("用户代理: ").append(log.getUserAgent()).append("\n");
-                content.append("操作时间: ").append(log.getOperationTime() != null ?
-                    log.getOperationTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) : "").append("\n");
-                content.append("创建时间: ").append(log.getCreateDate() != null ?
-                    log.getCreateDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) : "").append("\n");
-                content.append("-------------------------------------\n");
+        String filename = "operation_logs_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) +
+                "." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> {
+            long startMillis = System.currentTimeMillis();
+            try {
+                GZIPOutputStream gzipOut = gzip ? new GZIPOutputStream(out, 8192, true) : null;
+                long count = operationLogExporter.export(gzipOut != null ? gzipOut : out, exportFormat,
+                        module, operationType, username, startTime, endTime);
+                if (gzipOut != null) {
+                    gzipOut.finish();
+                }
+                log.info(String.format("导出日志完成: format=%s, gzip=%s, count=%d, 耗时=%dms",
+                        exportFormat, gzip, count, System.currentTimeMillis() - startMillis));
+            } catch (IOException e) {
+                log.warn("导出日志中断（客户端可能已断开）: " + e.getMessage());
+            } catch (Exception e) {
+                log.error("导出日志失败: " + e.getMessage(), e);
+                throw e;
             }
+        };
 
-            // 转换为字节数组
-            byte[] bytes = content.toString().getBytes(StandardCharsets.UTF_8);
-
-            // 设置响应头
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.TEXT_PLAIN);
-            headers.setContentDispositionFormData("attachment", 
-                "operation_logs_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".txt");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType(exportFormat.getContentType()));
+        headers.setContentDispositionFormData("attachment", filename);
 
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(bytes);
-        } catch (Exception e) {
-            log.error("导出日志失败: " + e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
-        }
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
     }
 }
 
@@ -1,21 +1,31 @@
 package com.example.demo.interfaces.rest.system;
 
+import com.example.demo.common.constants.RedisKeyConstants;
 import com.example.demo.common.result.Result;
 import com.example.demo.domain.security.entity.TokenInfo;
+import com.example.demo.infrastructure.cache.RedisKeyScanner;
+import com.example.demo.infrastructure.cache.TokenLocalCache;
 import com.example.demo.infrastructure.cache.TokenService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.TimeUnit;
-import java.time.LocalDateTime;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 /**
@@ -34,6 +44,12 @@ public class RedisController {
     @Autowired
     private TokenService tokenService;
 
+    @Autowired
+    private RedisKeyScanner redisKeyScanner;
+
+    @Autowired
+    private TokenLocalCache tokenLocalCache;
+
     /**
      * 获取Token信息
      */
@@ -101,37 +117,78 @@ public class RedisController {
     }
 
     /**
-     * 获取所有Token Key（列出所有token:*的key）
+     * 分页浏览匹配模式的Key（基于SCAN游标，不阻塞Redis）
+     * @param pattern Key匹配模式，如 token:*
+     * @param cursor 上一页返回的游标，首页传0
+     * @param size 每页数量
      */
-    @GetMapping("/keys/tokens")
-    public Result<Map<String, Object>> getAllTokenKeys() {
+    @GetMapping("/keys")
+    public Result<Map<String, Object>> scanKeys(
+            @RequestParam String pattern,
+            @RequestParam(defaultValue = "0") String cursor,
+            @RequestParam(defaultValue = "100") Integer size) {
         try {
-            Set<String> keys = redisTemplate.keys("token:*");
+            RedisKeyScanner.KeyPage page = redisKeyScanner.scanPage(pattern, cursor, size);
             Map<String, Object> data = new HashMap<>();
-            data.put("count", keys != null ? keys.size() : 0);
-            data.put("keys", keys);
+            data.put("pattern", pattern);
+            data.put("count", page.keys().size());
+            data.put("keys", page.keys());
+            data.put("cursor", page.cursor());
+            data.put("finished", page.finished());
             return Result.success(data);
         } catch (Exception e) {
-            log.error(String.format("获取Token Keys失败: %s", e.getMessage()), e);
+            log.error(String.format("扫描Keys失败: %s", e.getMessage()), e);
             return Result.error(500, "获取失败: " + e.getMessage());
         }
     }
 
     /**
-     * 获取所有用户Token映射（列出所有user_token:*的key）
+     * 导出匹配模式的所有Key（流式输出，每行一个Key）
+     * 边扫描边写出，内存占用与Key数量无关
+     */
+    @GetMapping("/keys/export")
+    public ResponseEntity<StreamingResponseBody> exportKeys(@RequestParam String pattern) {
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            try {
+                redisKeyScanner.scan(pattern, 1000, keys -> {
+                    try {
+                        for (String key : keys) {
+                            writer.write(key);
+                            writer.write('\n');
+                        }
+                        writer.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                log.warn("导出Keys中断（客户端可能已断开）: " + e.getCause().getMessage());
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/plain;charset=UTF-8"))
+                .body(body);
+    }
+
+    /**
+     * 获取所有Token Key（列出token:*的key，分页）
+     */
+    @GetMapping("/keys/tokens")
+    public Result<Map<String, Object>> getAllTokenKeys(
+            @RequestParam(defaultValue = "0") String cursor,
+            @RequestParam(defaultValue = "100") Integer size) {
+        return scanKeys(RedisKeyConstants.Token.TOKEN + "*", cursor, size);
+    }
+
+    /**
+     * 获取所有用户Token映射（列出user_token:*的key，分页）
      */
     @GetMapping("/keys/user-tokens")
-    public Result<Map<String, Object>> getAllUserTokenKeys() {
-        try {
-            Set<String> keys = redisTemplate.keys("user_token:*");
-            Map<String, Object> data = new HashMap<>();
-            data.put("count", keys != null ? keys.size() : 0);
-            data.put("keys", keys);
-            return Result.success(data);
-        } catch (Exception e) {
-            log.error(String.format("获取用户Token Keys失败: %s", e.getMessage()), e);
-            return Result.error(500, "获取失败: " + e.getMessage());
-        }
+    public Result<Map<String, Object>> getAllUserTokenKeys(
+            @RequestParam(defaultValue = "0") String cursor,
+            @RequestParam(defaultValue = "100") Integer size) {
+        return scanKeys(RedisKeyConstants.Token.USER_TOKEN + "*", cursor, size);
     }
 
     /**
@@ -254,13 +311,13 @@ public class RedisController {
     @GetMapping("/info")
     public Result<Map<String, Object>> getRedisInfo() {
         try {
-            // 统计Token数量
-            Set<String> tokenKeys = redisTemplate.keys("token:*");
-            Set<String> userTokenKeys = redisTemplate.keys("user_token:*");
+            // 在线Token数直接取在线有序集合的大小，用户Token映射数通过SCAN统计
+            Long tokenCount = redisTemplate.opsForZSet().zCard(RedisKeyConstants.Token.ONLINE_TOKENS);
+            long userTokenCount = redisKeyScanner.count(RedisKeyConstants.Token.USER_TOKEN + "*");
             
             Map<String, Object> data = new HashMap<>();
-            data.put("tokenCount", tokenKeys != null ? tokenKeys.size() : 0);
-            data.put("userTokenCount", userTokenKeys != null ? userTokenKeys.size() : 0);
+            data.put("tokenCount", tokenCount != null ? tokenCount : 0);
+            data.put("userTokenCount", userTokenCount);
             data.put("message", "Redis连接正常");
             return Result.success(data);
         } catch (Exception e) {
@@ -271,6 +328,8 @@ public class RedisController {
 
     /**
      * 获取在线用户列表（分页）
+     * 从在线Token有序集合按最后刷新时间倒序分页，只读取当前页的Token信息；
+     * keyword 按用户名前缀（不区分大小写）或用户ID精确匹配
      */
     @GetMapping("/online-users")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
@@ -279,80 +338,30 @@ public class RedisController {
             @RequestParam(defaultValue = "15") Integer size,
             @RequestParam(required = false) String keyword) {
         try {
-            // 获取所有token keys
-            Set<String> tokenKeys = redisTemplate.keys("token:*");
-            if (tokenKeys == null || tokenKeys.isEmpty()) {
-                Map<String, Object> result = new HashMap<>();
-                result.put("records", new ArrayList<>());
-                result.put("total", 0);
-                result.put("current", current);
-                result.put("size", size);
-                result.put("pages", 0);
-                return Result.success(result);
+            int page = Math.max(1, current);
+            int pageSize = Math.max(1, size);
+            TokenService.OnlineTokenPage onlinePage = tokenService.getOnlineTokens(page, pageSize, keyword);
+
+            List<Map<String, Object>> records = new ArrayList<>(onlinePage.records().size());
+            for (TokenInfo tokenInfo : onlinePage.records()) {
+                Map<String, Object> userInfo = new HashMap<>();
+                userInfo.put("token", tokenInfo.getToken());
+                userInfo.put("username", tokenInfo.getUsername());
+                userInfo.put("userId", tokenInfo.getUserId());
+                userInfo.put("roles", tokenInfo.getRoles());
+                userInfo.put("createTime", tokenInfo.getCreateTime());
+                userInfo.put("lastRefreshTime", tokenInfo.getLastRefreshTime());
+                userInfo.put("expireTime", tokenInfo.getExpireTime());
+                records.add(userInfo);
             }
 
-            // 获取所有token信息
-            List<Map<String, Object>> onlineUsers = new ArrayList<>();
-            for (String tokenKey : tokenKeys) {
-                String tokenJson = redisTemplate.opsForValue().get(tokenKey);
-                if (tokenJson != null && !tokenJson.isEmpty()) {
-                    try {
-                        // 从tokenKey中提取token值（去掉"token:"前缀）
-                        String token = tokenKey.substring(6);
-                        TokenInfo tokenInfo = tokenService.getTokenInfo(token);
-                        if (tokenInfo != null) {
-                            // 如果有关键词，进行过滤
-                            if (keyword != null && !keyword.trim().isEmpty()) {
-                                String keywordLower = keyword.trim().toLowerCase();
-                                boolean matches = (tokenInfo.getUsername() != null && 
-                                    tokenInfo.getUsername().toLowerCase().contains(keywordLower)) ||
-                                    (tokenInfo.getUserId() != null && 
-                                    tokenInfo.getUserId().toLowerCase().contains(keywordLower));
-                                if (!matches) {
-                                    continue;
-                                }
-                            }
-
-                            Map<String, Object> userInfo = new HashMap<>();
-                            userInfo.put("token", tokenInfo.getToken());
-                            userInfo.put("username", tokenInfo.getUsername());
-                            userInfo.put("userId", tokenInfo.getUserId());
-                            userInfo.put("roles", tokenInfo.getRoles());
-                            userInfo.put("createTime", tokenInfo.getCreateTime());
-                            userInfo.put("lastRefreshTime", tokenInfo.getLastRefreshTime());
-                            userInfo.put("expireTime", tokenInfo.getExpireTime());
-                            onlineUsers.add(userInfo);
-                        }
-                    } catch (Exception e) {
-                        log.warn("解析token信息失败: " + tokenKey, e);
-                    }
-                }
-            }
-
-            // 按最后刷新时间倒序排序
-            onlineUsers.sort((a, b) -> {
-                LocalDateTime timeA = (LocalDateTime) a.get("lastRefreshTime");
-                LocalDateTime timeB = (LocalDateTime) b.get("lastRefreshTime");
-                if (timeA == null && timeB == null) return 0;
-                if (timeA == null) return 1;
-                if (timeB == null) return -1;
-                return timeB.compareTo(timeA);
-            });
-
-            // 分页处理
-            int total = onlineUsers.size();
-            int start = (current - 1) * size;
-            int end = Math.min(start + size, total);
-            List<Map<String, Object>> pagedUsers = start < total 
-                ? onlineUsers.subList(start, end) 
-                : new ArrayList<>();
-
+            long total = onlinePage.total();
             Map<String, Object> result = new HashMap<>();
-            result.put("records", pagedUsers);
+            result.put("records", records);
             result.put("total", total);
-            result.put("current", current);
-            result.put("size", size);
-            result.put("pages", (int) Math.ceil((double) total / size));
+            result.put("current", page);
+            result.put("size", pageSize);
+            result.put("pages", (int) Math.ceil((double) total / pageSize));
             return Result.success(result);
         } catch (Exception e) {
             log.error("获取在线用户列表失败: " + e.getMessage(), e);
@@ -415,16 +424,15 @@ public class RedisController {
     @DeleteMapping("/tokens/clear")
     public Result<Map<String, Object>> clearAllTokens() {
         try {
-            Set<String> tokenKeys = redisTemplate.keys("token:*");
-            Set<String> userTokenKeys = redisTemplate.keys("user_token:*");
-            
-            int deletedCount = 0;
-            if (tokenKeys != null && !tokenKeys.isEmpty()) {
-                deletedCount += redisTemplate.delete(tokenKeys);
-            }
-            if (userTokenKeys != null && !userTokenKeys.isEmpty()) {
-                deletedCount += redisTemplate.delete(userTokenKeys);
-            }
+            // 边扫描边分批UNLINK，不阻塞Redis
+            long deletedCount = redisKeyScanner.unlink(RedisKeyConstants.Token.TOKEN + "*");
+            deletedCount += redisKeyScanner.unlink(RedisKeyConstants.Token.USER_TOKEN + "*");
+            // Token索引、用户Token集合和在线Token索引随Token一起清空
+            redisKeyScanner.unlink(RedisKeyConstants.Token.TOKEN_INDEX + "*");
+            redisKeyScanner.unlink(RedisKeyConstants.Token.USER_TOKENS + "*");
+            redisKeyScanner.unlink(List.of(RedisKeyConstants.Token.ONLINE_TOKENS, RedisKeyConstants.Token.ONLINE_USERNAMES));
+            // 各实例的本地缓存中可能还有已删除的Token
+            tokenLocalCache.invalidateAll();
 
             Map<String, Object> data = new HashMap<>();
             data.put("deletedCount", deletedCount);
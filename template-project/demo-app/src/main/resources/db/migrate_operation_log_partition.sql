@@ -0,0 +1,103 @@
+-- ============================================================
+-- 迁移脚本：将操作日志表改为按 create_date 范围分区的分区表
+-- 说明：分区后过期日志按分区整体分离并删除，不再逐行DELETE
+-- 执行前请先备份数据库，并在低峰期执行（需要复制全部日志数据）！
+-- 要求：PostgreSQL 11 及以上版本
+-- ============================================================
+
+BEGIN;
+
+-- ============================================================
+-- 1. 将原表重命名为备份表
+-- ============================================================
+ALTER TABLE "operation_log" RENAME TO "operation_log_backup";
+ALTER TABLE "operation_log_backup" RENAME CONSTRAINT "operation_log_pkey" TO "operation_log_backup_pkey";
+
+-- 原表上的索引改名，避免与新表的同名索引冲突
+DO $$
+DECLARE
+    idx RECORD;
+BEGIN
+    FOR idx IN
+        SELECT indexname FROM pg_indexes
+        WHERE tablename = 'operation_log_backup' AND indexname LIKE 'idx_operation_log_%'
+    LOOP
+        EXECUTE format('ALTER INDEX %I RENAME TO %I', idx.indexname, idx.indexname || '_backup');
+    END LOOP;
+END $$;
+
+-- ============================================================
+-- 2. 创建分区表（与 schema.sql 一致）
+-- ============================================================
+CREATE TABLE "operation_log" (
+    id VARCHAR(32) NOT NULL,
+    user_id VARCHAR(32),
+    username VARCHAR(100),
+    operation_type VARCHAR(50) NOT NULL,
+    module VARCHAR(100) NOT NULL,
+    operation_desc VARCHAR(500),
+    request_method VARCHAR(10),
+    request_url VARCHAR(500),
+    request_params TEXT,
+    response_result TEXT,
+    ip_address VARCHAR(50),
+    user_agent VARCHAR(500),
+    operation_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    create_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    create_user VARCHAR(32) NOT NULL,
+    update_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    update_user VARCHAR(32),
+    deleted INTEGER NOT NULL DEFAULT 0,
+    db_version INTEGER NOT NULL DEFAULT 1,
+    tenant_id VARCHAR(32),
+    PRIMARY KEY (id, create_date)
+) PARTITION BY RANGE (create_date);
+
+CREATE TABLE "operation_log_default" PARTITION OF "operation_log" DEFAULT;
+
+-- ============================================================
+-- 3. 为已有数据创建按天分区（与应用默认的 operation-log.partition.interval=DAY 一致）
+--    分区命名：operation_log_pYYYYMMDD（按月为 operation_log_pYYYYMM）
+-- ============================================================
+DO $$
+DECLARE
+    day DATE;
+BEGIN
+    FOR day IN
+        SELECT DISTINCT create_date::date FROM "operation_log_backup"
+        UNION
+        SELECT generate_series(CURRENT_DATE, CURRENT_DATE + 3, INTERVAL '1 day')::date
+    LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF "operation_log" FOR VALUES FROM (%L) TO (%L)',
+                       'operation_log_p' || to_char(day, 'YYYYMMDD'), day, day + 1);
+    END LOOP;
+END $$;
+
+-- ============================================================
+-- 4. 复制数据
+-- ============================================================
+INSERT INTO "operation_log" SELECT * FROM "operation_log_backup";
+
+-- ============================================================
+-- 5. 创建索引（在分区表上创建会自动应用到所有分区）
+-- ============================================================
+CREATE INDEX IF NOT EXISTS idx_operation_log_user_id ON "operation_log"(user_id);
+CREATE INDEX IF NOT EXISTS idx_operation_log_username ON "operation_log"(username);
+CREATE INDEX IF NOT EXISTS idx_operation_log_operation_type ON "operation_log"(operation_type);
+CREATE INDEX IF NOT EXISTS idx_operation_log_module ON "operation_log"(module);
+CREATE INDEX IF NOT EXISTS idx_operation_log_operation_time ON "operation_log"(operation_time);
+CREATE INDEX IF NOT EXISTS idx_operation_log_create_time ON "operation_log"(create_date);
+CREATE INDEX IF NOT EXISTS idx_operation_log_deleted ON "operation_log"(deleted);
+CREATE INDEX IF NOT EXISTS idx_operation_log_tenant_id ON "operation_log"(tenant_id);
+CREATE INDEX IF NOT EXISTS idx_operation_log_time_id ON "operation_log"(operation_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_operation_log_create_date_id ON "operation_log"(create_date, id);
+
+COMMIT;
+
+ANALYZE "operation_log";
+
+-- ============================================================
+-- 6. 验证无误后删除备份表
+-- ============================================================
+-- SELECT (SELECT COUNT(*) FROM "operation_log") AS new_count, (SELECT COUNT(*) FROM "operation_log_backup") AS old_count;
+-- DROP TABLE IF EXISTS "operation_log_backup";
@@ -0,0 +1,24 @@
+-- ============================================================
+-- 迁移脚本：为商品表创建关键词搜索索引（pg_trgm 三元组GIN索引）
+-- 说明：商品搜索和列表筛选使用 LIKE/ILIKE '%关键词%' 匹配名称、代码、描述，
+--       前置通配符无法使用B-tree索引，创建三元组GIN索引后不再顺序扫描全表
+-- 要求：PostgreSQL 9.6 及以上版本，执行用户有创建扩展的权限
+-- 注意：CREATE INDEX CONCURRENTLY 不能在事务中执行，请勿用 BEGIN/COMMIT 包裹本脚本；
+--       建索引期间不阻塞商品表的读写，失败时会留下无效索引，删除后重新执行即可
+-- ============================================================
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_name_trgm ON "product" USING gin (product_name gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_code_trgm ON "product" USING gin (product_code gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_description_trgm ON "product" USING gin (description gin_trgm_ops);
+
+ANALYZE "product";
+
+-- ============================================================
+-- 验证：以下查询的执行计划应包含 Bitmap Index Scan on idx_product_name_trgm
+-- ============================================================
+-- EXPLAIN SELECT * FROM "product" WHERE product_name ILIKE '%手机%';
+
+-- 检查是否有创建失败的无效索引（有则 DROP INDEX 后重新执行本脚本）
+-- SELECT indexrelid::regclass FROM pg_index WHERE NOT indisvalid AND indrelid = 'product'::regclass;
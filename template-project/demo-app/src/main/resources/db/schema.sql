@@ -207,6 +207,14 @@ CREATE INDEX IF NOT EXISTS idx_product_type_id ON "product"(type_id);
 CREATE INDEX IF NOT EXISTS idx_product_code ON "product"(product_code);
 CREATE INDEX IF NOT EXISTS idx_product_deleted ON "product"(deleted);
 CREATE INDEX IF NOT EXISTS idx_product_tenant_id ON "product"(tenant_id);
+-- 游标分页索引：按 (create_date, id) 倒序定位下一页
+CREATE INDEX IF NOT EXISTS idx_product_create_date_id ON "product"(create_date DESC, id DESC);
+-- 关键词搜索索引：pg_trgm 三元组GIN索引，使 LIKE/ILIKE '%关键词%' 不再顺序扫描全表
+-- 需要 pg_trgm 扩展（PostgreSQL自带，创建扩展需要相应权限）
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_product_name_trgm ON "product" USING gin (product_name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_product_code_trgm ON "product" USING gin (product_code gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_product_description_trgm ON "product" USING gin (description gin_trgm_ops);
 
 -- ============================================================
 -- 6. 安全白名单表
@@ -414,9 +422,11 @@ CREATE INDEX IF NOT EXISTS idx_menu_permission_tenant_id ON "menu_permission"(te
 
 -- ============================================================
 -- 11. 操作日志表
+-- 按 create_date 范围分区，具体的日/月分区由应用启动时和每天定时提前创建，
+-- 过期分区由清理任务归档后整体分离并删除（见 OperationLogPartitionManager）
 -- ============================================================
 CREATE TABLE IF NOT EXISTS "operation_log" (
-    id VARCHAR(32) NOT NULL PRIMARY KEY,
+    id VARCHAR(32) NOT NULL,
     user_id VARCHAR(32),
     username VARCHAR(100),
     operation_type VARCHAR(50) NOT NULL,
@@ -435,8 +445,13 @@ CREATE TABLE IF NOT EXISTS "operation_log" (
     update_user VARCHAR(32),
     deleted INTEGER NOT NULL DEFAULT 0,
     db_version INTEGER NOT NULL DEFAULT 1,
-    tenant_id VARCHAR(32)
-);
+    tenant_id VARCHAR(32),
+    -- 分区表的主键必须包含分区键
+    PRIMARY KEY (id, create_date)
+) PARTITION BY RANGE (create_date);
+
+-- 默认分区：兜底没有对应日期分区的数据（正常情况下应为空）
+CREATE TABLE IF NOT EXISTS "operation_log_default" PARTITION OF "operation_log" DEFAULT;
 
 COMMENT ON TABLE "operation_log" IS '操作日志表';
 COMMENT ON COLUMN "operation_log".id IS '日志ID（32位随机字符）';
@@ -469,3 +484,7 @@ CREATE INDEX IF NOT EXISTS idx_operation_log_operation_time ON "operation_log"(o
 CREATE INDEX IF NOT EXISTS idx_operation_log_create_time ON "operation_log"(create_date);
 CREATE INDEX IF NOT EXISTS idx_operation_log_deleted ON "operation_log"(deleted);
 CREATE INDEX IF NOT EXISTS idx_operation_log_tenant_id ON "operation_log"(tenant_id);
+-- 游标分页索引：按 (operation_time, id) 倒序定位下一页
+CREATE INDEX IF NOT EXISTS idx_operation_log_time_id ON "operation_log"(operation_time DESC, id DESC);
+-- 归档索引：按 (create_date, id) 分块读取和删除过期日志
+CREATE INDEX IF NOT EXISTS idx_operation_log_create_date_id ON "operation_log"(create_date, id);
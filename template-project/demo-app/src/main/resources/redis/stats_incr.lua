@@ -0,0 +1,14 @@
+-- ============================================================
+-- 增量更新统计计数（一次往返，原子执行）
+-- 计数Hash不存在时不更新，避免生成只有部分字段的Hash；下次读取时从数据库重建
+-- KEYS[1] = stats:dashboard
+-- ARGV    = 字段/增量对
+-- 返回：1 已更新 | 0 计数Hash不存在
+-- ============================================================
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    return 0
+end
+for i = 1, #ARGV, 2 do
+    redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[i + 1])
+end
+return 1
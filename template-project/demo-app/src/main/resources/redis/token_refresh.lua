@@ -0,0 +1,38 @@
+-- ============================================================
+-- 刷新Token（一次往返，原子执行）
+-- 只更新Hash中的刷新时间和过期时间字段并续期相关Key，不重写角色/权限
+-- KEYS[1] = token:{token}
+-- KEYS[2] = token_index:{token}
+-- KEYS[3] = online_tokens
+-- KEYS[4] = online_usernames
+-- ARGV[1] = 当前时间（毫秒）
+-- ARGV[2] = 过期时间（秒）
+-- ARGV[3] = 刷新间隔（毫秒），超过此时间未刷新则认为Token失效
+-- ARGV[4] = 用户Token映射Key前缀（user_token:）
+-- ARGV[5] = 用户Token集合Key前缀（user_tokens:）
+-- ARGV[6] = token
+-- 返回：{'ok', username} | {'missing'} | {'stale', 最后刷新时间（毫秒）}
+-- ============================================================
+local info = redis.call('HMGET', KEYS[1], 'username', 'userId', 'lastRefreshTime')
+local username, userId, lastRefresh = info[1], info[2], info[3]
+if not username then
+    return {'missing'}
+end
+
+local now = tonumber(ARGV[1])
+local ttl = tonumber(ARGV[2])
+if lastRefresh and now - tonumber(lastRefresh) > tonumber(ARGV[3]) then
+    return {'stale', lastRefresh}
+end
+
+redis.call('HSET', KEYS[1], 'lastRefreshTime', ARGV[1], 'expireTime', tostring(now + ttl * 1000))
+redis.call('EXPIRE', KEYS[1], ttl)
+redis.call('EXPIRE', KEYS[2], ttl)
+redis.call('EXPIRE', ARGV[4] .. username, ttl)
+if userId then
+    redis.call('EXPIRE', ARGV[5] .. userId, ttl)
+end
+-- 更新在线Token的排序分值；索引建立之前登录的Token在刷新时补入索引
+redis.call('ZADD', KEYS[3], ARGV[1], ARGV[6])
+redis.call('ZADD', KEYS[4], 0, string.lower(username) .. ':' .. ARGV[6])
+return {'ok', username}
@@ -0,0 +1,137 @@
+-- ============================================================
+-- 保存Token（一次往返，原子执行）
+-- 依次处理浏览器/IP互斥与IP用户数上限，淘汰旧Token后写入新Token及其映射
+-- KEYS[1] = token:{token}
+-- KEYS[2] = token_index:{token}
+-- KEYS[3] = user_tokens:{userId}
+-- KEYS[4] = user_token:{username}
+-- KEYS[5] = browser_token:{browserId}         （未提供浏览器ID时为空串）
+-- KEYS[6] = user_browser:{userId}:{browserId} （未提供浏览器ID时为空串）
+-- KEYS[7] = ip_user_token:{ip}:{userId}        （未提供IP时为空串）
+-- KEYS[8] = ip_login_users:{ip}                （未提供IP时为空串）
+-- KEYS[9] = online_tokens                       （在线Token有序集合，score为最后刷新时间）
+-- KEYS[10] = online_usernames                   （在线用户名前缀索引）
+-- ARGV[1]  = token
+-- ARGV[2]  = userId
+-- ARGV[3]  = 过期时间（秒）
+-- ARGV[4]  = 每个IP最多允许的用户数
+-- ARGV[5]  = 当前时间（毫秒），作为IP用户有序集合的score
+-- ARGV[6]  = Token Key前缀
+-- ARGV[7]  = Token反向索引Key前缀
+-- ARGV[8]  = 用户Token集合Key前缀
+-- ARGV[9]  = IP用户有序集合Key前缀
+-- ARGV[10] = 当前IP的IP用户Token映射Key前缀（ip_user_token:{ip}:，未提供IP时为空串）
+-- ARGV[11] = 用户名
+-- ARGV[12..] = Token信息Hash的字段/值对
+-- 返回：被淘汰的Token，按 {原因, token, 被淘汰用户ID} 三元组平铺
+-- 注意：淘汰旧Token时会访问未在KEYS中声明的Key，仅适用于单机/主从Redis
+-- ============================================================
+local token = ARGV[1]
+local userId = ARGV[2]
+local ttl = tonumber(ARGV[3])
+local ipMaxUsers = tonumber(ARGV[4])
+local tokenPrefix = ARGV[6]
+local indexPrefix = ARGV[7]
+local userTokensPrefix = ARGV[8]
+local ipUsersPrefix = ARGV[9]
+local ipUserTokenPrefix = ARGV[10]
+
+-- 用户名前缀索引的member：{小写用户名}:{token}
+local function usernameMember(username, t)
+    return string.lower(username) .. ':' .. t
+end
+
+local evicted = {}
+local evictedSet = {}
+
+-- 删除旧Token及其反向索引记录的映射（与token_unlink.lua逻辑一致）
+local function unlink(oldToken)
+    local owner = redis.pcall('HMGET', tokenPrefix .. oldToken, 'userId', 'username')
+    local ownerId, ownerName = '', nil
+    if type(owner) == 'table' then
+        ownerId = owner[1] or ''
+        ownerName = owner[2]
+    end
+    local indexKey = indexPrefix .. oldToken
+    for _, key in ipairs(redis.call('SMEMBERS', indexKey)) do
+        if string.sub(key, 1, string.len(ipUsersPrefix)) == ipUsersPrefix then
+            redis.call('ZREM', key, ownerId)
+        elseif redis.call('GET', key) == oldToken then
+            redis.call('DEL', key)
+        end
+    end
+    redis.call('DEL', tokenPrefix .. oldToken, indexKey)
+    if ownerId ~= '' then
+        redis.call('SREM', userTokensPrefix .. ownerId, oldToken)
+    end
+    redis.call('ZREM', KEYS[9], oldToken)
+    if ownerName then
+        redis.call('ZREM', KEYS[10], usernameMember(ownerName, oldToken))
+    end
+    return ownerId
+end
+
+local function evict(reason, oldToken)
+    if oldToken and oldToken ~= token and not evictedSet[oldToken] then
+        evictedSet[oldToken] = true
+        local ownerId = unlink(oldToken)
+        table.insert(evicted, reason)
+        table.insert(evicted, oldToken)
+        table.insert(evicted, ownerId)
+    end
+end
+
+local hasBrowser = KEYS[5] ~= ''
+local hasIp = KEYS[7] ~= ''
+
+if hasBrowser then
+    -- 1. 该浏览器已有其他用户的token
+    evict('browser', redis.call('GET', KEYS[5]))
+    -- 2. 该用户在该浏览器已有token
+    evict('user_browser', redis.call('GET', KEYS[6]))
+end
+
+if hasIp then
+    -- 1. 同一IP下同一用户已有token
+    evict('ip_user', redis.call('GET', KEYS[7]))
+
+    -- 2. 同一IP下用户数达到上限时，按登录时间淘汰最早的用户
+    if not redis.call('ZSCORE', KEYS[8], userId) then
+        while redis.call('ZCARD', KEYS[8]) >= ipMaxUsers do
+            local oldest = redis.call('ZRANGE', KEYS[8], 0, 0)[1]
+            if not oldest then
+                break
+            end
+            evict('ip_max', redis.call('GET', ipUserTokenPrefix .. oldest))
+            redis.call('ZREM', KEYS[8], oldest)
+        end
+    end
+end
+
+-- 写入Token信息及映射
+redis.call('DEL', KEYS[1])
+redis.call('HSET', KEYS[1], unpack(ARGV, 12))
+redis.call('EXPIRE', KEYS[1], ttl)
+redis.call('SET', KEYS[4], token, 'EX', ttl)
+redis.call('SADD', KEYS[2], KEYS[4])
+
+if hasBrowser then
+    redis.call('SET', KEYS[5], token, 'EX', ttl)
+    redis.call('SET', KEYS[6], token, 'EX', ttl)
+    redis.call('SADD', KEYS[2], KEYS[5], KEYS[6])
+end
+
+if hasIp then
+    redis.call('SET', KEYS[7], token, 'EX', ttl)
+    redis.call('ZADD', KEYS[8], ARGV[5], userId)
+    redis.call('EXPIRE', KEYS[8], ttl)
+    redis.call('SADD', KEYS[2], KEYS[7], KEYS[8])
+end
+
+redis.call('EXPIRE', KEYS[2], ttl)
+redis.call('SADD', KEYS[3], token)
+redis.call('EXPIRE', KEYS[3], ttl)
+redis.call('ZADD', KEYS[9], ARGV[5], token)
+redis.call('ZADD', KEYS[10], 0, usernameMember(ARGV[11], token))
+
+return evicted
@@ -0,0 +1,33 @@
+-- ============================================================
+-- 删除Token及其拥有的所有映射（一次往返，原子执行）
+-- KEYS[1] = token:{token}
+-- KEYS[2] = token_index:{token}
+-- KEYS[3] = user_tokens:{userId}
+-- KEYS[4] = online_tokens
+-- KEYS[5] = online_usernames
+-- ARGV[1] = token
+-- ARGV[2] = userId
+-- ARGV[3] = IP用户有序集合Key前缀（ip_login_users:）
+-- 返回：删除的映射Key数量
+-- ============================================================
+local removed = 0
+local username = redis.call('HGET', KEYS[1], 'username')
+local ipUsersPrefix = ARGV[3]
+local members = redis.call('SMEMBERS', KEYS[2])
+for _, key in ipairs(members) do
+    if string.sub(key, 1, string.len(ipUsersPrefix)) == ipUsersPrefix then
+        -- IP用户有序集合：移除该用户
+        redis.call('ZREM', key, ARGV[2])
+    elseif redis.call('GET', key) == ARGV[1] then
+        -- 映射仍指向当前Token时才删除，避免误删其他会话的映射
+        redis.call('DEL', key)
+        removed = removed + 1
+    end
+end
+redis.call('DEL', KEYS[1], KEYS[2])
+redis.call('SREM', KEYS[3], ARGV[1])
+redis.call('ZREM', KEYS[4], ARGV[1])
+if username then
+    redis.call('ZREM', KEYS[5], string.lower(username) .. ':' .. ARGV[1])
+end
+return removed
@@ -0,0 +1,78 @@
+package com.example.demo.util;
+
+import com.example.demo.infrastructure.logging.AccessLogEvent;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 访问日志事件编码测试
+ */
+public class AccessLogEventTest {
+
+    @Test
+    public void testEncodeFields() {
+        byte[] bytes = new AccessLogEvent(512).begin()
+                .field("uri", "/api/products")
+                .field("durationUs", 1234)
+                .field("slow", false)
+                .field("message", null)
+                .end();
+        assertEquals("{\"uri\":\"/api/products\",\"durationUs\":1234,\"slow\":false,\"message\":null}",
+                new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testEscapeAndUtf8() {
+        byte[] bytes = new AccessLogEvent(512).begin()
+                .field("msg", "用户\"a\"\n\t\u0001😀")
+                .end();
+        assertEquals("{\"msg\":\"用户\\\"a\\\"\\n\\t\\u0001😀\"}", new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testTruncateKeepsValidJson() {
+        AccessLogEvent event = new AccessLogEvent(128).begin()
+                .field("uri", "/api/logs")
+                .field("params", "x".repeat(1000))
+                .field("user", "admin");
+        assertTrue(event.isTruncated());
+        String json = new String(event.end(), StandardCharsets.UTF_8);
+        assertTrue(json.length() <= 128);
+        assertTrue(json.startsWith("{\"uri\":\"/api/logs\",\"params\":\"xxx"));
+        assertTrue(json.endsWith("x\",\"truncated\":true}"));
+        assertFalse(json.contains("admin"));
+    }
+
+    @Test
+    public void testRawJsonField() {
+        byte[] bytes = new AccessLogEvent(512).begin()
+                .rawField("params", "{\"id\":1,\"keyword\":\"手机\"}")
+                .rawField("response", null)
+                .end();
+        assertEquals("{\"params\":{\"id\":1,\"keyword\":\"手机\"},\"response\":null}",
+                new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testRawJsonFieldTooLargeFallsBackToString() {
+        AccessLogEvent event = new AccessLogEvent(128).begin()
+                .rawField("params", "{\"q\":\"" + "x".repeat(1000) + "\"}");
+        assertTrue(event.isTruncated());
+        String json = new String(event.end(), StandardCharsets.UTF_8);
+        assertTrue(json.startsWith("{\"params\":\"{\\\"q\\\":\\\"xxx"));
+        assertTrue(json.endsWith("x\",\"truncated\":true}"));
+    }
+
+    @Test
+    public void testReuseAfterBegin() {
+        AccessLogEvent event = new AccessLogEvent(128);
+        event.begin().field("params", "x".repeat(1000)).end();
+        byte[] bytes = event.begin().field("a", 1).end();
+        assertEquals("{\"a\":1}", new String(bytes, StandardCharsets.UTF_8));
+    }
+}
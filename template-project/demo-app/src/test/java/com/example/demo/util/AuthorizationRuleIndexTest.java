@@ -0,0 +1,71 @@
+package com.example.demo.util;
+
+import com.example.demo.infrastructure.security.AuthorizationRuleIndex;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 授权规则索引测试
+ */
+public class AuthorizationRuleIndexTest {
+
+    private final AuthorizationRuleIndex index = AuthorizationRuleIndex.builder(1)
+            .permitAll("/api/auth/login", null)
+            .permitAll("/api/products/**", "GET")
+            .hasAnyRole("/api/products/**", null, "ADMIN")
+            .hasAnyRole("/api/**/export", null, "AUDITOR")
+            .authenticated("/api/users/*", "post")
+            .build();
+
+    @Test
+    public void testFirstMatchingRuleWins() {
+        assertEquals(AuthorizationRuleIndex.Access.PERMIT_ALL, index.find("GET", "/api/products/1").access());
+        assertTrue(index.find("POST", "/api/products/1").authorities().contains("ROLE_ADMIN"));
+    }
+
+    @Test
+    public void testDoubleWildcardInMiddle() {
+        assertTrue(index.find("GET", "/api/logs/x/export").authorities().contains("ROLE_AUDITOR"));
+        assertTrue(index.find("GET", "/api/export").authorities().contains("ROLE_AUDITOR"));
+    }
+
+    @Test
+    public void testMethodSpecificRule() {
+        assertEquals(AuthorizationRuleIndex.Access.AUTHENTICATED, index.find("POST", "/api/users/1").access());
+        assertNull(index.find("GET", "/api/users/1"));
+    }
+
+    @Test
+    public void testPathVariable() {
+        AuthorizationRuleIndex variables = AuthorizationRuleIndex.builder(1)
+                .hasAnyRole("/api/users/{id}", null, "ADMIN")
+                .hasAnyRole("/api/orders/{id:\\d+}/items", null, "AUDITOR")
+                .build();
+        assertTrue(variables.find("GET", "/api/users/42").authorities().contains("ROLE_ADMIN"));
+        assertNull(variables.find("GET", "/api/users/42/roles"));
+        assertTrue(variables.find("GET", "/api/orders/7/items").authorities().contains("ROLE_AUDITOR"));
+        assertNull(variables.find("GET", "/api/orders/abc/items"));
+        assertThrows(IllegalArgumentException.class,
+                () -> AuthorizationRuleIndex.builder(1).hasAnyRole("/api/users/{id", null, "ADMIN"));
+    }
+
+    @Test
+    public void testSingleCharacterWildcard() {
+        AuthorizationRuleIndex single = AuthorizationRuleIndex.builder(1)
+                .hasAnyRole("/api/v?/users", null, "ADMIN")
+                .build();
+        assertTrue(single.find("GET", "/api/v1/users").authorities().contains("ROLE_ADMIN"));
+        assertNull(single.find("GET", "/api/v10/users"));
+        assertNull(single.find("GET", "/api/v/users"));
+    }
+
+    @Test
+    public void testNoMatch() {
+        assertNull(index.find("GET", "/other"));
+        assertNull(AuthorizationRuleIndex.empty().find("GET", "/"));
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.demo.util;
+
+import com.example.demo.infrastructure.logging.BoundedJsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 有界JSON序列化测试
+ */
+public class BoundedJsonWriterTest {
+
+    private final BoundedJsonWriter writer = new BoundedJsonWriter(new ObjectMapper());
+
+    public static class LoginForm {
+        private String username = "admin";
+        private String password = "123456";
+        private String apiKey;
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public String getApiKey() {
+            return apiKey;
+        }
+    }
+
+    public static class BrokenForm {
+        private String password = "123456";
+
+        public String getPassword() {
+            return password;
+        }
+
+        public String getStatus() {
+            throw new IllegalStateException("not loaded");
+        }
+
+        @Override
+        public String toString() {
+            return "BrokenForm(password=" + password + ")";
+        }
+    }
+
+    @Test
+    public void testWriteWithinLimit() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", 1);
+        map.put("keyword", "手机");
+        assertEquals("{\"id\":1,\"keyword\":\"手机\"}", writer.write(map, 100));
+    }
+
+    @Test
+    public void testRedactSensitiveFields() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("form", new LoginForm());
+        map.put("accessToken", "abc");
+        assertEquals("{\"form\":{\"username\":\"admin\",\"password\":\"***\",\"apiKey\":null},\"accessToken\":\"***\"}",
+                writer.write(map, 1000));
+    }
+
+    @Test
+    public void testTruncateLargePayload() {
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            items.add("商品" + i);
+        }
+        String json = writer.write(items, 100);
+        assertTrue(json.endsWith(BoundedJsonWriter.TRUNCATED_MARK));
+        String prefix = json.substring(0, json.length() - BoundedJsonWriter.TRUNCATED_MARK.length());
+        assertTrue(prefix.getBytes(StandardCharsets.UTF_8).length <= 100);
+        assertTrue(prefix.startsWith("[\"商品0\",\"商品1\""));
+        // 截断处不产生半个字符
+        assertFalse(prefix.contains("\uFFFD"));
+    }
+
+    @Test
+    public void testTruncateAtCharBoundary() {
+        // 上限5字节落在第二个汉字中间（引号1字节 + 每个汉字3字节），只保留完整的第一个汉字
+        assertEquals("\"手" + BoundedJsonWriter.TRUNCATED_MARK, writer.write("手机手机", 5));
+        assertEquals("\"手机" + BoundedJsonWriter.TRUNCATED_MARK, writer.write("手机手机", 7));
+    }
+
+    @Test
+    public void testUnserializableValueNotLeaked() {
+        String json = writer.write(new BrokenForm(), 1000);
+        assertFalse(json.contains("123456"));
+        assertEquals("[unserializable " + BrokenForm.class.getName() + "]", json);
+    }
+
+    @Test
+    public void testWriteJsonValue() {
+        assertEquals("[\"a\",\"b\"]", writer.writeJsonValue(List.of("a", "b"), 100));
+        // 截断或无法序列化时整体输出为JSON字符串
+        assertEquals("\"[\\\"abc" + BoundedJsonWriter.TRUNCATED_MARK + "\"", writer.writeJsonValue(List.of("abcdef"), 5));
+        assertEquals("\"[unserializable " + BrokenForm.class.getName() + "]\"", writer.writeJsonValue(new BrokenForm(), 100));
+    }
+
+    @Test
+    public void testSensitiveName() {
+        assertTrue(BoundedJsonWriter.isSensitiveName("newPassword"));
+        assertTrue(BoundedJsonWriter.isSensitiveName("refreshToken"));
+        assertTrue(BoundedJsonWriter.isSensitiveName("secretKey"));
+        assertFalse(BoundedJsonWriter.isSensitiveName("keyword"));
+        assertFalse(BoundedJsonWriter.isSensitiveName("username"));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo.util;
+
+import com.example.demo.infrastructure.cache.BoundedTtlMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 本地缓存（容量上限、有效期、失效版本）测试
+ */
+public class BoundedTtlMapTest {
+
+    @Test
+    public void testPutAndGet() {
+        BoundedTtlMap<String, String> map = new BoundedTtlMap<>(10, 60);
+        map.put("a", "1", map.version());
+        assertEquals("1", map.get("a"));
+        map.invalidate(List.of("a"));
+        assertNull(map.get("a"));
+    }
+
+    @Test
+    public void testInvalidationDuringLoadDiscardsPut() {
+        BoundedTtlMap<String, String> map = new BoundedTtlMap<>(10, 60);
+        long version = map.version();
+        // 加载期间其他线程失效了该条目（如登出），加载结果不应写入
+        map.invalidate(List.of("token"));
+        map.put("token", "stale", version);
+        assertNull(map.get("token"));
+
+        version = map.version();
+        map.invalidateAll();
+        map.put("token", "stale", version);
+        assertNull(map.get("token"));
+    }
+
+    @Test
+    public void testInvalidationOfOtherKeyDoesNotDiscardPut() {
+        BoundedTtlMap<String, String> map = new BoundedTtlMap<>(10, 60);
+        long version = map.version();
+        // 加载B期间A被失效（如其他用户续期、登出），B的加载结果仍应写入
+        map.invalidate(List.of("A"));
+        map.put("B", "fresh", version);
+        assertEquals("fresh", map.get("B"));
+        assertNull(map.get("A"));
+
+        // A失效后重新加载的结果可以写入，失效前开始的加载随后写入时仍被拒绝
+        long staleVersion = version;
+        map.put("A", "new", map.version());
+        map.put("A", "stale", staleVersion);
+        assertEquals("new", map.get("A"));
+    }
+
+    @Test
+    public void testExpiredEntry() {
+        BoundedTtlMap<String, String> map = new BoundedTtlMap<>(10, 0);
+        map.put("a", "1", map.version());
+        assertNull(map.get("a"));
+    }
+
+    @Test
+    public void testCapacityBound() {
+        BoundedTtlMap<Integer, Integer> map = new BoundedTtlMap<>(10, 60);
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i, map.version());
+        }
+        int present = 0;
+        for (int i = 0; i < 100; i++) {
+            if (map.get(i) != null) {
+                present++;
+            }
+        }
+        assertTrue(present <= 10);
+        assertEquals(99, map.get(99));
+    }
+}
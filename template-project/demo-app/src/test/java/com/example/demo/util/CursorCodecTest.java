@@ -0,0 +1,36 @@
+package com.example.demo.util;
+
+import com.example.demo.common.util.CursorCodec;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 游标编解码测试
+ */
+public class CursorCodecTest {
+
+    @Test
+    public void testRoundTrip() {
+        LocalDateTime time = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123456000);
+        CursorCodec.Position position = CursorCodec.decode(CursorCodec.encode(time, "abc123"));
+        assertEquals(time, position.time());
+        assertEquals("abc123", position.id());
+    }
+
+    @Test
+    public void testEmptyCursorMeansFirstPage() {
+        assertNull(CursorCodec.decode(null));
+        assertNull(CursorCodec.decode(" "));
+    }
+
+    @Test
+    public void testInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode("not a cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode("Zm9vfGJhcg"));
+    }
+}
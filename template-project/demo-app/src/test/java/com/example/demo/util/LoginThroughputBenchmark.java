@@ -0,0 +1,158 @@
+package com.example.demo.util;
+
+import com.example.demo.infrastructure.security.PasswordVerifier;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 登录吞吐量基准
+ * 模拟登录高峰：callers 个请求线程同时登录，对比
+ * 原流程（请求线程中校验两次哈希：控制器一次、AuthenticationManager 一次）和
+ * 新流程（通过 PasswordVerifier 在有界线程池中只校验一次）的吞吐量、登录延迟，
+ * 以及高峰期间一个轻量请求的延迟（反映哈希计算对其他请求的影响）。
+ * 队列满、等待超时的拒绝行为见 PasswordVerifierTest。
+ * 类名不以 Test 结尾，默认不随 mvn test 执行，手动运行：
+ * mvn test -Dtest=LoginThroughputBenchmark -Dbenchmark.callers=64 -Dbenchmark.logins=5
+ */
+@Slf4j
+public class LoginThroughputBenchmark {
+
+    private static final String RAW_PASSWORD = "123456";
+
+    private final int callers = Integer.getInteger("benchmark.callers", 64);
+
+    private final int loginsPerCaller = Integer.getInteger("benchmark.logins", 5);
+
+    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+
+    private final String encodedPassword = encoder.encode(RAW_PASSWORD);
+
+    @Test
+    public void benchmarkLogin() throws Exception {
+        Result legacy = run("原流程（请求线程中校验两次）", () -> {
+            boolean matches = encoder.matches(RAW_PASSWORD, encodedPassword);
+            return matches && encoder.matches(RAW_PASSWORD, encodedPassword);
+        });
+        assertEquals(callers * loginsPerCaller, legacy.succeeded);
+
+        int cpus = Runtime.getRuntime().availableProcessors();
+        PasswordVerifier verifier = new PasswordVerifier(encoder, cpus, callers * loginsPerCaller, 60_000);
+        try {
+            Result pipeline = run("新流程（有界线程池中校验一次）",
+                    () -> verifier.matches(RAW_PASSWORD, encodedPassword));
+            assertEquals(callers * loginsPerCaller, pipeline.succeeded);
+        } finally {
+            verifier.shutdown();
+        }
+    }
+
+    private Result run(String name, Login login) throws Exception {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch ready = new CountDownLatch(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(callers);
+
+        for (int i = 0; i < callers; i++) {
+            Thread caller = new Thread(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                    for (int n = 0; n < loginsPerCaller; n++) {
+                        long begin = System.nanoTime();
+                        try {
+                            if (login.attempt()) {
+                                succeeded.incrementAndGet();
+                            }
+                        } catch (RejectedExecutionException e) {
+                            rejected.incrementAndGet();
+                        }
+                        latencies.add(System.nanoTime() - begin);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "login-caller-" + i);
+            caller.start();
+        }
+
+        ready.await();
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Long> probeLatencies = new ArrayList<>();
+        Thread probe = new Thread(() -> probe(running, probeLatencies), "light-request-probe");
+        probe.start();
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsedNanos = System.nanoTime() - begin;
+        running.set(false);
+        probe.join();
+
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        log.info(String.format("=== %s：%d 个请求线程 × %d 次登录 ===", name, callers, loginsPerCaller));
+        log.info(String.format("成功 %d 次，拒绝 %d 次，耗时 %.2f s，吞吐量 %.1f 次/秒",
+                succeeded.get(), rejected.get(), seconds, succeeded.get() / seconds));
+        log.info(String.format("登录延迟 p50 %.1f ms，p99 %.1f ms",
+                percentileMillis(latencies, 0.50), percentileMillis(latencies, 0.99)));
+        log.info(String.format("轻量请求延迟 p50 %.3f ms，p99 %.3f ms",
+                percentileMillis(probeLatencies, 0.50), percentileMillis(probeLatencies, 0.99)));
+        return new Result(succeeded.get(), rejected.get());
+    }
+
+    /**
+     * 高峰期间每隔约5毫秒执行一次轻量计算并记录耗时
+     */
+    private static void probe(AtomicBoolean running, List<Long> latencies) {
+        while (running.get()) {
+            long begin = System.nanoTime();
+            long sum = 0;
+            for (int i = 0; i < 10_000; i++) {
+                sum += i ^ (sum >>> 3);
+            }
+            if (sum == 42) {
+                log.debug("unreachable");
+            }
+            latencies.add(System.nanoTime() - begin);
+            try {
+                TimeUnit.MILLISECONDS.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static double percentileMillis(List<Long> nanos, double percentile) {
+        if (nanos.isEmpty()) {
+            return 0;
+        }
+        List<Long> sorted = new ArrayList<>(nanos);
+        Collections.sort(sorted);
+        int index = (int) Math.min(sorted.size() - 1, Math.ceil(percentile * sorted.size()) - 1);
+        return sorted.get(Math.max(0, index)) / 1_000_000.0;
+    }
+
+    @FunctionalInterface
+    private interface Login {
+        boolean attempt();
+    }
+
+    private record Result(int succeeded, int rejected) {
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.demo.util;
+
+import com.example.demo.infrastructure.security.PasswordVerifier;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 密码哈希校验器测试
+ * 使用可阻塞的编码器代替 BCrypt，不依赖机器速度
+ */
+public class PasswordVerifierTest {
+
+    /**
+     * 明文比较的编码器，release 之前每次校验都阻塞
+     */
+    private static class BlockingEncoder implements PasswordEncoder {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+
+    @Test
+    public void testMatches() {
+        BlockingEncoder encoder = new BlockingEncoder();
+        encoder.release.countDown();
+        PasswordVerifier verifier = new PasswordVerifier(encoder, 1, 1, 60_000);
+        try {
+            assertTrue(verifier.matches("123456", "123456"));
+            assertFalse(verifier.matches("wrongpassword", "123456"));
+            assertFalse(verifier.matches(null, "123456"));
+            assertFalse(verifier.matches("123456", null));
+        } finally {
+            verifier.shutdown();
+        }
+    }
+
+    @Test
+    public void testRejectsWhenQueueIsFull() throws Exception {
+        // 1个线程、队列容量1：一个在计算、一个在排队时，第三个请求应被立即拒绝
+        BlockingEncoder encoder = new BlockingEncoder();
+        PasswordVerifier verifier = new PasswordVerifier(encoder, 1, 1, 60_000);
+        Thread running = new Thread(() -> verifier.matches("123456", "123456"));
+        Thread queued = new Thread(() -> verifier.matches("123456", "123456"));
+        try {
+            running.start();
+            assertTrue(encoder.started.await(5, TimeUnit.SECONDS), "第一个请求应开始计算");
+            queued.start();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (verifier.queuedCount() < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertTrue(verifier.queuedCount() == 1, "第二个请求应在排队");
+
+            long begin = System.nanoTime();
+            assertThrows(RejectedExecutionException.class, () -> verifier.matches("123456", "123456"));
+            assertTrue(System.nanoTime() - begin < TimeUnit.SECONDS.toNanos(1), "队列满时应立即拒绝");
+        } finally {
+            encoder.release.countDown();
+            running.join();
+            queued.join();
+            verifier.shutdown();
+        }
+    }
+
+    @Test
+    public void testRejectsWhenWaitTimesOut() throws Exception {
+        // 计算一直不结束：超过等待时间后拒绝，而不是一直占用请求线程
+        BlockingEncoder encoder = new BlockingEncoder();
+        PasswordVerifier verifier = new PasswordVerifier(encoder, 1, 1, 50);
+        try {
+            long begin = System.nanoTime();
+            assertThrows(RejectedExecutionException.class, () -> verifier.matches("123456", "123456"));
+            assertTrue(System.nanoTime() - begin < TimeUnit.SECONDS.toNanos(5), "应在等待超时后返回");
+        } finally {
+            encoder.release.countDown();
+            verifier.shutdown();
+        }
+    }
+}
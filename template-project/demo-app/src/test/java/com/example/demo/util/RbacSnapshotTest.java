@@ -0,0 +1,62 @@
+package com.example.demo.util;
+
+import com.example.demo.domain.menu.entity.Menu;
+import com.example.demo.infrastructure.security.RbacSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 角色菜单权限快照测试
+ */
+public class RbacSnapshotTest {
+
+    private final RbacSnapshot snapshot = RbacSnapshot.builder(1)
+            .role("r1", "ADMIN")
+            .role("r2", "USER")
+            .role("r3", "SUPER_ADMIN")
+            .menu(menu("m1"))
+            .menu(menu("m2"))
+            .menu(menu("m3"))
+            .roleMenu("r1", "m3")
+            .roleMenu("r1", "m1")
+            .roleMenu("r2", "m1")
+            .roleMenu("r2", "m2")
+            .roleMenu("r2", "disabled")
+            .menuPermission("m1", "p1")
+            .menuPermission("m2", "p2")
+            .menuPermission("m3", "p1")
+            .build();
+
+    private static Menu menu(String id) {
+        Menu menu = new Menu();
+        menu.setId(id);
+        return menu;
+    }
+
+    private static List<String> ids(List<Menu> menus) {
+        return menus.stream().map(Menu::getId).toList();
+    }
+
+    @Test
+    public void testMergeRolesKeepsMenuOrder() {
+        assertEquals(List.of("m1", "m3"), ids(snapshot.getMenus(List.of("ADMIN"))));
+        assertEquals(List.of("m1", "m2", "m3"), ids(snapshot.getMenus(List.of("USER", "ADMIN"))));
+    }
+
+    @Test
+    public void testSuperAdminAndUnknownRole() {
+        assertEquals(List.of("m1", "m2", "m3"), ids(snapshot.getMenus(List.of("SUPER_ADMIN"))));
+        assertTrue(snapshot.getMenus(List.of("GUEST")).isEmpty());
+    }
+
+    @Test
+    public void testSecurityPermissionIds() {
+        assertEquals(Set.of("p1"), snapshot.getSecurityPermissionIds(List.of("ADMIN")));
+        assertEquals(Set.of("p1", "p2"), snapshot.getSecurityPermissionIds(List.of("USER")));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.demo.util;
+
+import com.example.demo.infrastructure.search.SuggestIndex;
+import com.example.demo.infrastructure.search.SuggestIndex.Item;
+import com.example.demo.infrastructure.search.SuggestIndex.Kind;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 输入联想索引测试
+ */
+public class SuggestIndexTest {
+
+    private final SuggestIndex index = SuggestIndex.builder()
+            .add(new Item(Kind.PRODUCT, "1", "Apple iPhone 15", "IP15"))
+            .add(new Item(Kind.PRODUCT, "2", "Apple Watch", "AW-2"))
+            .add(new Item(Kind.PRODUCT, "3", "华为手机Mate60", "HW-M60"))
+            .add(new Item(Kind.PRODUCT_TYPE, "4", "手机", "PHONE"))
+            .add(new Item(Kind.PRODUCT, "5", "Phone Case", "CASE-1"))
+            .build();
+
+    private List<String> ids(List<Item> items) {
+        return items.stream().map(Item::id).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testPrefixAndWordMatch() {
+        assertEquals(List.of("2", "1"), ids(index.suggest("apple", 10, 100, null, null)));
+        assertEquals(List.of("1"), ids(index.suggest("iph", 10, 100, null, null)));
+        // 字母与数字交界也是词首
+        assertEquals(List.of("1"), ids(index.suggest("15", 10, 100, null, null)));
+        assertEquals(List.of("2"), ids(index.suggest("aw-", 10, 100, null, null)));
+    }
+
+    @Test
+    public void testRanking() {
+        // 完全匹配 > 前缀匹配 > 词首匹配
+        assertEquals(List.of("4", "3"), ids(index.suggest("手机", 10, 100, null, null)));
+        assertEquals(List.of("4", "5"), ids(index.suggest("phone", 10, 100, null, null)));
+    }
+
+    @Test
+    public void testCjkSubstring() {
+        assertEquals(List.of("3"), ids(index.suggest("mate", 10, 100, null, null)));
+        assertTrue(ids(index.suggest("为手", 10, 100, null, null)).contains("3"));
+    }
+
+    @Test
+    public void testLimitAndNoMatch() {
+        assertEquals(1, index.suggest("a", 1, 100, null, null).size());
+        assertTrue(index.suggest("xyz", 10, 100, null, null).isEmpty());
+        assertTrue(index.suggest("  ", 10, 100, null, null).isEmpty());
+        assertTrue(SuggestIndex.empty().suggest("a", 10, 100, null, null).isEmpty());
+    }
+
+    @Test
+    public void testOverlayChanges() {
+        // 商品1已被修改、商品2已被删除：索引中的旧条目跳过，新条目参与排序
+        List<Item> changed = List.of(new Item(Kind.PRODUCT, "1", "Apple iPad", "IPAD"));
+        List<Item> result = index.suggest("apple", 10, 100,
+                item -> item.id().equals("1") || item.id().equals("2"), changed);
+        assertEquals(1, result.size());
+        assertEquals("Apple iPad", result.get(0).name());
+    }
+}
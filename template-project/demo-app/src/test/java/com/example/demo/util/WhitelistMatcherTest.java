@@ -0,0 +1,64 @@
+package com.example.demo.util;
+
+import com.example.demo.infrastructure.security.WhitelistMatcher;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 白名单匹配器测试
+ */
+public class WhitelistMatcherTest {
+
+    private final WhitelistMatcher matcher = WhitelistMatcher.compile(List.of(
+            "/api/auth/login",
+            "/api/public/**",
+            "/api/files/*",
+            "/api/docs/v*-api",
+            "/static/*/index.html"
+    ));
+
+    @Test
+    public void testExactMatch() {
+        assertTrue(matcher.matches("/api/auth/login"));
+        assertFalse(matcher.matches("/api/auth/login/x"));
+        assertFalse(matcher.matches("/api/auth"));
+    }
+
+    @Test
+    public void testDoubleWildcard() {
+        assertTrue(matcher.matches("/api/public"));
+        assertTrue(matcher.matches("/api/public/a/b/c"));
+        assertFalse(matcher.matches("/api/publicity"));
+    }
+
+    @Test
+    public void testSingleWildcard() {
+        assertTrue(matcher.matches("/api/files/a.txt"));
+        assertTrue(matcher.matches("/api/files/"));
+        assertFalse(matcher.matches("/api/files/a/b"));
+        assertTrue(matcher.matches("/static/app/index.html"));
+        assertFalse(matcher.matches("/static/app/other.html"));
+    }
+
+    @Test
+    public void testSegmentGlob() {
+        assertTrue(matcher.matches("/api/docs/v3-api"));
+        assertFalse(matcher.matches("/api/docs/v3-api-x"));
+    }
+
+    @Test
+    public void testContextPathOffset() {
+        assertTrue(matcher.matches("/demo/api/auth/login", "/demo".length()));
+        assertFalse(matcher.matches("/demo/api/auth/login"));
+    }
+
+    @Test
+    public void testEmpty() {
+        assertFalse(WhitelistMatcher.empty().matches("/api/auth/login"));
+        assertFalse(WhitelistMatcher.compile(List.of()).matches("/"));
+    }
+}